@@ -1,14 +1,29 @@
 package asteroids.part1;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import asteroids.model.BoundaryMode;
 import asteroids.part1.facade.IFacade;
 import asteroids.part1.internal.AsteroidsFrame;
 
 public class Part1 {
 	public static void main(String[] args) {
 		boolean tryFullscreen = false;
-		for (String arg : args) {
+		Path worldFile = null;
+		BoundaryMode boundaryMode = BoundaryMode.NONE;
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
 			if (arg.equals("-window")) {
 				tryFullscreen = false;
+			} else if (arg.equals("-walls")) {
+				boundaryMode = BoundaryMode.REFLECTIVE;
+			} else if (arg.equals("-wrap")) {
+				boundaryMode = BoundaryMode.TOROIDAL;
+			} else if (arg.equals("-unbounded")) {
+				boundaryMode = BoundaryMode.NONE;
+			} else if (arg.equals("-world") && i + 1 < args.length) {
+				worldFile = Paths.get(args[++i]);
 			} else {
 				System.out.println("unknown option: " + arg);
 				return;
@@ -16,6 +31,6 @@ public class Part1 {
 		}
 		
 		IFacade facade = new asteroids.facade.Facade();		
-		AsteroidsFrame.run(facade, tryFullscreen);	    
+		AsteroidsFrame.run(facade, tryFullscreen, worldFile, boundaryMode);	    
 	  }
 }
@@ -8,14 +8,18 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
+import java.nio.file.Path;
 
 import javax.swing.JFrame;
 import javax.swing.Timer;
 
+import asteroids.model.BoundaryMode;
 import asteroids.model.Ship;
+import asteroids.model.ShipRegistry;
+import asteroids.model.World;
 import asteroids.part1.facade.IFacade;
+import asteroids.scenario.WorldLoader;
 import asteroids.util.ModelException;
 import asteroids.util.internal.InternalUtils;
 
@@ -27,25 +31,51 @@ public class AsteroidsFrame extends JFrame {
 	private double angle;
 	private int width;
 	private int height;
+	private long lastStateVersion = -1;
+	private boolean idle;
 
+	public static final int TICKS_PER_SECOND = 30;
+	public static final int IDLE_TICKS_PER_SECOND = 2;
 	private static final double THRUST_PER_SECOND = 150;
+	private static final BoundaryMode DEFAULT_BOUNDARY_MODE = BoundaryMode.NONE;
+	private static final long ERROR_FLUSH_INTERVAL_MILLIS = 1000;
+	private static final String LATENCY_REPORT_PROPERTY = "asteroids.latencyReport";
+	private static final int MAX_ERRORS_PER_FLUSH = 10;
+
+	private final ErrorReporter errorReporter = new ErrorReporter(System.err, ERROR_FLUSH_INTERVAL_MILLIS,
+			MAX_ERRORS_PER_FLUSH);
 
 	public AsteroidsFrame(final IFacade facade, int width, int height, boolean undecorated) {
+		this(facade, width, height, undecorated, null, DEFAULT_BOUNDARY_MODE);
+	}
+
+	public AsteroidsFrame(final IFacade facade, int width, int height, boolean undecorated, Path worldFile,
+			final BoundaryMode boundaryMode) {
 		super("Asteroids");
 		this.width = width;
 		this.height = height;
-		final Set<Ship> ships = initModel(facade);
-		final AsteroidsView view = new AsteroidsView(ships, facade);
+		final ShipRegistry ships = worldFile == null ? initModel(facade) : loadModel(facade, worldFile);
+		final World world = boundaryMode == BoundaryMode.NONE ? new World()
+				: new World(width, height, boundaryMode);
+		for (int i = 0; i < ships.getNbShips(); i++) {
+			world.addShip(ships.getShipAt(i));
+		}
+		final AsteroidsView view = new AsteroidsView(ships, facade, errorReporter);
 		if (!undecorated) {
 			view.setPreferredSize(new Dimension(1024, 768));
 		}
-		timer = new Timer(1000 / 30, new ActionListener() {
+		final PerformanceHud hud = view.getHud();
+		final InputLatencyTracker latencies = view.getLatencyTracker();
+		timer = new Timer(1000 / TICKS_PER_SECOND, new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
+				long start = System.nanoTime();
+				hud.tick(start);
+				latencies.applied(start);
 				long now = System.currentTimeMillis();
 				long millisSinceLastMove = now - lastMove;
 				lastMove = now;
-				double dt = millisSinceLastMove / 1000.;
+				double dt = Math.max(0, millisSinceLastMove) / 1000.;
 				if (thrust) {
 					try {
 						facade.thrust(view.getSelected(), THRUST_PER_SECOND * dt);
@@ -61,14 +91,34 @@ public class AsteroidsFrame extends JFrame {
 						handleError(e2);
 					}
 				}
-				for (Ship ship : ships) {
+				if (boundaryMode == BoundaryMode.NONE) {
+					// ships drift through the facade under test; the world only tracks their state, and moving ships
+					// at rest would only register a change that did not happen
+					if (!world.isAtRest()) {
+						for (int i = 0; i < ships.getNbShips(); i++) {
+							try {
+								facade.move(ships.getShipAt(i), dt);
+							} catch (ModelException e1) {
+								handleError(e1);
+							}
+						}
+					}
+				} else {
 					try {
-						facade.move(ship, dt);
-					} catch (ModelException e1) {
-						handleError(e1);
+						world.evolve(dt);
+					} catch (IllegalArgumentException e1) {
+						errorReporter.report(e1);
 					}
 				}
-				view.repaint();
+				hud.record(PerformanceHud.Phase.MOVE, System.nanoTime() - start);
+				// only repaint if something visible changed, and slow down while nothing can change by itself
+				boolean atRest = world.isAtRest();
+				boolean viewChanged = view.takeChanged();
+				if (!atRest || world.getStateVersion() != lastStateVersion || viewChanged || hud.isVisible()) {
+					view.repaint();
+				}
+				lastStateVersion = world.getStateVersion();
+				setIdle(atRest && !thrust && angle == 0);
 			}
 		});
 		this.setFocusTraversalKeysEnabled(false);
@@ -76,26 +126,38 @@ public class AsteroidsFrame extends JFrame {
 		this.addKeyListener(new KeyAdapter() {
 			@Override
 			public void keyPressed(KeyEvent e) {
+				long now = System.nanoTime();
+				setIdle(false);
 				switch (e.getKeyCode()) {
 				case KeyEvent.VK_UP:
 				case KeyEvent.VK_KP_UP:
+					latencies.received(now);
 					thrust = true;
 					view.setThrust(true);
 					break;
 				case KeyEvent.VK_LEFT:
 				case KeyEvent.VK_KP_LEFT:
+					latencies.received(now);
 					angle = Math.PI / 20;
 					break;
 				case KeyEvent.VK_RIGHT:
 				case KeyEvent.VK_KP_RIGHT:
+					latencies.received(now);
 					angle = -Math.PI / 20;
 					break;
 				case KeyEvent.VK_TAB:
+					latencies.receivedAndApplied(now);
 					view.selectNext();
 					break;
 				case KeyEvent.VK_C:
+					latencies.receivedAndApplied(now);
 					view.setShowCollisions(!view.getShowCollisions());
 					break;
+				case KeyEvent.VK_H:
+					latencies.receivedAndApplied(now);
+					hud.setVisible(!hud.isVisible());
+					view.repaint();
+					break;
 				case KeyEvent.VK_ESCAPE:
 					System.exit(0);
 				}
@@ -120,14 +182,34 @@ public class AsteroidsFrame extends JFrame {
 				}
 			}
 		});
+		if (Boolean.getBoolean(LATENCY_REPORT_PROPERTY)) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(latencies), "asteroids-latency-report"));
+		}
 		this.setUndecorated(undecorated);
 		this.setDefaultCloseOperation(EXIT_ON_CLOSE);
 		this.getContentPane().add(view);
 		this.pack();
 	}
 
+	/**
+	 * Switch the timer between the normal and the idle rate. Leaving the idle
+	 * rate ticks right away, so input is handled without waiting for the slow
+	 * tick.
+	 */
+	private void setIdle(boolean idle) {
+		if (idle == this.idle) {
+			return;
+		}
+		this.idle = idle;
+		timer.setDelay(1000 / (idle ? IDLE_TICKS_PER_SECOND : TICKS_PER_SECOND));
+		if (!idle) {
+			timer.setInitialDelay(0);
+			timer.restart();
+		}
+	}
+
 	public void handleError(ModelException e) {
-		e.printStackTrace();
+		errorReporter.report(e);
 	}
 
 	@Override
@@ -140,8 +222,8 @@ public class AsteroidsFrame extends JFrame {
 		return height;
 	}
 
-	private Set<Ship> initModel(IFacade facade) {
-		Set<Ship> ships = new HashSet<>();
+	private ShipRegistry initModel(IFacade facade) {
+		ShipRegistry ships = new ShipRegistry();
 		try {
 			ships.add(facade.createShip(200, 400, 10, 0, 50, 0));
 			ships.add(facade.createShip(700, 400, 0, 0, 50, Math.PI));
@@ -152,6 +234,25 @@ public class AsteroidsFrame extends JFrame {
 		return ships;
 	}
 
+	private ShipRegistry loadModel(final IFacade facade, final Path worldFile) {
+		final ShipRegistry ships = new ShipRegistry();
+		try {
+			new WorldLoader().load(worldFile, (x, y, xVelocity, yVelocity, radius, heading) -> {
+				try {
+					ships.add(facade.createShip(x, y, xVelocity, yVelocity, radius, heading));
+				} catch (ModelException e) {
+					throw new IllegalArgumentException(e.getMessage(), e);
+				}
+			}, (line, message) -> System.err.println(worldFile + ":" + line + ": " + message));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("cannot read world file " + worldFile + ": " + e.getMessage(), e);
+		}
+		if (ships.getNbShips() == 0) {
+			throw new IllegalArgumentException("world file " + worldFile + " contains no valid ships");
+		}
+		return ships;
+	}
+
 	public void start() {
 		this.setFocusable(true);
 		this.setAutoRequestFocus(true);
@@ -162,6 +263,10 @@ public class AsteroidsFrame extends JFrame {
 	}
 
 	public static void run(IFacade facade, boolean tryFullscreen) {
+		run(facade, tryFullscreen, null, DEFAULT_BOUNDARY_MODE);
+	}
+
+	public static void run(IFacade facade, boolean tryFullscreen, Path worldFile, BoundaryMode boundaryMode) {
 
 		if (GraphicsEnvironment.isHeadless()) {
 			System.out.println("no screen found");
@@ -171,12 +276,21 @@ public class AsteroidsFrame extends JFrame {
 		GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
 		GraphicsDevice screen = env.getDefaultScreenDevice();
 		AsteroidsFrame asteroids;
-		if (tryFullscreen && screen.isFullScreenSupported()) {
-			Rectangle dimensions = screen.getDefaultConfiguration().getBounds();
-			asteroids = new AsteroidsFrame(facade, dimensions.width, dimensions.height, true);
+		boolean fullscreen = tryFullscreen && screen.isFullScreenSupported();
+		try {
+			if (fullscreen) {
+				Rectangle dimensions = screen.getDefaultConfiguration().getBounds();
+				asteroids = new AsteroidsFrame(facade, dimensions.width, dimensions.height, true, worldFile,
+						boundaryMode);
+			} else {
+				asteroids = new AsteroidsFrame(facade, 1024, 768, false, worldFile, boundaryMode);
+			}
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			return;
+		}
+		if (fullscreen) {
 			screen.setFullScreenWindow(asteroids);
-		} else {
-			asteroids = new AsteroidsFrame(facade, 1024, 768, false);
 		}
 		asteroids.start();
 	}
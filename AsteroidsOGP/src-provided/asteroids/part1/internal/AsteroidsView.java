@@ -6,12 +6,10 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-import java.util.Iterator;
-import java.util.Set;
 import javax.swing.JPanel;
 
 import asteroids.model.Ship;
+import asteroids.model.ShipRegistry;
 import asteroids.part1.facade.IFacade;
 import asteroids.util.ModelException;
 
@@ -20,64 +18,118 @@ import static java.lang.Math.*;
 @SuppressWarnings("serial")
 public class AsteroidsView extends JPanel {
 
-	private Set<Ship> ships;
+	private ShipRegistry ships;
 	private IFacade facade;
-	private Ship selected;
-	private Iterator<Ship> iterator;
+	private ErrorReporter errorReporter;
+	private int selected;
 	private boolean thrust = false;
 	private boolean showCollisions = false;
-
-	public AsteroidsView(Set<Ship> ships, IFacade facade) {
+	private boolean changed = true;
+
+	// ships are drawn in one batch per color, the selected ship and its flame in batches of their own
+	private final ShipBatch shipBatch = new ShipBatch(Color.WHITE);
+	private final ShipBatch selectedBatch = new ShipBatch(Color.RED);
+	private final ShipBatch flameBatch = new ShipBatch(Color.ORANGE);
+	private final ShipBatch crossBatch = new ShipBatch(Color.WHITE);
+	private final DensityImage pointImage = new DensityImage(Color.WHITE);
+	private final LevelOfDetail levelOfDetail = new LevelOfDetail();
+	private final PerformanceHud hud = new PerformanceHud(PerformanceHud.DEFAULT_WINDOW,
+			1_000_000_000L / AsteroidsFrame.TICKS_PER_SECOND);
+	private final InputLatencyTracker latencyTracker = new InputLatencyTracker(InputLatencyTracker.DEFAULT_CAPACITY);
+
+	public AsteroidsView(ShipRegistry ships, IFacade facade, ErrorReporter errorReporter) {
 		super(true);
 		this.ships = ships;
-		this.iterator = ships.iterator();
-		this.selected = iterator.next();
+		this.selected = ships.getHandleAt(0);
 		this.facade = facade;
+		this.errorReporter = errorReporter;
 		this.setBackground(Color.BLACK);
+		hud.setLatencies(latencyTracker.getDisplayLatencies());
 	}
 
 	public void selectNext() {
-		if (!iterator.hasNext()) {
-			iterator = ships.iterator();
-		}
-		selected = iterator.next();
+		int next = ships.isValidHandle(selected) ? ships.getIndexOf(selected) + 1 : 0;
+		selected = ships.getHandleAt(next % ships.getNbShips());
+		changed = true;
 	}
 
 	public Ship getSelected() {
-		return selected;
+		return ships.getShip(selected);
 	}
 
 	public void setThrust(boolean thrust) {
 		this.thrust = thrust;
+		changed = true;
 	}
 
 	public void setShowCollisions(boolean show) {
 		this.showCollisions = show;
+		changed = true;
 	}
 
 	public boolean getShowCollisions() {
 		return showCollisions;
 	}
 
+	/**
+	 * Return whether the selection or one of the display settings of this
+	 * view changed since the last call.
+	 */
+	public boolean takeChanged() {
+		boolean result = changed;
+		changed = false;
+		return result;
+	}
+
+	public PerformanceHud getHud() {
+		return hud;
+	}
+
+	public InputLatencyTracker getLatencyTracker() {
+		return latencyTracker;
+	}
+
 	@Override
 	public void paintComponent(Graphics g) {
+		long start = System.nanoTime();
+		hud.frame(start);
 		super.paintComponent(g);
 		Graphics2D g2d = (Graphics2D) g;
-		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		for (Ship ship : ships) {
-			drawShip(ship, g2d);
+		AffineTransform transform = g2d.getTransform();
+		double scale = Math.sqrt(Math.abs(transform.getDeterminant()));
+		levelOfDetail.update(ships.getNbShips(), scale > 0 ? scale : 1);
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, levelOfDetail.isAntialiased()
+				? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+		Ship selected = getSelected();
+		shipBatch.reset();
+		selectedBatch.reset();
+		flameBatch.reset();
+		pointImage.reset(getWidth(), getHeight());
+		for (int i = 0; i < ships.getNbShips(); i++) {
+			addShip(ships.getShipAt(i), selected);
 		}
+		pointImage.draw(g2d);
+		shipBatch.draw(g2d);
+		selectedBatch.draw(g2d);
+		flameBatch.draw(g2d);
+		long painted = System.nanoTime();
+		hud.record(PerformanceHud.Phase.PAINT, painted - start);
 		if (showCollisions) {
-			drawCollision(g2d);
+			drawCollision(selected, g2d);
+			hud.record(PerformanceHud.Phase.COLLISION, System.nanoTime() - painted);
 		}
+		hud.setNbShips(ships.getNbShips());
+		hud.draw(g2d);
+		latencyTracker.displayed(System.nanoTime());
 	}
 
-	private void drawCollision(Graphics2D g2d) {
+	private void drawCollision(Ship selected, Graphics2D g2d) {
 
 		double min_dt = Double.POSITIVE_INFINITY;
 		Ship min_ship = null;
 		// find next collision, if any
-		for (Ship ship : ships) {
+		for (int i = 0; i < ships.getNbShips(); i++) {
+			Ship ship = ships.getShipAt(i);
 			try {
 				if (!facade.overlap(selected, ship)) {
 					double dt = facade.getTimeToCollision(selected, ship);
@@ -87,7 +139,7 @@ public class AsteroidsView extends JPanel {
 					}
 				}
 			} catch (ModelException e) {
-				e.printStackTrace();
+				errorReporter.report(e);
 			}
 		}
 		try {
@@ -123,54 +175,56 @@ public class AsteroidsView extends JPanel {
 				g2d.drawLine((int) first_x, getHeight() - (int) first_y, x2_Collision, y2_Collision);
 			}
 		} catch (ModelException e) {
-			e.printStackTrace();
+			errorReporter.report(e);
 		}
 		// draw cross
-		for (Ship ship : ships) {
+		crossBatch.reset();
+		for (int i = 0; i < ships.getNbShips(); i++) {
+			Ship ship = ships.getShipAt(i);
 			try {
 				if (!facade.overlap(selected, ship)) {
 					double[] colPos = facade.getCollisionPosition(selected, ship);
 					if (colPos != null) {
-						int x = (int) colPos[0];
-						int y = getHeight() - (int) colPos[1];
-						g2d.setColor(Color.WHITE);
-						g2d.drawLine(x - 5, y, x + 5, y);
-						g2d.drawLine(x, y - 5, x, y + 5);
+						crossBatch.addCross((int) colPos[0], getHeight() - (int) colPos[1], 5);
 					}
 				}
 			} catch (ModelException e) {
-				e.printStackTrace();
+				errorReporter.report(e);
 			}
 		}
+		crossBatch.draw(g2d);
 	}
 
-	protected void drawShip(Ship ship, Graphics2D g2d) {
+	/**
+	 * Add the hull and heading of the given ship to the batch of its color,
+	 * and its flame to the flame batch if it is the selected ship and thrusts.
+	 * Ships outside the view are skipped; the other ships, except the selected
+	 * one, are drawn with the detail their size allows.
+	 */
+	protected void addShip(Ship ship, Ship selected) {
 		try {
 			double radius = facade.getShipRadius(ship);
 			double angle = -facade.getShipOrientation(ship);
 			double[] xy = facade.getShipPosition(ship);
 			double x = xy[0], y = getHeight() - xy[1];
 
-			if (ship == selected) {
-				g2d.setColor(Color.RED);
-			} else {
-				g2d.setColor(Color.WHITE);
+			if (x + radius < 0 || y + radius < 0 || x - radius > getWidth() || y - radius > getHeight()) {
+				return;
+			}
+			if (ship != selected && levelOfDetail.isPoint(radius)) {
+				pointImage.add(x, y);
+				return;
+			}
+			ShipBatch batch = ship == selected ? selectedBatch : shipBatch;
+			batch.addHull(x, y, radius);
+			if (ship == selected || levelOfDetail.hasHeading(radius)) {
+				batch.addLine(x, y, x + cos(angle) * radius, y + sin(angle) * radius);
 			}
-			g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
-			g2d.drawLine((int) x, (int) y, (int) (x + Math.cos(angle) * radius), (int) (y + sin(angle) * radius));
 			if (thrust && ship == selected) {
-				Path2D.Double flame = new Path2D.Double();
-				double flameAngle = Math.PI / 12;
-				flame.moveTo(radius * Math.cos(Math.PI - flameAngle), radius * Math.sin(Math.PI - flameAngle));
-				flame.lineTo(-radius - radius / 3, 0);
-				flame.lineTo(radius * Math.cos(Math.PI + flameAngle), radius * Math.sin(Math.PI + flameAngle));
-				flame.transform(AffineTransform.getRotateInstance(angle));
-				flame.transform(AffineTransform.getTranslateInstance(x, y));
-				g2d.setColor(Color.orange);
-				g2d.draw(flame);
+				flameBatch.addFlame(x, y, radius, angle);
 			}
 		} catch (ModelException e) {
-			e.printStackTrace();
+			errorReporter.report(e);
 		}
 	}
 }
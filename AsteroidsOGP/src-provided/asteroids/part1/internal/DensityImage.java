@@ -0,0 +1,104 @@
+package asteroids.part1.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Accumulates ships that are too small to draw into an image with one pixel
+ * per screen pixel, whose opacity grows with the number of ships on it. The
+ * image is drawn with a single call, however many ships it holds.
+ */
+public class DensityImage {
+
+	/**
+	 * The opacity of a pixel holding one ship, and the opacity added by every
+	 * further ship.
+	 */
+	private static final int BASE_ALPHA = 96;
+	private static final int ALPHA_PER_SHIP = 32;
+
+	public DensityImage(Color color) {
+		if (color == null) {
+			throw new IllegalArgumentException();
+		}
+		this.rgb = color.getRGB() & 0xFFFFFF;
+	}
+
+	private final int rgb;
+
+	private BufferedImage image;
+	private int[] pixels;
+	private int[] counts;
+	private int[] touched = new int[256];
+	private int nbTouched;
+	private int nbPoints;
+
+	/**
+	 * Return the number of points added since the last reset.
+	 */
+	public int getNbPoints() {
+		return nbPoints;
+	}
+
+	/**
+	 * Clear this image and make it cover the given number of pixels.
+	 */
+	public void reset(int width, int height) {
+		width = Math.max(1, width);
+		height = Math.max(1, height);
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			counts = new int[width * height];
+		} else {
+			// only the pixels of the last frame have to be cleared
+			for (int k = 0; k < nbTouched; k++) {
+				pixels[touched[k]] = 0;
+				counts[touched[k]] = 0;
+			}
+		}
+		nbTouched = 0;
+		nbPoints = 0;
+	}
+
+	/**
+	 * Add a point at the given screen coordinates. Points outside the image
+	 * are ignored.
+	 */
+	public void add(double x, double y) {
+		int column = (int) Math.floor(x), row = (int) Math.floor(y);
+		if (column < 0 || row < 0 || column >= image.getWidth() || row >= image.getHeight()) {
+			return;
+		}
+		int index = row * image.getWidth() + column;
+		if (counts[index]++ == 0) {
+			if (nbTouched == touched.length) {
+				touched = Arrays.copyOf(touched, 2 * nbTouched);
+			}
+			touched[nbTouched++] = index;
+		}
+		nbPoints++;
+	}
+
+	/**
+	 * Return the number of points added on the pixel at the given position.
+	 */
+	public int getCount(int column, int row) {
+		return counts[row * image.getWidth() + column];
+	}
+
+	public void draw(Graphics2D g2d) {
+		if (nbPoints == 0) {
+			return;
+		}
+		for (int k = 0; k < nbTouched; k++) {
+			int index = touched[k];
+			int alpha = Math.min(255, BASE_ALPHA + ALPHA_PER_SHIP * (counts[index] - 1));
+			pixels[index] = alpha << 24 | rgb;
+		}
+		g2d.drawImage(image, 0, 0, null);
+	}
+}
@@ -0,0 +1,146 @@
+package asteroids.part1.internal;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects errors raised in the game loop and writes them to a stream from a
+ * background thread.
+ *
+ * Identical errors (same type, message and throwing site) are collapsed into a
+ * single entry that only counts its occurrences. The first occurrence of an
+ * error is printed with its full stack trace, later occurrences are summarized
+ * once per flush. At most <code>maxLinesPerFlush</code> entries are written per
+ * flush, so a persistent fault never floods the stream and {@link #report}
+ * never blocks on I/O. Each flush continues with the entry after the last one
+ * the previous flush wrote, so every recurring error is eventually written.
+ */
+public class ErrorReporter {
+
+	private static final int MAX_DISTINCT_ERRORS = 256;
+
+	private final PrintStream out;
+	private final int maxLinesPerFlush;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	// the entries in the order they were first reported, never removed
+	private final List<Entry> order = new CopyOnWriteArrayList<>();
+	private int next;
+	private final AtomicLong dropped = new AtomicLong();
+	private final ScheduledExecutorService flusher;
+
+	public ErrorReporter(PrintStream out, long flushIntervalMillis, int maxLinesPerFlush) {
+		if (out == null || flushIntervalMillis <= 0 || maxLinesPerFlush <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.out = out;
+		this.maxLinesPerFlush = maxLinesPerFlush;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "asteroids-error-reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		flusher.scheduleAtFixedRate(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Record the given error. Only bookkeeping happens on the calling thread.
+	 */
+	public void report(Throwable error) {
+		if (error == null) {
+			return;
+		}
+		String key = keyOf(error);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			if (entries.size() >= MAX_DISTINCT_ERRORS) {
+				dropped.incrementAndGet();
+				return;
+			}
+			entry = entries.computeIfAbsent(key, k -> {
+				Entry created = new Entry(error);
+				order.add(created);
+				return created;
+			});
+		}
+		entry.pending.incrementAndGet();
+	}
+
+	/**
+	 * Return the total number of times an error with the same signature as the
+	 * given error was reported.
+	 */
+	public long getCount(Throwable error) {
+		Entry entry = entries.get(keyOf(error));
+		return entry == null ? 0 : entry.total + entry.pending.get();
+	}
+
+	/**
+	 * Write pending summaries to the stream. Called periodically by the
+	 * background thread.
+	 */
+	public synchronized void flush() {
+		int lines = 0;
+		int size = order.size();
+		for (int visited = 0; visited < size && lines < maxLinesPerFlush; visited++) {
+			if (next >= size) {
+				next = 0;
+			}
+			Entry entry = order.get(next++);
+			long count = entry.pending.getAndSet(0);
+			if (count == 0) {
+				continue;
+			}
+			if (entry.total == 0) {
+				entry.sample.printStackTrace(out);
+				if (count > 1) {
+					out.println("\t(repeated " + (count - 1) + " more times)");
+				}
+			} else {
+				out.println(entry.sample + " (repeated " + count + " more times, " + (entry.total + count) + " in total)");
+			}
+			entry.total += count;
+			lines++;
+		}
+		long droppedCount = dropped.getAndSet(0);
+		if (droppedCount > 0) {
+			out.println(droppedCount + " errors dropped: too many distinct errors");
+		}
+		out.flush();
+	}
+
+	/**
+	 * Stop the background thread after writing the remaining summaries.
+	 */
+	public void close() {
+		flusher.shutdown();
+		flush();
+	}
+
+	private static String keyOf(Throwable error) {
+		StringBuilder key = new StringBuilder();
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			StackTraceElement[] trace = current.getStackTrace();
+			key.append(current.getClass().getName()).append('|').append(current.getMessage()).append('|')
+					.append(trace.length > 0 ? trace[0] : null).append('|');
+		}
+		return key.toString();
+	}
+
+	private static class Entry {
+		private final Throwable sample;
+		private final AtomicLong pending = new AtomicLong();
+		private volatile long total;
+
+		private Entry(Throwable sample) {
+			this.sample = sample;
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package asteroids.part1.internal;
+
+/**
+ * Follows input events from the moment they are received, through the tick
+ * that applies them, to the first frame painted after that tick, and records
+ * both latencies in histograms.
+ *
+ * Events are stamped with System.nanoTime. The stamps wait in preallocated
+ * arrays; events arriving while the arrays are full are counted as dropped
+ * instead of being followed. All methods are meant to be called from the
+ * event dispatch thread.
+ */
+public class InputLatencyTracker {
+
+	public static final int DEFAULT_CAPACITY = 256;
+
+	public InputLatencyTracker(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.pending = new long[capacity];
+		this.applied = new long[capacity];
+	}
+
+	private final long[] pending;
+	private int nbPending;
+	private final long[] applied;
+	private int nbApplied;
+	private long nbDropped;
+
+	private final LatencyHistogram applyLatencies = new LatencyHistogram();
+	private final LatencyHistogram displayLatencies = new LatencyHistogram();
+
+	/**
+	 * Return the histogram of the times from receiving events to applying
+	 * them.
+	 */
+	public LatencyHistogram getApplyLatencies() {
+		return applyLatencies;
+	}
+
+	/**
+	 * Return the histogram of the times from receiving events to painting the
+	 * first frame that reflects them.
+	 */
+	public LatencyHistogram getDisplayLatencies() {
+		return displayLatencies;
+	}
+
+	public long getNbDropped() {
+		return nbDropped;
+	}
+
+	/**
+	 * Return the number of events received but not yet painted.
+	 */
+	public int getNbWaiting() {
+		return nbPending + nbApplied;
+	}
+
+	/**
+	 * Record that an event is received at the given time, to be applied by the
+	 * next tick.
+	 */
+	public void received(long now) {
+		if (nbPending == pending.length) {
+			nbDropped++;
+		} else {
+			pending[nbPending++] = now;
+		}
+	}
+
+	/**
+	 * Record that an event is received and applied at the given time.
+	 */
+	public void receivedAndApplied(long now) {
+		if (nbApplied == applied.length) {
+			nbDropped++;
+		} else {
+			applyLatencies.record(0);
+			applied[nbApplied++] = now;
+		}
+	}
+
+	/**
+	 * Record that a tick applies all received events at the given time.
+	 */
+	public void applied(long now) {
+		for (int i = 0; i < nbPending; i++) {
+			applyLatencies.record(now - pending[i]);
+			if (nbApplied == applied.length) {
+				nbDropped++;
+			} else {
+				applied[nbApplied++] = pending[i];
+			}
+		}
+		nbPending = 0;
+	}
+
+	/**
+	 * Record that a frame reflecting all applied events is painted at the
+	 * given time.
+	 */
+	public void displayed(long now) {
+		for (int i = 0; i < nbApplied; i++) {
+			displayLatencies.record(now - applied[i]);
+		}
+		nbApplied = 0;
+	}
+
+	/**
+	 * Return a report of both histograms.
+	 */
+	@Override
+	public String toString() {
+		return "input to tick: " + applyLatencies + "input to frame: " + displayLatencies + "dropped: "
+				+ nbDropped + String.format("%n");
+	}
+}
@@ -0,0 +1,132 @@
+package asteroids.part1.internal;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with logarithmic buckets: every
+ * power of two is split into four buckets, so a bucket is at most a quarter
+ * of its lower bound wide. The buckets are preallocated, so recording a
+ * duration never allocates.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 4;
+	private static final int NB_BUCKETS = SUB_BUCKETS * 62;
+
+	private final long[] counts = new long[NB_BUCKETS];
+	private long count;
+	private long sum;
+	private long maximum;
+
+	/**
+	 * Return the index of the bucket holding the given nonnegative duration.
+	 */
+	static int bucketOf(long nanos) {
+		if (nanos < 2 * SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int msb = 63 - Long.numberOfLeadingZeros(nanos);
+		return SUB_BUCKETS * (msb - 1) + (int) ((nanos >>> (msb - 2)) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Return the smallest duration in the bucket with the given index.
+	 */
+	static long lowerBoundOf(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS) {
+			return bucket;
+		}
+		int msb = bucket / SUB_BUCKETS + 1;
+		return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (msb - 2);
+	}
+
+	/**
+	 * Return the smallest duration above the bucket with the given index.
+	 */
+	static long upperBoundOf(int bucket) {
+		return bucket + 1 < NB_BUCKETS ? lowerBoundOf(bucket + 1) : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Record the given duration. Negative durations count as zero.
+	 */
+	public synchronized void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		counts[bucketOf(nanos)]++;
+		count++;
+		sum += nanos;
+		maximum = Math.max(maximum, nanos);
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public synchronized long getMaximum() {
+		return maximum;
+	}
+
+	/**
+	 * Return the average of the recorded durations, or zero if there are none.
+	 */
+	public synchronized double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Return an upper bound of the given percentile of the recorded durations:
+	 * the upper bound of the bucket containing it, but no more than the
+	 * largest duration. Returns zero if there are no durations.
+	 */
+	public synchronized long getPercentile(double percentile) {
+		if (!(0 <= percentile && percentile <= 100)) {
+			throw new IllegalArgumentException();
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < NB_BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return bucket + 1 < NB_BUCKETS ? Math.min(maximum, upperBoundOf(bucket) - 1) : maximum;
+			}
+		}
+		return maximum;
+	}
+
+	public synchronized void clear() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		sum = 0;
+		maximum = 0;
+	}
+
+	/**
+	 * Return a report with a summary line and a line per non-empty bucket,
+	 * with a bar proportional to its count.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder result = new StringBuilder();
+		result.append(String.format("n=%d mean=%.2f ms p50=%.2f ms p90=%.2f ms p99=%.2f ms max=%.2f ms%n", count,
+				getMean() / 1e6, getPercentile(50) / 1e6, getPercentile(90) / 1e6, getPercentile(99) / 1e6,
+				maximum / 1e6));
+		long largest = 0;
+		for (long bucketCount : counts) {
+			largest = Math.max(largest, bucketCount);
+		}
+		for (int bucket = 0; bucket < NB_BUCKETS; bucket++) {
+			if (counts[bucket] > 0) {
+				result.append(String.format("%9.3f - %9.3f ms %8d ", lowerBoundOf(bucket) / 1e6,
+						upperBoundOf(bucket) / 1e6, counts[bucket]));
+				for (long i = 0, bar = Math.max(1, 40 * counts[bucket] / largest); i < bar; i++) {
+					result.append('#');
+				}
+				result.append(String.format("%n"));
+			}
+		}
+		return result.toString();
+	}
+}
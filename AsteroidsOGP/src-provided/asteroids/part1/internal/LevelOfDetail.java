@@ -0,0 +1,80 @@
+package asteroids.part1.internal;
+
+/**
+ * Decides how much detail ships are drawn with, from their radius on screen
+ * and the number of ships in the view.
+ *
+ * A ship is drawn as a hull with a heading line, as a hull only when it is
+ * too small for the heading to be seen, or as a single point in a density
+ * image when it is smaller than a pixel or two. Antialiasing is turned off
+ * above a number of ships. In crowded views the thresholds are raised, so
+ * more ships fall into the cheaper forms and the frame time grows more
+ * slowly than the population.
+ */
+public class LevelOfDetail {
+
+	public static final int DEFAULT_ANTIALIASING_LIMIT = 2000;
+	public static final int DEFAULT_CROWDED_LIMIT = 20000;
+
+	/**
+	 * The on-screen radii below which ships are drawn without heading and as
+	 * points, in ordinary and in crowded views.
+	 */
+	private static final double HEADING_RADIUS = 4;
+	private static final double POINT_RADIUS = 1.5;
+	private static final double CROWDED_HEADING_RADIUS = 16;
+	private static final double CROWDED_POINT_RADIUS = 4;
+
+	public LevelOfDetail() {
+		this(DEFAULT_ANTIALIASING_LIMIT, DEFAULT_CROWDED_LIMIT);
+	}
+
+	public LevelOfDetail(int antialiasingLimit, int crowdedLimit) {
+		if (antialiasingLimit < 0 || crowdedLimit < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.antialiasingLimit = antialiasingLimit;
+		this.crowdedLimit = crowdedLimit;
+		update(0, 1);
+	}
+
+	private final int antialiasingLimit;
+	private final int crowdedLimit;
+
+	private boolean antialiased;
+	private double headingRadius;
+	private double pointRadius;
+
+	/**
+	 * Adapt the thresholds to a frame with the given number of ships, drawn
+	 * at the given number of pixels per unit of length.
+	 */
+	public void update(int nbShips, double scale) {
+		if (!(scale > 0)) {
+			throw new IllegalArgumentException();
+		}
+		boolean crowded = nbShips > crowdedLimit;
+		antialiased = nbShips <= antialiasingLimit;
+		// thresholds are kept in model units, so the per-ship tests need no multiplication
+		headingRadius = (crowded ? CROWDED_HEADING_RADIUS : HEADING_RADIUS) / scale;
+		pointRadius = (crowded ? CROWDED_POINT_RADIUS : POINT_RADIUS) / scale;
+	}
+
+	public boolean isAntialiased() {
+		return antialiased;
+	}
+
+	/**
+	 * Return whether a ship with the given radius is drawn as a point.
+	 */
+	public boolean isPoint(double radius) {
+		return radius < pointRadius;
+	}
+
+	/**
+	 * Return whether a ship with the given radius is drawn with its heading.
+	 */
+	public boolean hasHeading(double radius) {
+		return radius >= headingRadius;
+	}
+}
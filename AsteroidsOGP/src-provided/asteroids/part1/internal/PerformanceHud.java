@@ -0,0 +1,262 @@
+package asteroids.part1.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * An overlay showing the frame rate, the simulation rate, the number of ships
+ * and the time spent in every phase of a frame, as averages and maxima over
+ * the most recent frames.
+ *
+ * Times are measured with System.nanoTime and kept in preallocated rings, and
+ * the text is formatted into a preallocated character buffer, so neither
+ * recording nor drawing allocates. A phase whose slowest recent run exceeds
+ * the frame budget is drawn in red.
+ */
+public class PerformanceHud {
+
+	public enum Phase {
+		/**
+		 * Applying the input and evolving the world, bounces included.
+		 */
+		MOVE("move"),
+		/**
+		 * Predicting the collisions of the selected ship for the overlay.
+		 */
+		COLLISION("collision"),
+		/**
+		 * Drawing the ships.
+		 */
+		PAINT("paint");
+
+		private Phase(String label) {
+			this.label = label;
+		}
+
+		private final String label;
+	}
+
+	public static final int DEFAULT_WINDOW = 120;
+
+	private static final Phase[] PHASES = Phase.values();
+	private static final int NB_PHASE_LINES = 1 + PHASES.length;
+	private static final int MARGIN = 6;
+	private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+	private static final Color OVER_BUDGET = new Color(255, 80, 80);
+
+	/**
+	 * Initialize a new invisible overlay averaging over the given number of
+	 * frames, that flags phases taking longer than the given budget.
+	 */
+	public PerformanceHud(int window, long budgetNanos) {
+		if (budgetNanos <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.budgetNanos = budgetNanos;
+		this.frameIntervals = new TimingRing(window);
+		this.tickIntervals = new TimingRing(window);
+		this.phases = new TimingRing[PHASES.length];
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = new TimingRing(window);
+		}
+	}
+
+	private final long budgetNanos;
+	private final TimingRing frameIntervals;
+	private final TimingRing tickIntervals;
+	private final TimingRing[] phases;
+	private long lastFrame = -1;
+	private long lastTick = -1;
+	private int nbShips;
+	private LatencyHistogram latencies;
+	private boolean visible;
+
+	private final char[] chars = new char[64];
+	private int length;
+
+	public boolean isVisible() {
+		return visible;
+	}
+
+	public void setVisible(boolean visible) {
+		this.visible = visible;
+	}
+
+	/**
+	 * Record that a frame is painted at the given time.
+	 */
+	public void frame(long now) {
+		if (lastFrame >= 0) {
+			frameIntervals.add(now - lastFrame);
+		}
+		lastFrame = now;
+	}
+
+	/**
+	 * Record that the simulation advances at the given time.
+	 */
+	public void tick(long now) {
+		if (lastTick >= 0) {
+			tickIntervals.add(now - lastTick);
+		}
+		lastTick = now;
+	}
+
+	/**
+	 * Record that the given phase took the given number of nanoseconds.
+	 */
+	public void record(Phase phase, long nanos) {
+		phases[phase.ordinal()].add(nanos);
+	}
+
+	public void setNbShips(int nbShips) {
+		this.nbShips = nbShips;
+	}
+
+	/**
+	 * Show the median and 99th percentile of the given latencies of input on
+	 * a line of their own, or no such line if the given histogram is null.
+	 */
+	public void setLatencies(LatencyHistogram latencies) {
+		this.latencies = latencies;
+	}
+
+	private int getNbLines() {
+		return latencies == null ? NB_PHASE_LINES : NB_PHASE_LINES + 1;
+	}
+
+	public TimingRing getTimings(Phase phase) {
+		return phases[phase.ordinal()];
+	}
+
+	public double getFramesPerSecond() {
+		return perSecond(frameIntervals);
+	}
+
+	public double getTicksPerSecond() {
+		return perSecond(tickIntervals);
+	}
+
+	private static double perSecond(TimingRing intervals) {
+		double average = intervals.getAverage();
+		return average == 0 ? 0 : 1e9 / average;
+	}
+
+	/**
+	 * Return whether the slowest recent run of the given phase took longer
+	 * than the frame budget.
+	 */
+	public boolean isOverBudget(Phase phase) {
+		return getTimings(phase).getMaximum() > budgetNanos;
+	}
+
+	/**
+	 * Draw this overlay in the upper left corner, if it is visible.
+	 */
+	public void draw(Graphics2D g2d) {
+		if (!visible) {
+			return;
+		}
+		int lineHeight = g2d.getFont().getSize() + 4;
+		int width = 0;
+		int nbLines = getNbLines();
+		for (int line = 0; line < nbLines; line++) {
+			width = Math.max(width, writeLine(line));
+		}
+		g2d.setColor(BACKGROUND);
+		g2d.fillRect(0, 0, width * lineHeight * 5 / 8 + 2 * MARGIN, nbLines * lineHeight + 2 * MARGIN);
+		for (int line = 0; line < nbLines; line++) {
+			writeLine(line);
+			boolean slow = line > 0 && line < NB_PHASE_LINES && isOverBudget(PHASES[line - 1]);
+			g2d.setColor(slow ? OVER_BUDGET : Color.GREEN);
+			g2d.drawChars(chars, 0, length, MARGIN, MARGIN + (line + 1) * lineHeight - 4);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		for (int line = 0; line < getNbLines(); line++) {
+			writeLine(line);
+			result.append(chars, 0, length).append('\n');
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Write the given line of this overlay into the character buffer and
+	 * return its length.
+	 */
+	private int writeLine(int line) {
+		length = 0;
+		if (line == 0) {
+			append("FPS ");
+			append(getFramesPerSecond(), 1);
+			append("  ticks/s ");
+			append(getTicksPerSecond(), 1);
+			append("  ships ");
+			append(nbShips, 0);
+		} else if (line == NB_PHASE_LINES) {
+			append("input     p50 ");
+			append(latencies.getPercentile(50) / 1e6, 2);
+			append(" ms  p99 ");
+			append(latencies.getPercentile(99) / 1e6, 2);
+			append(" ms");
+		} else {
+			Phase phase = PHASES[line - 1];
+			TimingRing timings = getTimings(phase);
+			append(phase.label);
+			while (length < 10) {
+				chars[length++] = ' ';
+			}
+			append("avg ");
+			append(timings.getAverage() / 1e6, 2);
+			append(" ms  max ");
+			append(timings.getMaximum() / 1e6, 2);
+			append(" ms");
+		}
+		return length;
+	}
+
+	private void append(String text) {
+		for (int i = 0; i < text.length() && length < chars.length; i++) {
+			chars[length++] = text.charAt(i);
+		}
+	}
+
+	/**
+	 * Append the given nonnegative value with the given number of decimals.
+	 */
+	private void append(double value, int decimals) {
+		long scale = 1;
+		for (int i = 0; i < decimals; i++) {
+			scale *= 10;
+		}
+		long scaled = Math.round(Math.min(Math.max(value, 0), 1e12) * scale);
+		appendDigits(scaled / scale, 1);
+		if (decimals > 0) {
+			if (length < chars.length) {
+				chars[length++] = '.';
+			}
+			appendDigits(scaled % scale, decimals);
+		}
+	}
+
+	private void appendDigits(long value, int minimumDigits) {
+		int start = length;
+		int nbDigits = 0;
+		do {
+			if (length == chars.length) {
+				break;
+			}
+			chars[length++] = (char) ('0' + value % 10);
+			value /= 10;
+			nbDigits++;
+		} while (value > 0 || nbDigits < minimumDigits);
+		for (int i = start, j = length - 1; i < j; i++, j--) {
+			char c = chars[i];
+			chars[i] = chars[j];
+			chars[j] = c;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package asteroids.part1.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+
+/**
+ * Accumulates the outlines of many ships of the same color into a single
+ * path, so that they are drawn with one call to the Java2D pipeline instead
+ * of one call per oval and line.
+ *
+ * Hulls are added as four cubic Bézier curves and headings as line segments,
+ * directly into the path, so adding a ship creates no objects. The path is
+ * reset rather than recreated between frames, which keeps its arrays.
+ */
+public class ShipBatch {
+
+	/**
+	 * The distance of the control points of a quarter circle from its end
+	 * points, relative to the radius.
+	 */
+	private static final double KAPPA = 4 * (Math.sqrt(2) - 1) / 3;
+
+	public ShipBatch(Color color) {
+		if (color == null) {
+			throw new IllegalArgumentException();
+		}
+		this.color = color;
+	}
+
+	private final Color color;
+
+	private final Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, 1024);
+
+	private int nbShapes;
+
+	public Color getColor() {
+		return color;
+	}
+
+	/**
+	 * Return the number of hulls, lines and crosses added since the last
+	 * reset.
+	 */
+	public int getNbShapes() {
+		return nbShapes;
+	}
+
+	/**
+	 * Return the path of this batch. It must not be modified.
+	 */
+	public Path2D getPath() {
+		return path;
+	}
+
+	public void reset() {
+		path.reset();
+		nbShapes = 0;
+	}
+
+	/**
+	 * Add a circle with the given center and radius.
+	 */
+	public void addHull(double x, double y, double radius) {
+		double k = KAPPA * radius;
+		path.moveTo(x + radius, y);
+		path.curveTo(x + radius, y + k, x + k, y + radius, x, y + radius);
+		path.curveTo(x - k, y + radius, x - radius, y + k, x - radius, y);
+		path.curveTo(x - radius, y - k, x - k, y - radius, x, y - radius);
+		path.curveTo(x + k, y - radius, x + radius, y - k, x + radius, y);
+		path.closePath();
+		nbShapes++;
+	}
+
+	public void addLine(double x1, double y1, double x2, double y2) {
+		path.moveTo(x1, y1);
+		path.lineTo(x2, y2);
+		nbShapes++;
+	}
+
+	/**
+	 * Add a cross centered at the given point, with arms of the given length.
+	 */
+	public void addCross(double x, double y, double arm) {
+		path.moveTo(x - arm, y);
+		path.lineTo(x + arm, y);
+		path.moveTo(x, y - arm);
+		path.lineTo(x, y + arm);
+		nbShapes++;
+	}
+
+	/**
+	 * Add a flame behind a ship with the given center, radius and angle, in
+	 * screen coordinates.
+	 */
+	public void addFlame(double x, double y, double radius, double angle) {
+		double flameAngle = Math.PI / 12;
+		double cos = Math.cos(angle), sin = Math.sin(angle);
+		double x1 = radius * Math.cos(Math.PI - flameAngle), y1 = radius * Math.sin(Math.PI - flameAngle);
+		double x2 = -radius - radius / 3;
+		double x3 = radius * Math.cos(Math.PI + flameAngle), y3 = radius * Math.sin(Math.PI + flameAngle);
+		path.moveTo(x + x1 * cos - y1 * sin, y + x1 * sin + y1 * cos);
+		path.lineTo(x + x2 * cos, y + x2 * sin);
+		path.lineTo(x + x3 * cos - y3 * sin, y + x3 * sin + y3 * cos);
+		nbShapes++;
+	}
+
+	/**
+	 * Draw everything added since the last reset with a single call, in the
+	 * color of this batch and the current stroke of the given graphics.
+	 */
+	public void draw(Graphics2D g2d) {
+		if (nbShapes == 0) {
+			return;
+		}
+		g2d.setColor(color);
+		g2d.draw(path);
+	}
+}
@@ -0,0 +1,71 @@
+package asteroids.part1.internal;
+
+/**
+ * A fixed number of the most recent measurements, in a preallocated ring, so
+ * that recording a measurement never allocates.
+ */
+public class TimingRing {
+
+	public TimingRing(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.values = new long[capacity];
+	}
+
+	private final long[] values;
+	private int next;
+	private int count;
+	private long sum;
+
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * Return the number of measurements in this ring, at most its capacity.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Record the given measurement, replacing the oldest one if the ring is
+	 * full.
+	 */
+	public void add(long value) {
+		if (count == values.length) {
+			sum -= values[next];
+		} else {
+			count++;
+		}
+		values[next] = value;
+		sum += value;
+		next = (next + 1) % values.length;
+	}
+
+	/**
+	 * Return the average of the measurements in this ring, or zero if it is
+	 * empty.
+	 */
+	public double getAverage() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Return the largest measurement in this ring, or zero if it is empty.
+	 */
+	public long getMaximum() {
+		long maximum = 0;
+		for (int i = 0; i < count; i++) {
+			maximum = Math.max(maximum, values[i]);
+		}
+		return maximum;
+	}
+
+	public void clear() {
+		next = 0;
+		count = 0;
+		sum = 0;
+	}
+}
@@ -0,0 +1,210 @@
+package asteroids.util.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A read-only collection of assets stored in a single file, which is mapped
+ * into memory as a whole.
+ * 
+ * The file starts with a header: the magic number, the number of entries and,
+ * for every entry, its name (as a length-prefixed UTF-8 string), the offset of
+ * its contents from the start of the file and its length. The contents of the
+ * entries follow the header, one after the other. All numbers are big-endian.
+ * 
+ * Names use '/' as separator, like class path resources. Entries are read
+ * through slices of the mapped file, so opening an entry neither opens a file
+ * nor copies its bytes.
+ */
+public class AssetPack {
+
+	/**
+	 * The magic number of asset packs, "APK1" in ASCII.
+	 */
+	public static final int MAGIC = 0x41504B31;
+
+	private AssetPack(Path path, ByteBuffer contents, Map<String, Entry> entries) {
+		this.path = path;
+		this.contents = contents;
+		this.entries = entries;
+	}
+
+	private final Path path;
+
+	private final ByteBuffer contents;
+
+	private final Map<String, Entry> entries;
+
+	private static class Entry {
+
+		Entry(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		final int offset;
+
+		final int length;
+	}
+
+	/**
+	 * Map the asset pack in the given file into memory and read its index.
+	 */
+	public static AssetPack open(Path path) throws IOException {
+		MappedByteBuffer contents;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Asset pack too large: " + path);
+			// the mapping stays valid after the channel is closed
+			contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			return new AssetPack(path, contents, readIndex(contents));
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Corrupt asset pack: " + path, e);
+		}
+	}
+
+	private static Map<String, Entry> readIndex(ByteBuffer contents) throws IOException {
+		ByteBuffer header = contents.duplicate();
+		if (header.getInt() != MAGIC)
+			throw new IOException("Not an asset pack");
+		int nbEntries = header.getInt();
+		if (nbEntries < 0)
+			throw new IOException("Negative number of entries");
+		Map<String, Entry> entries = new HashMap<>(nbEntries * 2);
+		for (int i = 0; i < nbEntries; i++) {
+			byte[] name = new byte[header.getShort() & 0xFFFF];
+			header.get(name);
+			int offset = header.getInt();
+			int length = header.getInt();
+			if (offset < 0 || length < 0 || offset > contents.capacity() - length)
+				throw new IOException("Entry out of bounds");
+			entries.put(new String(name, StandardCharsets.UTF_8), new Entry(offset, length));
+		}
+		return entries;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(entries.keySet());
+	}
+
+	public boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * Return a read-only buffer over the contents of the entry with the given
+	 * name, or null if there is no such entry.
+	 */
+	public ByteBuffer getBuffer(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null)
+			return null;
+		ByteBuffer result = contents.duplicate();
+		result.position(entry.offset);
+		result.limit(entry.offset + entry.length);
+		return result.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Return a stream over the contents of the entry with the given name, or
+	 * null if there is no such entry.
+	 */
+	public InputStream openResource(String name) {
+		ByteBuffer buffer = getBuffer(name);
+		return buffer == null ? null : new ByteBufferInputStream(buffer);
+	}
+
+	/**
+	 * Return the names, relative to the given folder, of the entries directly
+	 * in the given folder.
+	 */
+	public Stream<String> listFileNames(String folder) {
+		String prefix = folder.isEmpty() || folder.endsWith("/") ? folder : folder + "/";
+		return entries.keySet().stream().filter(name -> name.startsWith(prefix))
+				.map(name -> name.substring(prefix.length())).filter(name -> name.indexOf('/') < 0).sorted();
+	}
+
+	/**
+	 * Return true if and only if this pack contains an entry in the given
+	 * folder or one of its subfolders.
+	 */
+	public boolean containsFolder(String folder) {
+		String prefix = folder.isEmpty() || folder.endsWith("/") ? folder : folder + "/";
+		return entries.keySet().stream().anyMatch(name -> name.startsWith(prefix));
+	}
+
+	/**
+	 * Write an asset pack containing every regular file below the given
+	 * directory, named by its path relative to that directory.
+	 */
+	public static void create(Path pack, Path directory) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		List<byte[]> names = new ArrayList<>(files.size());
+		long headerLength = 8;
+		for (Path file : files) {
+			byte[] name = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/")
+					.getBytes(StandardCharsets.UTF_8);
+			if (name.length > 0xFFFF)
+				throw new IOException("Name too long: " + file);
+			names.add(name);
+			headerLength += 2 + name.length + 8;
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pack)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(files.size());
+			long offset = headerLength;
+			for (int i = 0; i < files.size(); i++) {
+				long length = Files.size(files.get(i));
+				if (offset + length > Integer.MAX_VALUE)
+					throw new IOException("Asset pack too large: " + pack);
+				out.writeShort(names.get(i).length);
+				out.write(names.get(i));
+				out.writeInt((int) offset);
+				out.writeInt((int) length);
+				offset += length;
+			}
+			for (Path file : files)
+				Files.copy(file, out);
+		}
+	}
+
+	/**
+	 * Pack the directory given as second argument into the file given as first
+	 * argument.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: AssetPack <pack> <directory>");
+			System.exit(1);
+		}
+		create(Paths.get(args[0]), Paths.get(args[1]));
+	}
+}
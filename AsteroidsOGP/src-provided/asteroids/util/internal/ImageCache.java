@@ -0,0 +1,122 @@
+package asteroids.util.internal;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache of decoded images, bounded by the number of
+ * bytes of pixel data it holds rather than by the number of images.
+ * 
+ * All methods are thread-safe.
+ */
+public class ImageCache {
+
+	public ImageCache(long capacity) {
+		setCapacity(capacity);
+	}
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long capacity;
+
+	private long size;
+
+	private static class Entry {
+
+		Entry(Image image, long size) {
+			this.image = image;
+			this.size = size;
+		}
+
+		final Image image;
+
+		final long size;
+	}
+
+	/**
+	 * Return the maximum number of bytes of pixel data held by this cache.
+	 */
+	public synchronized long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Return the number of bytes of pixel data currently held by this cache.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	public synchronized int getNbImages() {
+		return entries.size();
+	}
+
+	/**
+	 * Change the capacity of this cache, evicting the least recently used
+	 * images that no longer fit.
+	 */
+	public synchronized void setCapacity(long capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		this.capacity = capacity;
+		evict();
+	}
+
+	/**
+	 * Return the image cached under the given name and mark it as most
+	 * recently used, or null if no such image is cached.
+	 */
+	public synchronized Image get(String name) {
+		Entry entry = entries.get(name);
+		return entry == null ? null : entry.image;
+	}
+
+	/**
+	 * Cache the given image under the given name, evicting the least recently
+	 * used images until it fits. An image that is larger than the capacity on
+	 * its own is not cached.
+	 */
+	public synchronized void put(String name, Image image) {
+		if (name == null || image == null)
+			throw new IllegalArgumentException();
+		long imageSize = sizeOf(image);
+		Entry previous = entries.remove(name);
+		if (previous != null)
+			size -= previous.size;
+		if (imageSize > capacity)
+			return;
+		entries.put(name, new Entry(image, imageSize));
+		size += imageSize;
+		evict();
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (size > capacity && iterator.hasNext()) {
+			size -= iterator.next().size;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Return the number of bytes of pixel data of the given image. Images that
+	 * are not buffered are assumed to take four bytes per pixel.
+	 */
+	public static long sizeOf(Image image) {
+		if (image instanceof BufferedImage) {
+			DataBuffer buffer = ((BufferedImage) image).getRaster().getDataBuffer();
+			return (long) buffer.getSize() * buffer.getNumBanks()
+					* DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+		}
+		return 4L * Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null));
+	}
+}
@@ -7,26 +7,166 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 public class ResourceUtils {
 
+	private static final long DEFAULT_IMAGE_CACHE_CAPACITY = 64L * 1024 * 1024;
+
+	private static final ImageCache images = new ImageCache(DEFAULT_IMAGE_CACHE_CAPACITY);
+
+	/**
+	 * Images that are being decoded, so that concurrent requests for the same
+	 * file share a single decode.
+	 */
+	private static final ConcurrentHashMap<String, CompletableFuture<Image>> decoding = new ConcurrentHashMap<>();
+
+	private static final ConcurrentHashMap<String, URL> urls = new ConcurrentHashMap<>();
+
+	private static final ExecutorService prefetchExecutor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "resource-prefetch");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private static final List<AssetPack> packs = new CopyOnWriteArrayList<>();
+
+	static {
+		String pack = System.getProperty("asteroids.assetPack");
+		if (pack != null) {
+			try {
+				mountAssetPack(Paths.get(pack));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Open the asset pack in the given file and resolve resources in it before
+	 * looking on the class path and the file system. Packs mounted earlier
+	 * take precedence over packs mounted later. Cached images and URLs are
+	 * forgotten, since the pack may shadow them.
+	 */
+	public static AssetPack mountAssetPack(Path path) throws IOException {
+		AssetPack pack = AssetPack.open(path);
+		packs.add(pack);
+		invalidateCaches();
+		return pack;
+	}
+
+	/**
+	 * Stop resolving resources in the mounted asset packs, and forget the
+	 * images and URLs cached while they were mounted.
+	 */
+	public static void unmountAssetPacks() {
+		packs.clear();
+		invalidateCaches();
+	}
+
+	private static void invalidateCaches() {
+		images.clear();
+		urls.clear();
+	}
+
+	public static ImageCache getImageCache() {
+		return images;
+	}
+
+	/**
+	 * Return the image in the given file, decoding it only if it is not in the
+	 * image cache.
+	 */
 	public static Image loadImage(String filename) {
+		Image result = images.get(filename);
+		if (result != null)
+			return result;
+		CompletableFuture<Image> future = new CompletableFuture<>();
+		CompletableFuture<Image> running = decoding.putIfAbsent(filename, future);
+		if (running != null)
+			return joinDecode(running);
 		try {
-			InputStream stream = openResource(filename);
-			return ImageIO.read(stream);
+			result = images.get(filename);
+			if (result == null) {
+				result = decodeImage(filename);
+				if (result != null)
+					images.put(filename, result);
+			}
+			future.complete(result);
+			return result;
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			decoding.remove(filename, future);
+		}
+	}
+
+	private static Image joinDecode(CompletableFuture<Image> future) {
+		try {
+			return future.join();
+		} catch (RuntimeException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	private static Image decodeImage(String filename) {
+		try (InputStream stream = openResource(filename)) {
+			// decode from memory; ImageIO.read(InputStream) may cache the stream in a temporary file
+			return ImageIO.read(new MemoryCacheImageInputStream(stream));
 		} catch (IOException e) {
 			throw new RuntimeException("Could not read file '" + filename + "'", e);
 		}
 	}
 
+	/**
+	 * Decode the images in the given files in parallel and store them in the
+	 * image cache. The returned future completes when all images are decoded,
+	 * or completes exceptionally if one of them can not be read.
+	 */
+	public static CompletableFuture<Void> prefetchImages(Collection<String> filenames) {
+		return CompletableFuture.allOf(filenames.stream()
+				.map(filename -> CompletableFuture.runAsync(() -> loadImage(filename), prefetchExecutor))
+				.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Decode the images in the given folder in parallel, as listed by
+	 * listFileNames, and store them in the image cache.
+	 */
+	public static CompletableFuture<Void> prefetchImages(String folder) throws FileNotFoundException {
+		List<String> filenames;
+		try (Stream<String> names = listFileNames(folder)) {
+			filenames = names.map(name -> folder + "/" + name).collect(Collectors.toList());
+		}
+		return prefetchImages(filenames);
+	}
+
 	public static InputStream openResource(String filename) throws IOException {
+		for (AssetPack pack : packs) {
+			InputStream result = pack.openResource(filename);
+			if (result != null)
+				return result;
+		}
 		URL url = toURL(filename);
 		return openResource(url);
 	}
@@ -40,7 +180,22 @@ public class ResourceUtils {
 		return result;
 	}
 
+	/**
+	 * Return the URL of the given file on the class path or on the file system.
+	 * Resolved URLs are remembered; files that are not found are probed again
+	 * on the next call.
+	 */
 	public static URL toURL(String filename) throws FileNotFoundException {
+		URL url = urls.get(filename);
+		if (url == null) {
+			url = resolveURL(filename);
+			if (url != null)
+				urls.putIfAbsent(filename, url);
+		}
+		return url;
+	}
+
+	private static URL resolveURL(String filename) throws FileNotFoundException {
 		URL url = ResourceUtils.class.getResource("/" + filename);
 		if (url == null) {
 			try {
@@ -59,10 +214,20 @@ public class ResourceUtils {
 	}
 
 	public static Stream<String> listFileNames(String folder) throws FileNotFoundException {
+		for (AssetPack pack : packs) {
+			if (pack.containsFolder(folder))
+				return pack.listFileNames(folder);
+		}
 		InputStream res = ResourceUtils.class.getResourceAsStream("/" + folder);
 		if (res != null) {
 			BufferedReader br = new BufferedReader(new InputStreamReader(res));
-			return br.lines();
+			return br.lines().onClose(() -> {
+				try {
+					br.close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
 		} else {
 			File file = new File(folder);
 			if (file.exists() && file.isDirectory()) {
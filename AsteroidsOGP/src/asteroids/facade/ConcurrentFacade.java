@@ -0,0 +1,325 @@
+package asteroids.facade;
+
+import java.util.concurrent.locks.StampedLock;
+
+import asteroids.model.Ship;
+import asteroids.model.Vector;
+import asteroids.model.World;
+import asteroids.part1.facade.IFacade;
+import asteroids.util.ModelException;
+
+/**
+ * A class implementing the IFacade interface that can be used by several threads at once.
+ *
+ * Every ship is guarded by one of a fixed number of stamped locks, chosen by the identity of the ship, so threads
+ * working on different ships rarely compete for the same lock. Changes to a ship hold the write lock of its stripe
+ * for the few instructions the change takes. Reads never take a lock: they read the ship optimistically and read it
+ * again if a change intervened, so a read always sees a ship as it was between two changes and never waits for a
+ * writer to release its lock. Reads of two ships see both ships at one moment.
+ *
+ * A change to a ship that belongs to a world also changes state the ship shares with the other ships of that world:
+ * the aggregates of the world and its state version. Changes to ships of one world therefore also hold the monitor of
+ * that world, so they are applied one at a time; changes to ships of different worlds or without a world do not wait
+ * for each other.
+ *
+ * Ships are only guarded against concurrent use through this facade; ships that belong to a world evolve with the
+ * clock of that world, which has to be advanced by the thread owning the world, and ships are added to and removed
+ * from a world by that thread as well.
+ *
+ * @author  WimKunnen and Maarten Doclo.
+ *
+ * @version 1.0
+ */
+public class ConcurrentFacade implements IFacade {
+
+    /**
+     * Initializes a new ConcurrentFacade with a number of lock stripes suited to the number of processors.
+     */
+    public ConcurrentFacade() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a new ConcurrentFacade with at least the given number of lock stripes.
+     *
+     * @throws  IllegalArgumentException
+     *          The given number of stripes is not positive or too large.
+     *          | nbStripes <= 0 || nbStripes > MAXIMUM_NB_STRIPES
+     */
+    public ConcurrentFacade(int nbStripes) throws IllegalArgumentException {
+        if (nbStripes <= 0 || nbStripes > MAXIMUM_NB_STRIPES)
+            throw new IllegalArgumentException();
+        int size = Integer.highestOneBit(nbStripes);
+        if (size < nbStripes)
+            size *= 2;
+        stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++)
+            stripes[i] = new StampedLock();
+    }
+
+    /**
+     * Constant registering the maximum number of lock stripes of a facade.
+     */
+    public static final int MAXIMUM_NB_STRIPES = 1 << 16;
+
+    /**
+     * Constant registering the number of times a read is retried before the reader starts yielding to writers.
+     */
+    private static final int NB_SPINS = 64;
+
+    /**
+     * Variable registering the lock stripes of this facade. Its length is a power of two.
+     */
+    private final StampedLock[] stripes;
+
+    /**
+     * Returns the number of lock stripes of this facade.
+     */
+    public int getNbStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the lock guarding the given ship.
+     *
+     * @throws  ModelException
+     *          The ship does not exist.
+     *          | ship == null
+     */
+    private StampedLock stripeOf(Ship ship) throws ModelException {
+        if (ship == null)
+            throw new ModelException("Not an existing ship!");
+        // the multiplication spreads all bits of the identity hash code over the upper bits used as index
+        return stripes[(System.identityHashCode(ship) * 0x9E3779B9) >>> 16 & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the object whose monitor guards the state the given ship shares with other ships: the world of the
+     * ship, or the ship itself if it does not belong to a world.
+     */
+    private static Object sharedStateOf(Ship ship) {
+        World world = ship.getWorld();
+        return world == null ? ship : world;
+    }
+
+    /**
+     * Gives writers the processor before a read is retried, once the read failed many times.
+     */
+    private static void backOff(int attempt) {
+        if (attempt >= NB_SPINS)
+            Thread.yield();
+    }
+
+    /**
+     * Returns a new Ship at the origin point (0,0) with a velocity of 0, a heading of 0 and a radius equal to the
+     * minimum radius.
+     */
+    public Ship createShip() throws ModelException {
+        return new Ship();
+    }
+
+    /**
+     * Returns a new Ship at (x,y) with a velocity vector of (xVelocity, yVelocity), a heading of orientation and a
+     * radius equal to radius.
+     *
+     * @throws  ModelException
+     *          The ship can not be created with the given values.
+     */
+    public Ship createShip(double x, double y, double xVelocity, double yVelocity, double radius, double orientation)
+            throws ModelException {
+        try {
+            return new Ship(x, y, xVelocity, yVelocity, radius, orientation);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current position.
+     */
+    public double[] getShipPosition(Ship ship) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        for (int attempt = 0; ; attempt++) {
+            long stamp = stripe.tryOptimisticRead();
+            if (stamp != 0) {
+                double x = ship.getPositionX();
+                double y = ship.getPositionY();
+                if (stripe.validate(stamp))
+                    return new double[]{x, y};
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current velocity.
+     */
+    public double[] getShipVelocity(Ship ship) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        for (int attempt = 0; ; attempt++) {
+            long stamp = stripe.tryOptimisticRead();
+            if (stamp != 0) {
+                double x = ship.getVelocityX();
+                double y = ship.getVelocityY();
+                if (stripe.validate(stamp))
+                    return new double[]{x, y};
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Returns the ship's radius.
+     */
+    public double getShipRadius(Ship ship) throws ModelException {
+        stripeOf(ship);
+        // the radius of a ship never changes
+        return ship.getRadius();
+    }
+
+    /**
+     * Returns the ship's current heading.
+     */
+    public double getShipOrientation(Ship ship) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        for (int attempt = 0; ; attempt++) {
+            long stamp = stripe.tryOptimisticRead();
+            if (stamp != 0) {
+                double heading = ship.getHeading();
+                if (stripe.validate(stamp))
+                    return heading;
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Changes the ships position by the current velocity * dt.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void move(Ship ship, double dt) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        long stamp = stripe.writeLock();
+        try {
+            synchronized (sharedStateOf(ship)) {
+                ship.move(dt);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Changes the velocity of the ship by the given amount.
+     */
+    public void thrust(Ship ship, double amount) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        long stamp = stripe.writeLock();
+        try {
+            synchronized (sharedStateOf(ship)) {
+                ship.thrust(amount);
+            }
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Changes the heading of the ship by the given angle.
+     */
+    public void turn(Ship ship, double angle) throws ModelException {
+        StampedLock stripe = stripeOf(ship);
+        long stamp = stripe.writeLock();
+        try {
+            synchronized (sharedStateOf(ship)) {
+                ship.turn(angle);
+            }
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the distance between the two given ships.
+     *
+     * @throws  ModelException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public double getDistanceBetween(Ship ship1, Ship ship2) throws ModelException {
+        StampedLock stripe1 = stripeOf(ship1);
+        StampedLock stripe2 = stripeOf(ship2);
+        for (int attempt = 0; ; attempt++) {
+            long stamp1 = stripe1.tryOptimisticRead();
+            long stamp2 = stripe2.tryOptimisticRead();
+            if (stamp1 != 0 && stamp2 != 0) {
+                double distance = ship1.getDistanceBetween(ship2);
+                if (stripe1.validate(stamp1) && stripe2.validate(stamp2))
+                    return distance;
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Returns true if and only if the two ships overlap.
+     *
+     * @throws  ModelException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public boolean overlap(Ship ship1, Ship ship2) throws ModelException {
+        if (ship1 == null || ship2 == null)
+            throw new ModelException("Not an existing ship!");
+        return ship1 == ship2 || getDistanceBetween(ship1, ship2) < 0;
+    }
+
+    /**
+     * Returns the time it will take before two ships collide.
+     *
+     * @throws  ModelException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public double getTimeToCollision(Ship ship1, Ship ship2) throws ModelException {
+        StampedLock stripe1 = stripeOf(ship1);
+        StampedLock stripe2 = stripeOf(ship2);
+        for (int attempt = 0; ; attempt++) {
+            long stamp1 = stripe1.tryOptimisticRead();
+            long stamp2 = stripe2.tryOptimisticRead();
+            if (stamp1 != 0 && stamp2 != 0) {
+                double time = ship1.getTimeToCollision(ship2);
+                if (stripe1.validate(stamp1) && stripe2.validate(stamp2))
+                    return time;
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Returns the position of the collision point as an array of doubles, or null if the ships never collide.
+     *
+     * @throws  ModelException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public double[] getCollisionPosition(Ship ship1, Ship ship2) throws ModelException {
+        StampedLock stripe1 = stripeOf(ship1);
+        StampedLock stripe2 = stripeOf(ship2);
+        for (int attempt = 0; ; attempt++) {
+            long stamp1 = stripe1.tryOptimisticRead();
+            long stamp2 = stripe2.tryOptimisticRead();
+            if (stamp1 != 0 && stamp2 != 0) {
+                Vector position = ship1.getCollisionPosition(ship2);
+                if (stripe1.validate(stamp1) && stripe2.validate(stamp2))
+                    return position == null ? null : position.getValues();
+            }
+            backOff(attempt);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package asteroids.facade;
 
+import asteroids.model.CollisionPredictionCache;
 import asteroids.model.Ship;
-import asteroids.model.Vector;
 import asteroids.part1.facade.IFacade;
 import asteroids.util.ModelException;
 
@@ -23,6 +23,16 @@ public class Facade implements IFacade {
     public Facade() {
     }
 
+    /**
+     * Constant registering the number of collision predictions kept by a facade.
+     */
+    private static final int PREDICTION_CACHE_CAPACITY = 4096;
+
+    /**
+     * Variable registering the cache of the collision predictions between the ships of this facade.
+     */
+    private final CollisionPredictionCache predictions = new CollisionPredictionCache(PREDICTION_CACHE_CAPACITY);
+
     /**
      * Returns a new Ship at the origin point (0,0) with a velocity of 0, a heading of 0 and a radius equal to the minimum radius.
      */
@@ -173,9 +183,8 @@ public class Facade implements IFacade {
      */
     public double getTimeToCollision(Ship ship1, Ship ship2) throws ModelException {
         try {
-            return ship1.getTimeToCollision(ship2);
-
-        } catch (NullPointerException e) {
+            return predictions.getTimeToCollision(ship1, ship2);
+        } catch (IllegalArgumentException e) {
             throw new ModelException(e);
         }
     }
@@ -189,8 +198,7 @@ public class Facade implements IFacade {
      */
     public double[] getCollisionPosition(Ship ship1, Ship ship2) throws ModelException {
         try {
-            Vector collisionPosition = ship1.getCollisionPosition(ship2);
-            return collisionPosition == null ? null : ship1.getCollisionPosition(ship2).getValues();
+            return predictions.getCollisionPosition(ship1, ship2);
         } catch (IllegalArgumentException e) {
             throw new ModelException(e);
         }
@@ -0,0 +1,373 @@
+package asteroids.facade;
+
+import asteroids.model.CollisionMatrices;
+import asteroids.model.PairList;
+import asteroids.model.ProjectilePool;
+import asteroids.model.Ship;
+import asteroids.model.Vector;
+import asteroids.model.World;
+import asteroids.util.ModelException;
+
+/**
+ * A class implementing the IProjectileFacade interface.
+ * It keeps its ships and their projectiles in a World and refers to them by their handles.
+ *
+ * @author  WimKunnen and Maarten Doclo.
+ *
+ * @version 1.0
+ */
+public class HandleFacade implements IProjectileFacade {
+
+    /**
+     * Default initializer for the HandleFacade class.
+     */
+    public HandleFacade() {
+    }
+
+    /**
+     * Variable registering the world containing the ships of this facade.
+     */
+    private final World world = new World();
+
+    /**
+     * Returns the ship with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing ship.
+     *          | !world.hasShip(ship)
+     */
+    private Ship getShip(int ship) throws ModelException {
+        try {
+            return world.getShip(ship);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the handle of a new Ship at the origin point (0,0) with a velocity of 0, a heading of 0 and a radius
+     * equal to the minimum radius.
+     */
+    public int createShip() throws ModelException {
+        return world.addShip(new Ship());
+    }
+
+    /**
+     * Returns the handle of a new Ship at (x,y) with a velocity vector of (xVelocity, yVelocity), a heading of
+     * orientation and a radius equal to radius.
+     *
+     * @throws  ModelException
+     *          The ship can not be created with the given values.
+     */
+    public int createShip(double x, double y, double xVelocity, double yVelocity, double radius, double orientation)
+            throws ModelException {
+        try {
+            return world.addShip(new Ship(x, y, xVelocity, yVelocity, radius, orientation));
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Removes the ship with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing ship.
+     */
+    public void removeShip(int ship) throws ModelException {
+        try {
+            world.removeShip(ship);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the number of ships.
+     */
+    public int getNbShips() {
+        return world.getNbShips();
+    }
+
+    /**
+     * Returns the handle of the ship at the given index.
+     *
+     * @throws  ModelException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public int getShipAt(int index) throws ModelException {
+        try {
+            return world.getHandleAt(index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current position.
+     */
+    public double[] getShipPosition(int ship) throws ModelException {
+        return getShip(ship).getPosition().getValues();
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current velocity.
+     */
+    public double[] getShipVelocity(int ship) throws ModelException {
+        return getShip(ship).getVelocity().getValues();
+    }
+
+    /**
+     * Returns the ship's radius.
+     */
+    public double getShipRadius(int ship) throws ModelException {
+        return getShip(ship).getRadius();
+    }
+
+    /**
+     * Returns the ship's current heading.
+     */
+    public double getShipOrientation(int ship) throws ModelException {
+        return getShip(ship).getHeading();
+    }
+
+    /**
+     * Changes the ships position by the current velocity * dt.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void move(int ship, double dt) throws ModelException {
+        try {
+            getShip(ship).move(dt);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Moves every ship by its current velocity * dt, in constant time.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void advanceTime(double dt) throws ModelException {
+        try {
+            world.advanceTime(dt);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Changes the velocity of the ship by the given amount.
+     */
+    public void thrust(int ship, double amount) throws ModelException {
+        getShip(ship).thrust(amount);
+    }
+
+    /**
+     * Changes the heading of the ship by the given angle.
+     */
+    public void turn(int ship, double angle) throws ModelException {
+        getShip(ship).turn(angle);
+    }
+
+    /**
+     * Returns the distance between the two given ships.
+     */
+    public double getDistanceBetween(int ship1, int ship2) throws ModelException {
+        return getShip(ship1).getDistanceBetween(getShip(ship2));
+    }
+
+    /**
+     * Returns true if and only if the two ships overlap.
+     */
+    public boolean overlap(int ship1, int ship2) throws ModelException {
+        return getShip(ship1).overlap(getShip(ship2));
+    }
+
+    /**
+     * Returns the time it will take before two ships collide.
+     */
+    public double getTimeToCollision(int ship1, int ship2) throws ModelException {
+        return getShip(ship1).getTimeToCollision(getShip(ship2));
+    }
+
+    /**
+     * Returns the position of the collision point as an array of doubles.
+     */
+    public double[] getCollisionPosition(int ship1, int ship2) throws ModelException {
+        Vector collisionPosition = getShip(ship1).getCollisionPosition(getShip(ship2));
+        return collisionPosition == null ? null : collisionPosition.getValues();
+    }
+
+    /**
+     * Returns the distances between all pairs of ships, indexed by their dense index.
+     *
+     * @throws  ModelException
+     *          There are too many ships for a dense matrix.
+     */
+    public double[] getDistanceMatrix() throws ModelException {
+        try {
+            return new CollisionMatrices(world).getDistanceMatrix();
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the times to collision between all pairs of ships, indexed by their dense index.
+     *
+     * @throws  ModelException
+     *          There are too many ships for a dense matrix.
+     */
+    public double[] getTimeToCollisionMatrix() throws ModelException {
+        try {
+            return new CollisionMatrices(world).getTimeToCollisionMatrix();
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the pairs of ships whose distance is at most the given threshold.
+     */
+    public PairList getPairsWithinDistance(double threshold) {
+        return new CollisionMatrices(world).getPairsWithinDistance(threshold);
+    }
+
+    /**
+     * Returns the pairs of ships that collide within the given time horizon.
+     */
+    public PairList getPairsCollidingWithin(double horizon) {
+        return new CollisionMatrices(world).getPairsCollidingWithin(horizon);
+    }
+
+    /**
+     * Returns the dense index of the projectile with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing projectile.
+     *          | !world.getProjectiles().isValidHandle(projectile)
+     */
+    private int getProjectileIndex(int projectile) throws ModelException {
+        try {
+            return world.getProjectiles().getIndexOf(projectile);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the handle of a new projectile fired from the ship with the given speed, radius and lifetime.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing ship, or the projectile can not be fired with the given
+     *          values.
+     */
+    public int fireProjectile(int ship, double speed, double radius, double lifetime) throws ModelException {
+        try {
+            return world.getProjectiles().fire(getShip(ship), speed, radius, lifetime);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Removes the projectile with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing projectile.
+     */
+    public void removeProjectile(int projectile) throws ModelException {
+        try {
+            world.getProjectiles().remove(projectile);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the number of projectiles.
+     */
+    public int getNbProjectiles() {
+        return world.getProjectiles().getNbProjectiles();
+    }
+
+    /**
+     * Returns the handle of the projectile at the given index.
+     *
+     * @throws  ModelException
+     *          The index does not refer to a projectile.
+     *          | index < 0 || index >= getNbProjectiles()
+     */
+    public int getProjectileAt(int index) throws ModelException {
+        try {
+            return world.getProjectiles().getHandleAt(index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns an array of doubles of the projectile's current position.
+     */
+    public double[] getProjectilePosition(int projectile) throws ModelException {
+        int index = getProjectileIndex(projectile);
+        ProjectilePool projectiles = world.getProjectiles();
+        return new double[]{projectiles.getPositionX(index), projectiles.getPositionY(index)};
+    }
+
+    /**
+     * Returns an array of doubles of the projectile's velocity.
+     */
+    public double[] getProjectileVelocity(int projectile) throws ModelException {
+        int index = getProjectileIndex(projectile);
+        ProjectilePool projectiles = world.getProjectiles();
+        return new double[]{projectiles.getVelocityX(index), projectiles.getVelocityY(index)};
+    }
+
+    /**
+     * Returns the projectile's radius.
+     */
+    public double getProjectileRadius(int projectile) throws ModelException {
+        return world.getProjectiles().getRadius(getProjectileIndex(projectile));
+    }
+
+    /**
+     * Returns the time the projectile has left before it disappears.
+     */
+    public double getProjectileTimeLeft(int projectile) throws ModelException {
+        return world.getProjectiles().getTimeLeft(getProjectileIndex(projectile));
+    }
+
+    /**
+     * Advances the time by dt, bouncing colliding ships and removing projectiles that hit a ship or expire.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void evolve(double dt) throws ModelException {
+        try {
+            world.evolve(dt);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the handles of the ships hit by a projectile during the last evolution, once per hit.
+     */
+    public int[] getShipsHit() {
+        ProjectilePool projectiles = world.getProjectiles();
+        int[] result = new int[projectiles.getNbHits()];
+        for (int k = 0; k < result.length; k++)
+            result[k] = projectiles.getHitShip(k);
+        return result;
+    }
+}
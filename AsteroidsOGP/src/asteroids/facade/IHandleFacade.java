@@ -0,0 +1,138 @@
+package asteroids.facade;
+
+import asteroids.model.PairList;
+import asteroids.util.ModelException;
+
+/**
+ * A variant of the IFacade interface in which ships are referred to by integer handles instead of Ship references.
+ * Handles are dense and cheap to store or serialize. A handle stays valid until its ship is removed.
+ *
+ * Every method throws a ModelException if a given handle does not refer to an existing ship.
+ *
+ * @author  WimKunnen and Maarten Doclo.
+ *
+ * @version 1.0
+ */
+public interface IHandleFacade {
+
+    /**
+     * Create a new ship with a default position, velocity, radius and direction and return its handle.
+     */
+    public int createShip() throws ModelException;
+
+    /**
+     * Create a new ship with the given position, velocity, radius and orientation (in radians)
+     * and return its handle.
+     */
+    public int createShip(double x, double y, double xVelocity, double yVelocity, double radius, double orientation)
+            throws ModelException;
+
+    /**
+     * Remove the ship with the given handle. The handle becomes invalid.
+     */
+    public void removeShip(int ship) throws ModelException;
+
+    /**
+     * Return the number of ships.
+     */
+    public int getNbShips();
+
+    /**
+     * Return the handle of the ship at the given index, with the index between 0 and getNbShips() - 1.
+     */
+    public int getShipAt(int index) throws ModelException;
+
+    /**
+     * Return the position of <code>ship</code> as an array of length 2, with the
+     * x-coordinate at index 0 and the y-coordinate at index 1.
+     */
+    public double[] getShipPosition(int ship) throws ModelException;
+
+    /**
+     * Return the velocity of <code>ship</code> as an array of length 2, with the velocity
+     * along the X-axis at index 0 and the velocity along the Y-axis at index 1.
+     */
+    public double[] getShipVelocity(int ship) throws ModelException;
+
+    /**
+     * Return the radius of <code>ship</code>.
+     */
+    public double getShipRadius(int ship) throws ModelException;
+
+    /**
+     * Return the orientation of <code>ship</code> (in radians).
+     */
+    public double getShipOrientation(int ship) throws ModelException;
+
+    /**
+     * Update <code>ship</code>'s position, assuming it moves <code>dt</code>
+     * seconds at its current velocity.
+     */
+    public void move(int ship, double dt) throws ModelException;
+
+    /**
+     * Update the position of every ship, assuming each ship moves <code>dt</code>
+     * seconds at its current velocity. This takes constant time.
+     */
+    public void advanceTime(double dt) throws ModelException;
+
+    /**
+     * Update <code>ship</code>'s velocity based on its current velocity, its
+     * direction and the given <code>amount</code>.
+     */
+    public void thrust(int ship, double amount) throws ModelException;
+
+    /**
+     * Update the direction of <code>ship</code> by adding <code>angle</code>
+     * (in radians) to its current direction.
+     */
+    public void turn(int ship, double angle) throws ModelException;
+
+    /**
+     * Return the distance between <code>ship1</code> and <code>ship2</code>.
+     */
+    public double getDistanceBetween(int ship1, int ship2) throws ModelException;
+
+    /**
+     * Check whether <code>ship1</code> and <code>ship2</code> overlap.
+     */
+    public boolean overlap(int ship1, int ship2) throws ModelException;
+
+    /**
+     * Return the number of seconds until the first collision between
+     * <code>ship1</code> and <code>ship2</code>, or Double.POSITIVE_INFINITY if
+     * they never collide.
+     */
+    public double getTimeToCollision(int ship1, int ship2) throws ModelException;
+
+    /**
+     * Return the first position where <code>ship1</code> and <code>ship2</code>
+     * collide, or <code>null</code> if they never collide.
+     */
+    public double[] getCollisionPosition(int ship1, int ship2) throws ModelException;
+
+    /**
+     * Return the distances between all pairs of ships, with the distance
+     * between the ships at indices i and j at index i * getNbShips() + j.
+     */
+    public double[] getDistanceMatrix() throws ModelException;
+
+    /**
+     * Return the times to collision between all pairs of ships, with the time
+     * to collision between the ships at indices i and j at index
+     * i * getNbShips() + j.
+     */
+    public double[] getTimeToCollisionMatrix() throws ModelException;
+
+    /**
+     * Return the pairs of indices of distinct ships whose distance is at most
+     * <code>threshold</code>, together with that distance.
+     */
+    public PairList getPairsWithinDistance(double threshold) throws ModelException;
+
+    /**
+     * Return the pairs of indices of distinct ships that collide within
+     * <code>horizon</code> seconds, together with their time to collision.
+     */
+    public PairList getPairsCollidingWithin(double horizon) throws ModelException;
+}
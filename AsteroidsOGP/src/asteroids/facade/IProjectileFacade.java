@@ -0,0 +1,73 @@
+package asteroids.facade;
+
+import asteroids.util.ModelException;
+
+/**
+ * An extension of the IHandleFacade interface with projectiles fired by the ships.
+ * Projectiles are referred to by integer handles, like ships, so firing many short-lived projectiles creates no
+ * object per projectile. A projectile flies in a straight line until it hits a ship other than the ship that fired it,
+ * or until its lifetime runs out.
+ *
+ * Every method throws a ModelException if a given handle does not refer to an existing ship or projectile.
+ *
+ * @author  WimKunnen and Maarten Doclo.
+ *
+ * @version 1.0
+ */
+public interface IProjectileFacade extends IHandleFacade {
+
+    /**
+     * Fire a projectile with the given speed relative to <code>ship</code>, radius and lifetime (in seconds)
+     * from the front of <code>ship</code>, and return its handle.
+     */
+    public int fireProjectile(int ship, double speed, double radius, double lifetime) throws ModelException;
+
+    /**
+     * Remove the projectile with the given handle. The handle becomes invalid.
+     */
+    public void removeProjectile(int projectile) throws ModelException;
+
+    /**
+     * Return the number of projectiles.
+     */
+    public int getNbProjectiles();
+
+    /**
+     * Return the handle of the projectile at the given index, with the index between 0 and
+     * getNbProjectiles() - 1.
+     */
+    public int getProjectileAt(int index) throws ModelException;
+
+    /**
+     * Return the position of <code>projectile</code> as an array of length 2, with the
+     * x-coordinate at index 0 and the y-coordinate at index 1.
+     */
+    public double[] getProjectilePosition(int projectile) throws ModelException;
+
+    /**
+     * Return the velocity of <code>projectile</code> as an array of length 2, with the velocity
+     * along the X-axis at index 0 and the velocity along the Y-axis at index 1.
+     */
+    public double[] getProjectileVelocity(int projectile) throws ModelException;
+
+    /**
+     * Return the radius of <code>projectile</code>.
+     */
+    public double getProjectileRadius(int projectile) throws ModelException;
+
+    /**
+     * Return the number of seconds <code>projectile</code> has left before it disappears.
+     */
+    public double getProjectileTimeLeft(int projectile) throws ModelException;
+
+    /**
+     * Advance the time by <code>dt</code> seconds, bouncing the ships that collide and removing the projectiles
+     * that hit a ship or run out of time on the way.
+     */
+    public void evolve(double dt) throws ModelException;
+
+    /**
+     * Return the handles of the ships hit by a projectile during the last call to evolve, once per hit.
+     */
+    public int[] getShipsHit();
+}
@@ -0,0 +1,262 @@
+package asteroids.facade;
+
+import asteroids.model.CollisionMatrices;
+import asteroids.model.OffHeapShipStorage;
+import asteroids.model.PairList;
+import asteroids.util.ModelException;
+
+/**
+ * A class implementing the IHandleFacade interface.
+ * It keeps the state of its ships outside of the Java heap, in an OffHeapShipStorage.
+ *
+ * @author  WimKunnen and Maarten Doclo.
+ *
+ * @version 1.0
+ */
+public class OffHeapFacade implements IHandleFacade {
+
+    /**
+     * Default initializer for the OffHeapFacade class.
+     */
+    public OffHeapFacade() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes a new OffHeapFacade with room for the given number of ships.
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is negative or too large.
+     */
+    public OffHeapFacade(int capacity) throws IllegalArgumentException {
+        this.storage = new OffHeapShipStorage(capacity);
+    }
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Variable registering the storage containing the ships of this facade.
+     */
+    private final OffHeapShipStorage storage;
+
+    /**
+     * Returns the storage index of the ship with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing ship.
+     *          | !storage.isValidHandle(ship)
+     */
+    private int indexOf(int ship) throws ModelException {
+        try {
+            return storage.getIndexOf(ship);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the handle of a new ship at the origin point (0,0) with a velocity of 0, a heading of 0 and the
+     * minimum radius.
+     */
+    public int createShip() throws ModelException {
+        return createShip(0, 0, 0, 0, 10, 0);
+    }
+
+    /**
+     * Returns the handle of a new ship at (x,y) with a velocity vector of (xVelocity, yVelocity), a heading of
+     * orientation and a radius equal to radius.
+     *
+     * @throws  ModelException
+     *          The ship can not be created with the given values.
+     */
+    public int createShip(double x, double y, double xVelocity, double yVelocity, double radius, double orientation)
+            throws ModelException {
+        try {
+            return storage.add(x, y, xVelocity, yVelocity, radius, orientation);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Removes the ship with the given handle.
+     *
+     * @throws  ModelException
+     *          The handle does not refer to an existing ship.
+     */
+    public void removeShip(int ship) throws ModelException {
+        try {
+            storage.remove(ship);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the number of ships.
+     */
+    public int getNbShips() {
+        return storage.getNbShips();
+    }
+
+    /**
+     * Returns the handle of the ship at the given index.
+     *
+     * @throws  ModelException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public int getShipAt(int index) throws ModelException {
+        try {
+            return storage.getHandleAt(index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current position.
+     */
+    public double[] getShipPosition(int ship) throws ModelException {
+        int index = indexOf(ship);
+        return new double[]{storage.getPositionX(index), storage.getPositionY(index)};
+    }
+
+    /**
+     * Returns an array of doubles of the ship's current velocity.
+     */
+    public double[] getShipVelocity(int ship) throws ModelException {
+        int index = indexOf(ship);
+        return new double[]{storage.getVelocityX(index), storage.getVelocityY(index)};
+    }
+
+    /**
+     * Returns the ship's radius.
+     */
+    public double getShipRadius(int ship) throws ModelException {
+        return storage.getRadius(indexOf(ship));
+    }
+
+    /**
+     * Returns the ship's current heading.
+     */
+    public double getShipOrientation(int ship) throws ModelException {
+        return storage.getHeading(indexOf(ship));
+    }
+
+    /**
+     * Changes the ships position by the current velocity * dt.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void move(int ship, double dt) throws ModelException {
+        try {
+            storage.move(indexOf(ship), dt);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Moves every ship by its current velocity * dt.
+     *
+     * @throws  ModelException
+     *          The time difference is invalid.
+     *          | dt < 0
+     */
+    public void advanceTime(double dt) throws ModelException {
+        try {
+            storage.moveAll(dt);
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Changes the velocity of the ship by the given amount.
+     */
+    public void thrust(int ship, double amount) throws ModelException {
+        storage.thrust(indexOf(ship), amount);
+    }
+
+    /**
+     * Changes the heading of the ship by the given angle.
+     */
+    public void turn(int ship, double angle) throws ModelException {
+        storage.turn(indexOf(ship), angle);
+    }
+
+    /**
+     * Returns the distance between the two given ships.
+     */
+    public double getDistanceBetween(int ship1, int ship2) throws ModelException {
+        return storage.getDistanceBetween(indexOf(ship1), indexOf(ship2));
+    }
+
+    /**
+     * Returns true if and only if the two ships overlap.
+     */
+    public boolean overlap(int ship1, int ship2) throws ModelException {
+        return storage.overlap(indexOf(ship1), indexOf(ship2));
+    }
+
+    /**
+     * Returns the time it will take before two ships collide.
+     */
+    public double getTimeToCollision(int ship1, int ship2) throws ModelException {
+        return storage.getTimeToCollision(indexOf(ship1), indexOf(ship2));
+    }
+
+    /**
+     * Returns the position of the collision point as an array of doubles.
+     */
+    public double[] getCollisionPosition(int ship1, int ship2) throws ModelException {
+        double[] collisionPosition = new double[2];
+        return storage.getCollisionPosition(indexOf(ship1), indexOf(ship2), collisionPosition)
+                ? collisionPosition : null;
+    }
+
+    /**
+     * Returns the distances between all pairs of ships, indexed by their dense index.
+     *
+     * @throws  ModelException
+     *          There are too many ships for a dense matrix.
+     */
+    public double[] getDistanceMatrix() throws ModelException {
+        try {
+            return new CollisionMatrices(storage).getDistanceMatrix();
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the times to collision between all pairs of ships, indexed by their dense index.
+     *
+     * @throws  ModelException
+     *          There are too many ships for a dense matrix.
+     */
+    public double[] getTimeToCollisionMatrix() throws ModelException {
+        try {
+            return new CollisionMatrices(storage).getTimeToCollisionMatrix();
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(e);
+        }
+    }
+
+    /**
+     * Returns the pairs of ships whose distance is at most the given threshold.
+     */
+    public PairList getPairsWithinDistance(double threshold) {
+        return new CollisionMatrices(storage).getPairsWithinDistance(threshold);
+    }
+
+    /**
+     * Returns the pairs of ships that collide within the given time horizon.
+     */
+    public PairList getPairsCollidingWithin(double horizon) {
+        return new CollisionMatrices(storage).getPairsCollidingWithin(horizon);
+    }
+}
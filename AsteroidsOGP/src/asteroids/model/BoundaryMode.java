@@ -0,0 +1,28 @@
+package asteroids.model;
+
+/**
+ * An enumeration of the ways in which the boundaries of a world affect the ships in it.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public enum BoundaryMode {
+
+    /**
+     * The world has no boundaries: ships move on forever.
+     */
+    NONE,
+
+    /**
+     * The boundaries of the world are walls: a ship that hits a wall bounces off it, as off an infinitely heavy
+     * body.
+     */
+    REFLECTIVE,
+
+    /**
+     * The world wraps around: a ship leaving the world at one side enters it again at the opposite side, and
+     * ships near opposite sides are close to each other.
+     */
+    TOROIDAL
+}
@@ -0,0 +1,402 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A class computing the distances and times to collision between all pairs of a set of ships.
+ *
+ * A matrix takes a snapshot of the positions, velocities and radii of the ships when it is created, in primitive
+ * arrays indexed like the ships it was created from. Both relations are symmetric, so only the pairs of tiles on
+ * or above the diagonal are evaluated. The tiles are small enough for the attributes of both ranges of ships to stay
+ * in the cache, and are evaluated in parallel on a fork/join pool.
+ *
+ * The results follow the rules of the class Ship: the distance between a ship and itself is zero and a ship never
+ * collides with itself, and in a world that wraps around the ships of a pair are compared through their nearest
+ * images across the edges of the world.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class CollisionMatrices {
+
+    /**
+     * Initializes a new matrix for the ships of the given world, indexed by their dense index in the world.
+     *
+     * @throws  IllegalArgumentException
+     *          The world does not exist.
+     *          | world == null
+     */
+    public CollisionMatrices(World world) throws IllegalArgumentException{
+        if(world == null)
+            throw new IllegalArgumentException();
+        this.nbShips = world.getNbShips();
+        this.world = world;
+        allocate();
+        for(int i = 0; i < nbShips; i++)
+            snapshot(i, world.getShipAt(i));
+    }
+
+    /**
+     * Initializes a new matrix for the given ships, indexed by their index in the given array.
+     * If all ships belong to the same world, they are compared as in that world.
+     *
+     * @throws  IllegalArgumentException
+     *          The array or one of its ships does not exist.
+     *          | ships == null || for some i: ships[i] == null
+     */
+    public CollisionMatrices(Ship[] ships) throws IllegalArgumentException{
+        if(ships == null)
+            throw new IllegalArgumentException();
+        this.nbShips = ships.length;
+        allocate();
+        for(int i = 0; i < nbShips; i++){
+            if(ships[i] == null)
+                throw new IllegalArgumentException("Not an existing ship!");
+            snapshot(i, ships[i]);
+        }
+        World world = nbShips == 0 ? null : ships[0].getWorld();
+        for(int i = 1; i < nbShips && world != null; i++){
+            if(ships[i].getWorld() != world)
+                world = null;
+        }
+        this.world = world;
+    }
+
+    /**
+     * Initializes a new matrix for the ships of the given storage, indexed by their dense index in the storage.
+     *
+     * @throws  IllegalArgumentException
+     *          The storage does not exist.
+     *          | storage == null
+     */
+    public CollisionMatrices(OffHeapShipStorage storage) throws IllegalArgumentException{
+        if(storage == null)
+            throw new IllegalArgumentException();
+        this.nbShips = storage.getNbShips();
+        this.world = null;
+        allocate();
+        for(int i = 0; i < nbShips; i++){
+            positionsX[i] = storage.getPositionX(i);
+            positionsY[i] = storage.getPositionY(i);
+            velocitiesX[i] = storage.getVelocityX(i);
+            velocitiesY[i] = storage.getVelocityY(i);
+            radii[i] = storage.getRadius(i);
+        }
+    }
+
+    /**
+     * Constant registering the number of ships along each side of a tile.
+     */
+    private static final int TILE_SIZE = 256;
+
+    private final int nbShips;
+
+    /**
+     * Variable registering the world whose edges the ships of this matrix are compared across, or null if the ships
+     * do not share a world.
+     */
+    private final World world;
+
+    private double[] positionsX;
+
+    private double[] positionsY;
+
+    private double[] velocitiesX;
+
+    private double[] velocitiesY;
+
+    private double[] radii;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    @Model
+    private void allocate(){
+        positionsX = new double[nbShips];
+        positionsY = new double[nbShips];
+        velocitiesX = new double[nbShips];
+        velocitiesY = new double[nbShips];
+        radii = new double[nbShips];
+    }
+
+    @Model
+    private void snapshot(int i, Ship ship){
+        positionsX[i] = ship.getPositionX();
+        positionsY[i] = ship.getPositionY();
+        velocitiesX[i] = ship.getVelocityX();
+        velocitiesY[i] = ship.getVelocityY();
+        radii[i] = ship.getRadius();
+    }
+
+    /**
+     * Returns the number of ships of this matrix.
+     */
+    @Basic @Immutable
+    public int getNbShips(){
+        return nbShips;
+    }
+
+    /**
+     * Returns the pool on which the tiles are evaluated.
+     */
+    @Basic
+    public ForkJoinPool getPool(){
+        return pool;
+    }
+
+    /**
+     * Sets the pool on which the tiles are evaluated.
+     *
+     * @throws  IllegalArgumentException
+     *          The pool does not exist.
+     *          | pool == null
+     */
+    public void setPool(ForkJoinPool pool) throws IllegalArgumentException{
+        if(pool == null)
+            throw new IllegalArgumentException();
+        this.pool = pool;
+    }
+
+    // Dense matrices
+    /**
+     * Returns the distances between all pairs of ships, with the distance between the ships at indices i and j at
+     * index i * getNbShips() + j.
+     *
+     * @throws  IllegalArgumentException
+     *          The matrix does not fit in an array.
+     *          | (long) getNbShips() * getNbShips() > Integer.MAX_VALUE - 8
+     */
+    public double[] getDistanceMatrix() throws IllegalArgumentException{
+        double[] result = new double[denseLength()];
+        computeDistanceMatrix(result);
+        return result;
+    }
+
+    /**
+     * Stores the distances between all pairs of ships in the given array, in the layout of getDistanceMatrix.
+     *
+     * @throws  IllegalArgumentException
+     *          The array is too small to hold the matrix.
+     *          | result.length < (long) getNbShips() * getNbShips()
+     */
+    public void computeDistanceMatrix(double[] result) throws IllegalArgumentException{
+        computeDense(result, false);
+    }
+
+    /**
+     * Returns the times to collision between all pairs of ships, with the time to collision between the ships at
+     * indices i and j at index i * getNbShips() + j.
+     *
+     * @throws  IllegalArgumentException
+     *          The matrix does not fit in an array.
+     *          | (long) getNbShips() * getNbShips() > Integer.MAX_VALUE - 8
+     */
+    public double[] getTimeToCollisionMatrix() throws IllegalArgumentException{
+        double[] result = new double[denseLength()];
+        computeTimeToCollisionMatrix(result);
+        return result;
+    }
+
+    /**
+     * Stores the times to collision between all pairs of ships in the given array, in the layout of
+     * getTimeToCollisionMatrix.
+     *
+     * @throws  IllegalArgumentException
+     *          The array is too small to hold the matrix.
+     *          | result.length < (long) getNbShips() * getNbShips()
+     */
+    public void computeTimeToCollisionMatrix(double[] result) throws IllegalArgumentException{
+        computeDense(result, true);
+    }
+
+    private int denseLength(){
+        long length = (long) nbShips * nbShips;
+        if(length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many ships for a dense matrix!");
+        return (int) length;
+    }
+
+    @Model
+    private void computeDense(double[] result, boolean collisions){
+        if(result == null || result.length < (long) nbShips * nbShips)
+            throw new IllegalArgumentException();
+        pool.invoke(new DenseTask(result, collisions, 0, getNbTilePairs()));
+    }
+
+    // Sparse lists
+    /**
+     * Returns the pairs of distinct ships whose distance is at most the given threshold, with their distance.
+     * Ships that overlap have a negative distance. The pairs are ordered by tile and then by index.
+     */
+    public PairList getPairsWithinDistance(double threshold){
+        return pool.invoke(new SparseTask(threshold, false, 0, getNbTilePairs()));
+    }
+
+    /**
+     * Returns the pairs of distinct ships that collide within the given time horizon, with their time to
+     * collision. The pairs are ordered by tile and then by index.
+     */
+    public PairList getPairsCollidingWithin(double horizon){
+        return pool.invoke(new SparseTask(horizon, true, 0, getNbTilePairs()));
+    }
+
+    // Tiles
+    private int getNbTiles(){
+        return (nbShips + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /**
+     * Returns the number of pairs of tiles on or above the diagonal.
+     */
+    private int getNbTilePairs(){
+        long nbTiles = getNbTiles();
+        return (int) (nbTiles * (nbTiles + 1) / 2);
+    }
+
+    /**
+     * Returns the row of the tile pair with the given number, where the pairs are numbered row by row.
+     */
+    private int rowOf(int tilePair){
+        int nbTiles = getNbTiles();
+        // the pairs of row r start at r * nbTiles - r * (r - 1) / 2
+        int row = (int) (nbTiles + 0.5 - Math.sqrt((nbTiles + 0.5) * (nbTiles + 0.5) - 2.0 * tilePair));
+        while(row > 0 && firstPairOf(row) > tilePair)
+            row--;
+        while(row + 1 < nbTiles && firstPairOf(row + 1) <= tilePair)
+            row++;
+        return row;
+    }
+
+    private int firstPairOf(int row){
+        return (int) ((long) row * getNbTiles() - (long) row * (row - 1) / 2);
+    }
+
+    /**
+     * Returns the distance or the time to collision between the ships at the given distinct indices.
+     */
+    private double valueOf(int i, int j, boolean collisions){
+        double x = positionsX[i];
+        double y = positionsY[i];
+        double otherX = positionsX[j];
+        double otherY = positionsY[j];
+        if(world != null){
+            // the image of the other ship nearest to this one, as in the class Ship
+            otherX = x + world.displacement(otherX - x, world.getWidth());
+            otherY = y + world.displacement(otherY - y, world.getHeight());
+        }
+        if(collisions)
+            return Kinematics.timeToCollision(x, y, velocitiesX[i], velocitiesY[i], radii[i],
+                    otherX, otherY, velocitiesX[j], velocitiesY[j], radii[j]);
+        return Kinematics.distanceBetween(x, y, radii[i], otherX, otherY, radii[j]);
+    }
+
+    private void denseTile(int tilePair, double[] result, boolean collisions){
+        int row = rowOf(tilePair);
+        int column = row + tilePair - firstPairOf(row);
+        int iEnd = Math.min(nbShips, (row + 1) * TILE_SIZE);
+        int jStart = column * TILE_SIZE;
+        int jEnd = Math.min(nbShips, jStart + TILE_SIZE);
+        for(int i = row * TILE_SIZE; i < iEnd; i++){
+            int j = jStart;
+            if(row == column){
+                result[i * nbShips + i] = collisions ? Double.POSITIVE_INFINITY : 0;
+                j = i + 1;
+            }
+            for(; j < jEnd; j++){
+                double value = valueOf(i, j, collisions);
+                result[i * nbShips + j] = value;
+                result[j * nbShips + i] = value;
+            }
+        }
+    }
+
+    private void sparseTile(int tilePair, double limit, boolean collisions, PairList result){
+        int row = rowOf(tilePair);
+        int column = row + tilePair - firstPairOf(row);
+        int iEnd = Math.min(nbShips, (row + 1) * TILE_SIZE);
+        int jStart = column * TILE_SIZE;
+        int jEnd = Math.min(nbShips, jStart + TILE_SIZE);
+        for(int i = row * TILE_SIZE; i < iEnd; i++){
+            for(int j = row == column ? i + 1 : jStart; j < jEnd; j++){
+                double value = valueOf(i, j, collisions);
+                if(value <= limit)
+                    result.add(i, j, value);
+            }
+        }
+    }
+
+    /**
+     * A class of tasks filling a dense matrix for a range of tile pairs.
+     */
+    @SuppressWarnings("serial")
+    private class DenseTask extends RecursiveAction {
+
+        DenseTask(double[] result, boolean collisions, int from, int to){
+            this.result = result;
+            this.collisions = collisions;
+            this.from = from;
+            this.to = to;
+        }
+
+        private final double[] result;
+
+        private final boolean collisions;
+
+        private final int from;
+
+        private final int to;
+
+        @Override
+        protected void compute(){
+            if(to - from <= 1){
+                for(int tilePair = from; tilePair < to; tilePair++)
+                    denseTile(tilePair, result, collisions);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DenseTask(result, collisions, from, middle), new DenseTask(result, collisions, middle, to));
+        }
+    }
+
+    /**
+     * A class of tasks collecting the pairs within a limit for a range of tile pairs.
+     */
+    @SuppressWarnings("serial")
+    private class SparseTask extends RecursiveTask<PairList> {
+
+        SparseTask(double limit, boolean collisions, int from, int to){
+            this.limit = limit;
+            this.collisions = collisions;
+            this.from = from;
+            this.to = to;
+        }
+
+        private final double limit;
+
+        private final boolean collisions;
+
+        private final int from;
+
+        private final int to;
+
+        @Override
+        protected PairList compute(){
+            if(to - from <= 1){
+                PairList result = new PairList();
+                for(int tilePair = from; tilePair < to; tilePair++)
+                    sparseTile(tilePair, limit, collisions, result);
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            SparseTask second = new SparseTask(limit, collisions, middle, to);
+            second.fork();
+            PairList result = new SparseTask(limit, collisions, from, middle).compute();
+            result.addAll(second.join());
+            return result;
+        }
+    }
+}
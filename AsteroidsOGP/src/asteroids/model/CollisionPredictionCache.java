@@ -0,0 +1,280 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A class of bounded caches of collision predictions between pairs of ships.
+ *
+ * A prediction between two ships stays valid for as long as neither ship changes its trajectory, so the predictions
+ * are kept under the pair of ships together with the trajectory versions of both ships. A ship that changes its
+ * trajectory gets a new version, which makes its old predictions unreachable; they are evicted once they are the
+ * least recently used predictions of a full cache. Predictions are kept as moments on the clock of the world of
+ * the ships, so repeated queries between coasting ships in an evolving world are answered by a lookup.
+ *
+ * In a world that wraps around, the closest image of a ship can change while it coasts, so predictions between
+ * ships of such a world are only reused at the moment they were made.
+ *
+ * All methods are thread-safe.
+ *
+ * @invar   The number of predictions never exceeds the capacity.
+ *          | getSize() <= getCapacity()
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class CollisionPredictionCache {
+
+    /**
+     * Initializes a new empty cache holding at most the given number of predictions.
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is not positive.
+     *          | capacity <= 0
+     */
+    public CollisionPredictionCache(int capacity) throws IllegalArgumentException{
+        if(capacity <= 0)
+            throw new IllegalArgumentException();
+        this.capacity = capacity;
+        this.predictions = new LinkedHashMap<Key, Prediction>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Prediction> eldest){
+                return size() > CollisionPredictionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Variable registering the maximum number of predictions in this cache.
+     */
+    private int capacity;
+
+    /**
+     * Variable registering the predictions of this cache, from the least to the most recently used.
+     */
+    private final LinkedHashMap<Key, Prediction> predictions;
+
+    /**
+     * Variable registering the key used to look up predictions, reused to avoid creating a key for every query.
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Variable registering the array in which new predictions are computed.
+     */
+    private final double[] collision = new double[3];
+
+    private long nbHits;
+
+    private long nbMisses;
+
+    /**
+     * A class of keys of predictions, identifying both ships by reference together with their trajectory versions.
+     */
+    private static final class Key {
+
+        Ship first;
+
+        long firstVersion;
+
+        Ship second;
+
+        long secondVersion;
+
+        Key set(Ship first, Ship second){
+            this.first = first;
+            this.firstVersion = first.getTrajectoryVersion();
+            this.second = second;
+            this.secondVersion = second.getTrajectoryVersion();
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object object){
+            if(!(object instanceof Key))
+                return false;
+            Key other = (Key) object;
+            return first == other.first && second == other.second
+                    && firstVersion == other.firstVersion && secondVersion == other.secondVersion;
+        }
+
+        @Override
+        public int hashCode(){
+            int result = System.identityHashCode(first);
+            result = 31 * result + System.identityHashCode(second);
+            result = 31 * result + Long.hashCode(firstVersion);
+            return 31 * result + Long.hashCode(secondVersion);
+        }
+    }
+
+    /**
+     * A class of predictions of collisions between two ships.
+     * A prediction of ships that never collide has an infinite collision time.
+     */
+    private static final class Prediction {
+
+        Prediction(double time, double collisionTime, double positionX, double positionY){
+            this.time = time;
+            this.collisionTime = collisionTime;
+            this.positionX = positionX;
+            this.positionY = positionY;
+        }
+
+        final double time;
+
+        final double collisionTime;
+
+        final double positionX;
+
+        final double positionY;
+    }
+
+    /**
+     * Returns the maximum number of predictions in this cache.
+     */
+    @Basic
+    public synchronized int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of predictions in this cache, evicting the least recently used predictions that no
+     * longer fit.
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is not positive.
+     *          | capacity <= 0
+     */
+    public synchronized void setCapacity(int capacity) throws IllegalArgumentException{
+        if(capacity <= 0)
+            throw new IllegalArgumentException();
+        this.capacity = capacity;
+        Iterator<Key> keys = predictions.keySet().iterator();
+        while(predictions.size() > capacity){
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Returns the number of predictions in this cache.
+     */
+    public synchronized int getSize(){
+        return predictions.size();
+    }
+
+    /**
+     * Returns the number of queries answered from this cache.
+     */
+    @Basic
+    public synchronized long getNbHits(){
+        return nbHits;
+    }
+
+    /**
+     * Returns the number of queries that required a new prediction.
+     */
+    @Basic
+    public synchronized long getNbMisses(){
+        return nbMisses;
+    }
+
+    /**
+     * Removes all predictions from this cache.
+     */
+    public synchronized void clear(){
+        predictions.clear();
+    }
+
+    /**
+     * Returns the time it will take before the given ships collide, or Double.POSITIVE_INFINITY if they never
+     * collide.
+     *
+     * | result == ship1.getTimeToCollision(ship2)
+     *
+     * @throws  IllegalArgumentException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public synchronized double getTimeToCollision(Ship ship1, Ship ship2) throws IllegalArgumentException{
+        if(ship1 == null || ship2 == null)
+            throw new IllegalArgumentException("Not an existing ship!");
+        if(ship1.getWorld() != ship2.getWorld())
+            return ship1.getTimeToCollision(ship2);
+        double now = getCurrentTime(ship1);
+        Prediction prediction = lookUp(ship1, ship2, now);
+        if(prediction == null)
+            // the time to collision is symmetric, so a prediction for the reversed pair serves as well
+            prediction = lookUp(ship2, ship1, now);
+        if(prediction == null)
+            prediction = predict(ship1, ship2, now);
+        return prediction.collisionTime >= now ? prediction.collisionTime - now : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the position where the hull of the first ship hits the second ship as an array of doubles, or null
+     * if the ships never collide.
+     *
+     * | result == ship1.getCollisionPosition(ship2) == null ? null : ship1.getCollisionPosition(ship2).getValues()
+     *
+     * @throws  IllegalArgumentException
+     *          One of the ships does not exist.
+     *          | ship1 == null || ship2 == null
+     */
+    public synchronized double[] getCollisionPosition(Ship ship1, Ship ship2) throws IllegalArgumentException{
+        if(ship1 == null || ship2 == null)
+            throw new IllegalArgumentException("Not an existing ship!");
+        if(ship1.getWorld() != ship2.getWorld()){
+            Vector position = ship1.getCollisionPosition(ship2);
+            return position == null ? null : position.getValues();
+        }
+        double now = getCurrentTime(ship1);
+        Prediction prediction = lookUp(ship1, ship2, now);
+        if(prediction == null)
+            prediction = predict(ship1, ship2, now);
+        if(!(prediction.collisionTime >= now) || prediction.collisionTime == Double.POSITIVE_INFINITY)
+            return null;
+        return new double[]{prediction.positionX, prediction.positionY};
+    }
+
+    /**
+     * Returns the prediction between the given ships with their current trajectories that can be used at the given
+     * time, or null if there is none.
+     */
+    @Model
+    private Prediction lookUp(Ship ship1, Ship ship2, double now){
+        Prediction prediction = predictions.get(probe.set(ship1, ship2));
+        probe.first = probe.second = null;
+        if(prediction == null || (prediction.time != now && isWrapping(ship1.getWorld())))
+            return null;
+        nbHits++;
+        return prediction;
+    }
+
+    /**
+     * Computes the prediction between the given ships at the given time and adds it to this cache.
+     */
+    @Model
+    private Prediction predict(Ship ship1, Ship ship2, double now){
+        nbMisses++;
+        Prediction prediction;
+        if(ship1.predictCollision(ship2, collision))
+            prediction = new Prediction(now, collision[0], collision[1], collision[2]);
+        else
+            prediction = new Prediction(now, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN);
+        predictions.put(new Key().set(ship1, ship2), prediction);
+        return prediction;
+    }
+
+    private static double getCurrentTime(Ship ship){
+        return ship.getWorld() == null ? 0 : ship.getWorld().getTime();
+    }
+
+    private static boolean isWrapping(World world){
+        return world != null && world.getBoundaryMode() == BoundaryMode.TOROIDAL;
+    }
+}
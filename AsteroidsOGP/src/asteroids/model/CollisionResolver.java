@@ -0,0 +1,504 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+/**
+ * A class resolving the collisions between the ships of a world during a time step, by elastic bounces.
+ *
+ * A resolver first finds every pair of ships that collides within the step, in a single broad phase: the area each
+ * ship sweeps during the step is bounded by a box, the boxes are sorted along the x-axis and only pairs whose boxes
+ * overlap get their time to collision computed. The contacts are then handled in order of time, and simultaneous
+ * contacts in order of the indices of their ships, so the outcome is deterministic. Before a contact is handled its
+ * time is predicted again, since an earlier bounce may have changed the trajectory of one of its ships. Ships that
+ * touch or overlap and approach each other bounce right away.
+ *
+ * In a world with walls, the contacts of the ships with the walls are handled in the same order as the contacts
+ * between ships.
+ *
+ * Ships take the full step unless they make contact. A ship that bounces has its remaining step examined again from
+ * the moment of the bounce: the box of its new path is tested against the boxes of the other ships, so contacts
+ * caused by the bounce are still handled at their exact time within the step. Only ships near a contact pay for
+ * this; the boxes of the other ships are found by a binary search in the sorted order. To guard against infinitely
+ * many bounces in a finite time, for example of ships squeezed between each other, a step examines at most a
+ * bounded number of bounced ships; the contacts of the remaining ones are found at the next step.
+ *
+ * All state is kept in primitive arrays that are reused from step to step, so resolving does not allocate once the
+ * arrays have grown to the number of ships and contacts.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+final class CollisionResolver {
+
+    CollisionResolver(){
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Variables registering the box swept by each ship during the step, by dense index.
+     */
+    private double[] minimaX = new double[INITIAL_CAPACITY];
+
+    private double[] maximaX = new double[INITIAL_CAPACITY];
+
+    private double[] minimaY = new double[INITIAL_CAPACITY];
+
+    private double[] maximaY = new double[INITIAL_CAPACITY];
+
+    /**
+     * Variable registering the dense indices of the ships in order of the lower bound of their box along the
+     * x-axis. The order of the previous step is the starting point of the next, so sorting it takes linear time
+     * when ships move little between steps.
+     */
+    private int[] order = new int[0];
+
+    /**
+     * Variable registering the largest width of a box along the x-axis.
+     */
+    private double maximumWidth;
+
+    /**
+     * Variables registering the ships that bounced during the step. The box of such a ship in the arrays above no
+     * longer bounds its path; the box of its path from its last bounce is kept at its dirty slot instead.
+     */
+    private int[] dirtySlots = new int[0];
+
+    private int[] dirtyShips = new int[INITIAL_CAPACITY];
+
+    private double[] dirtyMinimaX = new double[INITIAL_CAPACITY];
+
+    private double[] dirtyMaximaX = new double[INITIAL_CAPACITY];
+
+    private double[] dirtyMinimaY = new double[INITIAL_CAPACITY];
+
+    private double[] dirtyMaximaY = new double[INITIAL_CAPACITY];
+
+    private int nbDirty;
+
+    /**
+     * Variable registering the number of bounced ships that can still be examined during the step.
+     */
+    private int examinationBudget;
+
+    /**
+     * Constant registering the number of bounced ships a step can examine, besides one per ship of the world.
+     */
+    private static final int EXTRA_EXAMINATIONS = 1024;
+
+    /**
+     * Variables registering a binary min-heap of contacts, ordered by time and then by the indices of their ships.
+     */
+    private double[] contactTimes = new double[INITIAL_CAPACITY];
+
+    private int[] contactFirsts = new int[INITIAL_CAPACITY];
+
+    private int[] contactSeconds = new int[INITIAL_CAPACITY];
+
+    private int nbContacts;
+
+    /**
+     * Constant registering the index standing in for the walls of a world as the second party of a contact.
+     */
+    private static final int WALL = -1;
+
+    /**
+     * Advances the clock of the given world by the given duration, bouncing the ships that collide on the way.
+     *
+     * @return  The number of bounces.
+     */
+    int resolve(World world, double duration){
+        double endTime = world.getTime() + duration;
+        findContacts(world, duration);
+        int nbBounces = 0;
+        while(nbContacts > 0){
+            double time = contactTimes[0];
+            int first = contactFirsts[0];
+            int second = contactSeconds[0];
+            popContact();
+            Ship ship1 = world.getShipAt(first);
+            Ship ship2 = second == WALL ? null : world.getShipAt(second);
+            double now = world.getTime();
+            double actualTime = now + (ship2 == null ? ship1.getTimeToWallCollision() : getContactTime(ship1, ship2));
+            if(actualTime > endTime)
+                continue;
+            if(actualTime > time){
+                pushContact(actualTime, first, second);
+                continue;
+            }
+            if(actualTime > now)
+                world.advanceTime(actualTime - now);
+            if(ship2 == null){
+                bounceOffWall(ship1);
+                nbBounces++;
+                // a ship bounces off the walls at most once at any moment, even if it does not fit between them
+                pushWallContact(world, first, endTime, false);
+                examine(world, first, endTime);
+            }else if(bounce(world, ship1, ship2)){
+                nbBounces++;
+                pushWallContact(world, first, endTime, true);
+                pushWallContact(world, second, endTime, true);
+                examine(world, first, endTime);
+                examine(world, second, endTime);
+            }
+        }
+        if(endTime > world.getTime())
+            world.advanceTime(endTime - world.getTime());
+        return nbBounces;
+    }
+
+    /**
+     * Adds the next contact of the ship at the given index with the walls of the given world, if the world has
+     * walls and the contact happens before the given end time. If the contact may not happen right away, a contact
+     * at the current time is left out.
+     */
+    private void pushWallContact(World world, int index, double endTime, boolean rightAway){
+        if(world.getBoundaryMode() != BoundaryMode.REFLECTIVE)
+            return;
+        double timeToWall = world.getShipAt(index).getTimeToWallCollision();
+        if((rightAway || timeToWall > 0) && world.getTime() + timeToWall <= endTime)
+            pushContact(world.getTime() + timeToWall, index, WALL);
+    }
+
+    /**
+     * Fills the heap of contacts with the pairs of ships of the given world that collide within the given duration,
+     * and with the ships that hit a wall within the given duration.
+     *
+     * In a world that wraps around, the boxes are sorted by their lower bound within the world, and the sweep
+     * continues past the end of the order at its start, shifted by the width of the world. Every pair is thus found
+     * without copying the ships near the seams.
+     */
+    private void findContacts(World world, double duration){
+        int nbShips = world.getNbShips();
+        ensureCapacity(nbShips);
+        double now = world.getTime();
+        for(int i = 0; i < nbShips; i++){
+            Ship ship = world.getShipAt(i);
+            double x = ship.getPositionX();
+            double y = ship.getPositionY();
+            double endX = x + ship.getVelocityX() * duration;
+            double endY = y + ship.getVelocityY() * duration;
+            double radius = ship.getRadius();
+            minimaX[i] = Math.min(x, endX) - radius;
+            maximaX[i] = Math.max(x, endX) + radius;
+            minimaY[i] = Math.min(y, endY) - radius;
+            maximaY[i] = Math.max(y, endY) + radius;
+        }
+        sortOrder();
+        maximumWidth = 0;
+        for(int i = 0; i < nbShips; i++)
+            maximumWidth = Math.max(maximumWidth, maximaX[i] - minimaX[i]);
+        for(int k = 0; k < nbDirty; k++)
+            dirtySlots[dirtyShips[k]] = -1;
+        nbDirty = 0;
+        examinationBudget = nbShips + EXTRA_EXAMINATIONS;
+        nbContacts = 0;
+        boolean toroidal = world.getBoundaryMode() == BoundaryMode.TOROIDAL;
+        double width = world.getWidth();
+        double height = world.getHeight();
+        for(int a = 0; a < nbShips; a++){
+            int i = order[a];
+            double maximumX = maximaX[i];
+            double shift = 0;
+            for(int b = a + 1; ; b++){
+                if(b == nbShips){
+                    if(!toroidal)
+                        break;
+                    b = 0;
+                    shift = width;
+                }
+                if(b == a || minimaX[order[b]] + shift > maximumX)
+                    break;
+                int j = order[b];
+                if(!overlap(minimaY[i], maximaY[i], minimaY[j], maximaY[j], toroidal ? height : 0))
+                    continue;
+                double time = getContactTime(world.getShipAt(i), world.getShipAt(j));
+                if(time <= duration)
+                    pushContact(now + time, Math.min(i, j), Math.max(i, j));
+            }
+            pushWallContact(world, i, now + duration, true);
+        }
+    }
+
+    /**
+     * Adds the contacts of the ship at the given index with the other ships before the given end time, from the
+     * current time on, after the ship changed its trajectory.
+     */
+    private void examine(World world, int index, double endTime){
+        if(examinationBudget == 0)
+            return;
+        examinationBudget--;
+        Ship ship = world.getShipAt(index);
+        double now = world.getTime();
+        double duration = endTime - now;
+        double x = ship.getPositionX();
+        double y = ship.getPositionY();
+        double endX = x + ship.getVelocityX() * duration;
+        double endY = y + ship.getVelocityY() * duration;
+        double radius = ship.getRadius();
+        double minimumX = Math.min(x, endX) - radius;
+        double maximumX = Math.max(x, endX) + radius;
+        double minimumY = Math.min(y, endY) - radius;
+        double maximumY = Math.max(y, endY) + radius;
+        int slot = dirtySlots[index];
+        if(slot < 0){
+            slot = nbDirty++;
+            if(slot == dirtyShips.length){
+                dirtyShips = Arrays.copyOf(dirtyShips, 2 * slot);
+                dirtyMinimaX = Arrays.copyOf(dirtyMinimaX, 2 * slot);
+                dirtyMaximaX = Arrays.copyOf(dirtyMaximaX, 2 * slot);
+                dirtyMinimaY = Arrays.copyOf(dirtyMinimaY, 2 * slot);
+                dirtyMaximaY = Arrays.copyOf(dirtyMaximaY, 2 * slot);
+            }
+            dirtySlots[index] = slot;
+            dirtyShips[slot] = index;
+        }
+        dirtyMinimaX[slot] = minimumX;
+        dirtyMaximaX[slot] = maximumX;
+        dirtyMinimaY[slot] = minimumY;
+        dirtyMaximaY[slot] = maximumY;
+        boolean toroidal = world.getBoundaryMode() == BoundaryMode.TOROIDAL;
+        double width = toroidal ? world.getWidth() : 0;
+        double height = toroidal ? world.getHeight() : 0;
+        // ships that did not bounce, in the ranges of the order whose boxes can overlap, possibly across a seam
+        for(int shift = toroidal ? -1 : 0; shift <= (toroidal ? 1 : 0); shift++){
+            double offset = shift * width;
+            int end = upperBound(maximumX - offset);
+            for(int a = lowerBound(minimumX - offset - maximumWidth); a < end; a++){
+                int j = order[a];
+                if(j != index && dirtySlots[j] < 0 && maximaX[j] + offset >= minimumX
+                        && overlap(minimumY, maximumY, minimaY[j], maximaY[j], height))
+                    pushShipContact(world, index, j, endTime);
+            }
+        }
+        // ships that bounced before, with the boxes of their new paths
+        for(int k = 0; k < nbDirty; k++){
+            int j = dirtyShips[k];
+            if(j != index && overlap(minimumX, maximumX, dirtyMinimaX[k], dirtyMaximaX[k], width)
+                    && overlap(minimumY, maximumY, dirtyMinimaY[k], dirtyMaximaY[k], height))
+                pushShipContact(world, index, j, endTime);
+        }
+    }
+
+    /**
+     * Adds the contact between the ships at the given indices, if it happens before the given end time.
+     */
+    private void pushShipContact(World world, int index1, int index2, double endTime){
+        double time = world.getTime() + getContactTime(world.getShipAt(index1), world.getShipAt(index2));
+        if(time <= endTime)
+            pushContact(time, Math.min(index1, index2), Math.max(index1, index2));
+    }
+
+    /**
+     * Returns the first position in the order whose box has a lower bound along the x-axis of at least the given
+     * value.
+     */
+    private int lowerBound(double value){
+        int low = 0;
+        int high = order.length;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(minimaX[order[middle]] < value)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first position in the order whose box has a lower bound along the x-axis above the given value.
+     */
+    private int upperBound(double value){
+        int low = 0;
+        int high = order.length;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(minimaX[order[middle]] <= value)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns true if and only if the given intervals overlap, possibly after shifting the second by the given
+     * period in either direction. A period of zero means the intervals are not periodic.
+     */
+    private static boolean overlap(double minimum1, double maximum1, double minimum2, double maximum2,
+                                   double period){
+        if(minimum2 <= maximum1 && minimum1 <= maximum2)
+            return true;
+        return period > 0 && ((minimum2 + period <= maximum1 && minimum1 <= maximum2 + period)
+                || (minimum2 - period <= maximum1 && minimum1 <= maximum2 - period));
+    }
+
+    /**
+     * Returns the time until the given ships make contact. Ships that already touch or overlap make contact
+     * immediately if they approach each other, and never otherwise; this lets ships that ended up overlapping,
+     * for example through rounding errors, push each other apart instead of passing through each other.
+     */
+    private static double getContactTime(Ship ship1, Ship ship2){
+        if(ship1.getDistanceBetween(ship2) > 0)
+            return ship1.getTimeToCollision(ship2);
+        World world = ship1.getWorld();
+        double approach = (ship2.getVelocityX() - ship1.getVelocityX())
+                * world.displacement(ship2.getPositionX() - ship1.getPositionX(), world.getWidth())
+                + (ship2.getVelocityY() - ship1.getVelocityY())
+                * world.displacement(ship2.getPositionY() - ship1.getPositionY(), world.getHeight());
+        return approach < 0 ? 0 : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Grows the arrays of the swept boxes to the given number of ships. If the number of ships changed, the order
+     * is reset to the order of the indices.
+     */
+    private void ensureCapacity(int nbShips){
+        if(nbShips > minimaX.length){
+            int capacity = Math.max(nbShips, 2 * minimaX.length);
+            minimaX = new double[capacity];
+            maximaX = new double[capacity];
+            minimaY = new double[capacity];
+            maximaY = new double[capacity];
+        }
+        if(order.length != nbShips){
+            order = new int[nbShips];
+            for(int i = 0; i < nbShips; i++)
+                order[i] = i;
+            dirtySlots = new int[nbShips];
+            Arrays.fill(dirtySlots, -1);
+            nbDirty = 0;
+        }
+    }
+
+    /**
+     * Registers that the ships of the world moved to new dense indices: the ship at index i now has index
+     * newIndices[i]. The order of the boxes is carried over to the new indices, so sorting it at the next step
+     * still takes linear time.
+     */
+    void renumber(int[] newIndices, int nbShips){
+        if(order.length != nbShips)
+            return;
+        for(int a = 0; a < nbShips; a++)
+            order[a] = newIndices[order[a]];
+        for(int k = 0; k < nbDirty; k++)
+            dirtySlots[dirtyShips[k]] = -1;
+        nbDirty = 0;
+    }
+
+    /**
+     * Sorts the order by the lower bound of the boxes along the x-axis, and by index for equal bounds.
+     * Insertion sort takes time linear in the number of ships plus the number of ships that changed places.
+     */
+    private void sortOrder(){
+        for(int a = 1; a < order.length; a++){
+            int i = order[a];
+            double minimumX = minimaX[i];
+            int b = a - 1;
+            while(b >= 0 && (minimaX[order[b]] > minimumX || (minimaX[order[b]] == minimumX && order[b] > i))){
+                order[b + 1] = order[b];
+                b--;
+            }
+            order[b + 1] = i;
+        }
+    }
+
+    /**
+     * Changes the velocities of the given touching ships of the given world as in an elastic collision between
+     * bodies with the masses of the ships. The velocities are clamped to the maximum velocity of their ship.
+     *
+     * @return  True if and only if the ships were approaching each other, and thus bounced.
+     */
+    private static boolean bounce(World world, Ship ship1, Ship ship2){
+        double normalX = world.displacement(ship2.getPositionX() - ship1.getPositionX(), world.getWidth());
+        double normalY = world.displacement(ship2.getPositionY() - ship1.getPositionY(), world.getHeight());
+        double length = Math.sqrt(normalX * normalX + normalY * normalY);
+        if(length == 0)
+            return false;
+        normalX /= length;
+        normalY /= length;
+        double approach = (ship2.getVelocityX() - ship1.getVelocityX()) * normalX
+                + (ship2.getVelocityY() - ship1.getVelocityY()) * normalY;
+        if(approach >= 0)
+            return false;
+        double mass1 = ship1.getMass();
+        double mass2 = ship2.getMass();
+        double impulse1 = 2 * mass2 / (mass1 + mass2) * approach;
+        double impulse2 = 2 * mass1 / (mass1 + mass2) * approach;
+        ship1.setVelocity(ship1.getVelocityX() + impulse1 * normalX, ship1.getVelocityY() + impulse1 * normalY);
+        ship2.setVelocity(ship2.getVelocityX() - impulse2 * normalX, ship2.getVelocityY() - impulse2 * normalY);
+        return true;
+    }
+
+    /**
+     * Reverses the component of the velocity of the given ship perpendicular to the wall it hits first, or to both
+     * walls if it hits a corner.
+     */
+    private static void bounceOffWall(Ship ship){
+        World world = ship.getWorld();
+        double velocityX = ship.getVelocityX();
+        double velocityY = ship.getVelocityY();
+        double timeX = Kinematics.timeToWall(ship.getPositionX(), velocityX, ship.getRadius(), world.getWidth());
+        double timeY = Kinematics.timeToWall(ship.getPositionY(), velocityY, ship.getRadius(), world.getHeight());
+        ship.setVelocity(timeX <= timeY ? -velocityX : velocityX, timeY <= timeX ? -velocityY : velocityY);
+    }
+
+    // Heap of contacts
+    private boolean isBefore(int k, int l){
+        if(contactTimes[k] != contactTimes[l])
+            return contactTimes[k] < contactTimes[l];
+        if(contactFirsts[k] != contactFirsts[l])
+            return contactFirsts[k] < contactFirsts[l];
+        return contactSeconds[k] < contactSeconds[l];
+    }
+
+    private void swapContacts(int k, int l){
+        double time = contactTimes[k];
+        contactTimes[k] = contactTimes[l];
+        contactTimes[l] = time;
+        int first = contactFirsts[k];
+        contactFirsts[k] = contactFirsts[l];
+        contactFirsts[l] = first;
+        int second = contactSeconds[k];
+        contactSeconds[k] = contactSeconds[l];
+        contactSeconds[l] = second;
+    }
+
+    private void pushContact(double time, int first, int second){
+        if(nbContacts == contactTimes.length){
+            contactTimes = Arrays.copyOf(contactTimes, 2 * nbContacts);
+            contactFirsts = Arrays.copyOf(contactFirsts, 2 * nbContacts);
+            contactSeconds = Arrays.copyOf(contactSeconds, 2 * nbContacts);
+        }
+        int k = nbContacts++;
+        contactTimes[k] = time;
+        contactFirsts[k] = first;
+        contactSeconds[k] = second;
+        while(k > 0 && isBefore(k, (k - 1) / 2)){
+            swapContacts(k, (k - 1) / 2);
+            k = (k - 1) / 2;
+        }
+    }
+
+    private void popContact(){
+        nbContacts--;
+        if(nbContacts == 0)
+            return;
+        swapContacts(0, nbContacts);
+        int k = 0;
+        while(true){
+            int smallest = k;
+            int left = 2 * k + 1;
+            if(left < nbContacts && isBefore(left, smallest))
+                smallest = left;
+            if(left + 1 < nbContacts && isBefore(left + 1, smallest))
+                smallest = left + 1;
+            if(smallest == k)
+                return;
+            swapContacts(k, smallest);
+            k = smallest;
+        }
+    }
+}
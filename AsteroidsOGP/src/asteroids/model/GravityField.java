@@ -0,0 +1,534 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A class of gravitational fields in which every ship of a world attracts every other ship in proportion to its
+ * mass, approximated with a Barnes-Hut quadtree.
+ *
+ * At every step the ships are sorted along a Hilbert curve through a square enclosing them. Every square of the
+ * quadtree then holds a contiguous range of the sorted ships, and the four squares within it split that range where
+ * the next digit of the curve changes. A square whose ships all lie in one of its four quarters is skipped, so every
+ * square of the tree has at least two non-empty quarters and a range of n ships needs at most 2n - 1 squares. This
+ * lets the quarters of a square be built in parallel, each into a block of node indices of its own.
+ *
+ * The attraction of a ship by the ships in a square is approximated by the attraction of their total mass at their
+ * center of mass, if the side of the square is smaller than the opening angle times the distance to that center.
+ * An opening angle of zero yields the exact sum over all pairs of ships; larger angles trade accuracy for speed.
+ * The distance between ships is softened by the minimum radius of a ship, so ships that overlap do not attract each
+ * other without bound.
+ *
+ * In a world that wraps around, ships attract each other within the world only, not across its seams. A field keeps
+ * the tree of the last step it computed, and should therefore be used by one world at a time.
+ *
+ * @invar   The gravitational constant of a field is positive and finite.
+ *          | 0 < getGravitationalConstant() && getGravitationalConstant() < Double.POSITIVE_INFINITY
+ *
+ * @invar   The opening angle of a field is not negative.
+ *          | getOpeningAngle() >= 0
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class GravityField {
+
+    /**
+     * Initializes a new gravitational field with the given gravitational constant and opening angle.
+     *
+     * @throws  IllegalArgumentException
+     *          The gravitational constant is not positive and finite, or the opening angle is not valid.
+     *          | !(0 < gravitationalConstant && gravitationalConstant < Double.POSITIVE_INFINITY)
+     *          | || !isValidOpeningAngle(openingAngle)
+     */
+    public GravityField(double gravitationalConstant, double openingAngle) throws IllegalArgumentException{
+        if(!(0 < gravitationalConstant && gravitationalConstant < Double.POSITIVE_INFINITY))
+            throw new IllegalArgumentException();
+        this.gravitationalConstant = gravitationalConstant;
+        setOpeningAngle(openingAngle);
+    }
+
+    /**
+     * Initializes a new gravitational field with the gravitational constant of nature and the default opening angle.
+     */
+    public GravityField(){
+        this(GRAVITATIONAL_CONSTANT, DEFAULT_OPENING_ANGLE);
+    }
+
+    /**
+     * Constant registering the gravitational constant of nature, in m^3 / (kg s^2).
+     */
+    public static final double GRAVITATIONAL_CONSTANT = 6.674E-11;
+
+    /**
+     * Constant registering the default opening angle, which keeps the relative error of the attractions at a
+     * fraction of a percent.
+     */
+    public static final double DEFAULT_OPENING_ANGLE = 0.5;
+
+    /**
+     * Constant registering the distance by which the distance between ships is softened.
+     */
+    public static final double SOFTENING = Kinematics.MINIMUM_RADIUS;
+
+    /**
+     * Constant registering the number of ships below which a square is not divided any further.
+     */
+    private static final int LEAF_SIZE = 8;
+
+    /**
+     * Constant registering the number of ships above which the quarters of a square are built in parallel, and
+     * below which the attractions of a range of ships are computed by one thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final int INDEX_BITS = 24;
+
+    /**
+     * Variable registering the gravitational constant of this field.
+     */
+    private final double gravitationalConstant;
+
+    /**
+     * Variable registering the opening angle of this field.
+     */
+    private double openingAngle;
+
+    /**
+     * Returns the gravitational constant of this field.
+     */
+    @Basic @Immutable
+    public double getGravitationalConstant(){
+        return gravitationalConstant;
+    }
+
+    /**
+     * Returns the opening angle of this field.
+     */
+    @Basic
+    public double getOpeningAngle(){
+        return openingAngle;
+    }
+
+    /**
+     * Returns true if and only if the given opening angle is not negative and finite.
+     */
+    public static boolean isValidOpeningAngle(double openingAngle){
+        return 0 <= openingAngle && openingAngle < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Sets the opening angle of this field to the given angle.
+     *
+     * @post    The opening angle of this field equals the given angle.
+     *          | new.getOpeningAngle() == openingAngle
+     *
+     * @throws  IllegalArgumentException
+     *          The given opening angle is not valid.
+     *          | !isValidOpeningAngle(openingAngle)
+     */
+    public void setOpeningAngle(double openingAngle) throws IllegalArgumentException{
+        if(!isValidOpeningAngle(openingAngle))
+            throw new IllegalArgumentException();
+        this.openingAngle = openingAngle;
+    }
+
+    // Ships, in the order of the curve
+    /**
+     * Variables registering the number of ships of the last computation and, in the order of the curve, their keys,
+     * positions, masses and dense indices.
+     */
+    private int nbBodies;
+
+    private long[] keys = new long[0];
+
+    private double[] bodiesX = new double[0];
+
+    private double[] bodiesY = new double[0];
+
+    private double[] bodyMasses = new double[0];
+
+    private int[] bodyIndices = new int[0];
+
+    /**
+     * Variables registering the accelerations of the ships of the last computation, by dense index.
+     */
+    private double[] accelerationsX = new double[0];
+
+    private double[] accelerationsY = new double[0];
+
+    // Squares of the tree
+    /**
+     * Variables registering the squares of the tree in pre-order: the range of ships in each square, the side of
+     * the square, the total mass and the center of mass of its ships, whether it is divided, and the square that
+     * follows it once its quarters are skipped, or -1 after the last square.
+     */
+    private int[] nodeStarts = new int[0];
+
+    private int[] nodeEnds = new int[0];
+
+    private double[] nodeSides = new double[0];
+
+    private double[] nodeMasses = new double[0];
+
+    private double[] nodesX = new double[0];
+
+    private double[] nodesY = new double[0];
+
+    private boolean[] nodeLeaves = new boolean[0];
+
+    private int[] nodeNexts = new int[0];
+
+    /**
+     * Returns the acceleration along the x-axis of the ship at the given dense index by the attraction of the other
+     * ships, as of the last computation.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship of the last computation.
+     *          | index < 0 || index >= number of ships of the last computation
+     */
+    public double getAccelerationX(int index) throws IndexOutOfBoundsException{
+        if(index < 0 || index >= nbBodies)
+            throw new IndexOutOfBoundsException();
+        return accelerationsX[index];
+    }
+
+    /**
+     * Returns the acceleration along the y-axis of the ship at the given dense index by the attraction of the other
+     * ships, as of the last computation.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship of the last computation.
+     *          | index < 0 || index >= number of ships of the last computation
+     */
+    public double getAccelerationY(int index) throws IndexOutOfBoundsException{
+        if(index < 0 || index >= nbBodies)
+            throw new IndexOutOfBoundsException();
+        return accelerationsY[index];
+    }
+
+    /**
+     * Changes the velocity of every ship of the given world by its acceleration in this field during the given
+     * time difference. The velocities are clamped to the maximum velocity of their ship.
+     */
+    void apply(World world, double timeDifference){
+        compute(world);
+        for(int i = 0; i < nbBodies; i++){
+            Ship ship = world.getShipAt(i);
+            if(accelerationsX[i] != 0 || accelerationsY[i] != 0)
+                ship.setVelocity(ship.getVelocityX() + accelerationsX[i] * timeDifference,
+                        ship.getVelocityY() + accelerationsY[i] * timeDifference);
+        }
+    }
+
+    /**
+     * Computes the acceleration of every ship of the given world by the attraction of the other ships, at the
+     * current time of that world.
+     *
+     * @param   world
+     *          The world whose ships attract each other.
+     *
+     * @throws  IllegalArgumentException
+     *          The world does not exist.
+     *          | world == null
+     */
+    public void compute(World world) throws IllegalArgumentException{
+        if(world == null)
+            throw new IllegalArgumentException();
+        int nbShips = world.getNbShips();
+        ensureCapacity(nbShips);
+        nbBodies = nbShips;
+        if(nbShips == 0)
+            return;
+        double side = sortBodies(world);
+        if(nbShips > PARALLEL_THRESHOLD){
+            ForkJoinPool.commonPool().invoke(new BuildTask(0, 0, nbShips, 0, side, -1));
+            ForkJoinPool.commonPool().invoke(new ForceTask(0, nbShips));
+        }else{
+            // small trees are built and walked by this thread, without creating any task
+            build(0, 0, nbShips, 0, side, -1);
+            computeAccelerations(0, nbShips);
+        }
+    }
+
+    /**
+     * Grows the arrays of this field so they can hold the given number of ships and the squares of their tree.
+     */
+    @Model
+    private void ensureCapacity(int nbShips){
+        if(keys.length >= nbShips)
+            return;
+        int capacity = Math.max(nbShips, 2 * keys.length);
+        keys = new long[capacity];
+        bodiesX = new double[capacity];
+        bodiesY = new double[capacity];
+        bodyMasses = new double[capacity];
+        bodyIndices = new int[capacity];
+        accelerationsX = new double[capacity];
+        accelerationsY = new double[capacity];
+        int nbNodes = 2 * capacity;
+        nodeStarts = new int[nbNodes];
+        nodeEnds = new int[nbNodes];
+        nodeSides = new double[nbNodes];
+        nodeMasses = new double[nbNodes];
+        nodesX = new double[nbNodes];
+        nodesY = new double[nbNodes];
+        nodeLeaves = new boolean[nbNodes];
+        nodeNexts = new int[nbNodes];
+    }
+
+    /**
+     * Sorts the ships of the given world along a Hilbert curve through a square enclosing them, copies their
+     * positions and masses in that order, and returns the side of the square.
+     * Worlds reorder their ships along the same curve while they evolve, so the keys are mostly sorted already.
+     */
+    @Model
+    private double sortBodies(World world){
+        double minimumX = 0, minimumY = 0, side = Math.max(world.getWidth(), world.getHeight());
+        if(world.getBoundaryMode() == BoundaryMode.NONE){
+            WorldAggregates aggregates = world.getAggregates();
+            minimumX = aggregates.getMinimumX();
+            minimumY = aggregates.getMinimumY();
+            side = Math.max(aggregates.getMaximumX() - minimumX, aggregates.getMaximumY() - minimumY);
+        }
+        for(int i = 0; i < nbBodies; i++){
+            Ship ship = world.getShipAt(i);
+            keys[i] = HilbertCurve.keyOf(i, ship.getPositionX(), ship.getPositionY(), minimumX, minimumY, side);
+        }
+        HilbertCurve.sort(keys, nbBodies);
+        for(int p = 0; p < nbBodies; p++){
+            int index = HilbertCurve.indexOf(keys[p]);
+            Ship ship = world.getShipAt(index);
+            bodiesX[p] = ship.getPositionX();
+            bodiesY[p] = ship.getPositionY();
+            bodyMasses[p] = ship.getMass();
+            bodyIndices[p] = index;
+        }
+        return side;
+    }
+
+    /**
+     * Returns the digit of the curve at the given level in the given key, which selects the quarter of the square at
+     * that level holding the ship with that key.
+     */
+    private static int digitOf(long key, int level){
+        return (int) (key >>> (INDEX_BITS + 2 * (HilbertCurve.ORDER - 1 - level))) & 3;
+    }
+
+    /**
+     * Builds the subtree of the square at the given node, for the given range of ships, into a block of node
+     * indices of its own starting at the index of the square. The quarters of squares holding many ships are built
+     * in parallel, the quarters of other squares by the current thread.
+     */
+    @Model
+    private void build(int node, int start, int end, int level, double side, int next){
+        nodeStarts[node] = start;
+        nodeEnds[node] = end;
+        nodeNexts[node] = next;
+        // skip the squares in which all ships lie in the same quarter
+        while(level < HilbertCurve.ORDER && digitOf(keys[start], level) == digitOf(keys[end - 1], level)){
+            level++;
+            side /= 2;
+        }
+        nodeSides[node] = side;
+        if(end - start <= LEAF_SIZE || level == HilbertCurve.ORDER){
+            buildLeaf(node, start, end);
+            return;
+        }
+        if(end - start > PARALLEL_THRESHOLD){
+            buildQuartersInParallel(node, start, end, level, side, next);
+        }else{
+            int base = node + 1;
+            for(int quarterStart = start; quarterStart < end; ){
+                int quarterEnd = quarterEndOf(quarterStart, end, level);
+                int nextBase = base + 2 * (quarterEnd - quarterStart) - 1;
+                build(base, quarterStart, quarterEnd, level + 1, side / 2, quarterEnd == end ? next : nextBase);
+                base = nextBase;
+                quarterStart = quarterEnd;
+            }
+        }
+        double mass = 0, momentX = 0, momentY = 0;
+        for(int quarter = node + 1; ; quarter += 2 * (nodeEnds[quarter] - nodeStarts[quarter]) - 1){
+            mass += nodeMasses[quarter];
+            momentX += nodeMasses[quarter] * nodesX[quarter];
+            momentY += nodeMasses[quarter] * nodesY[quarter];
+            if(nodeEnds[quarter] == end)
+                break;
+        }
+        setCenterOfMass(node, mass, momentX, momentY);
+        nodeLeaves[node] = false;
+    }
+
+    /**
+     * Builds the subtrees of the quarters of the square at the given node, each by a task of its own.
+     */
+    @Model
+    private void buildQuartersInParallel(int node, int start, int end, int level, double side, int next){
+        BuildTask[] quarters = new BuildTask[4];
+        int nbQuarters = 0;
+        int base = node + 1;
+        for(int quarterStart = start; quarterStart < end; ){
+            int quarterEnd = quarterEndOf(quarterStart, end, level);
+            int nextBase = base + 2 * (quarterEnd - quarterStart) - 1;
+            quarters[nbQuarters++] = new BuildTask(base, quarterStart, quarterEnd, level + 1, side / 2,
+                    quarterEnd == end ? next : nextBase);
+            base = nextBase;
+            quarterStart = quarterEnd;
+        }
+        for(int q = 1; q < nbQuarters; q++)
+            quarters[q].fork();
+        quarters[0].compute();
+        for(int q = nbQuarters - 1; q >= 1; q--)
+            quarters[q].join();
+    }
+
+    /**
+     * Returns the end of the range of ships starting at the given position, and ending at most at the given end,
+     * that lie in the same quarter at the given level.
+     */
+    private int quarterEndOf(int quarterStart, int end, int level){
+        int digit = digitOf(keys[quarterStart], level);
+        int low = quarterStart + 1;
+        int high = end;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(digitOf(keys[middle], level) <= digit)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private void buildLeaf(int node, int start, int end){
+        double mass = 0, momentX = 0, momentY = 0;
+        for(int p = start; p < end; p++){
+            mass += bodyMasses[p];
+            momentX += bodyMasses[p] * bodiesX[p];
+            momentY += bodyMasses[p] * bodiesY[p];
+        }
+        setCenterOfMass(node, mass, momentX, momentY);
+        nodeLeaves[node] = true;
+    }
+
+    private void setCenterOfMass(int node, double mass, double momentX, double momentY){
+        nodeMasses[node] = mass;
+        nodesX[node] = momentX / mass;
+        nodesY[node] = momentY / mass;
+    }
+
+    /**
+     * A class of tasks building the subtree of one square holding many ships.
+     */
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveAction {
+
+        BuildTask(int node, int start, int end, int level, double side, int next){
+            this.node = node;
+            this.start = start;
+            this.end = end;
+            this.level = level;
+            this.side = side;
+            this.next = next;
+        }
+
+        private final int node;
+
+        private final int start;
+
+        private final int end;
+
+        private final int level;
+
+        private final double side;
+
+        private final int next;
+
+        @Override
+        protected void compute(){
+            build(node, start, end, level, side, next);
+        }
+    }
+
+    /**
+     * Computes the accelerations of the ships in the given range, in the order of the curve, by walking the tree
+     * once per ship.
+     */
+    @Model
+    private void computeAccelerations(int start, int end){
+        double openingAngleSquared = openingAngle * openingAngle;
+        for(int p = start; p < end; p++){
+            double x = bodiesX[p];
+            double y = bodiesY[p];
+            double accelerationX = 0, accelerationY = 0;
+            int node = 0;
+            while(node >= 0){
+                double side = nodeSides[node];
+                double deltaX = nodesX[node] - x;
+                double deltaY = nodesY[node] - y;
+                double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+                // a square holding the ship itself is always opened, so a ship never attracts itself
+                boolean holdsShip = nodeStarts[node] <= p && p < nodeEnds[node];
+                if(!holdsShip && side * side < openingAngleSquared * distanceSquared){
+                    double factor = attraction(nodeMasses[node], distanceSquared);
+                    accelerationX += factor * deltaX;
+                    accelerationY += factor * deltaY;
+                    node = nodeNexts[node];
+                }else if(nodeLeaves[node]){
+                    for(int q = nodeStarts[node]; q < nodeEnds[node]; q++){
+                        if(q == p)
+                            continue;
+                        double bodyDeltaX = bodiesX[q] - x;
+                        double bodyDeltaY = bodiesY[q] - y;
+                        double factor = attraction(bodyMasses[q],
+                                bodyDeltaX * bodyDeltaX + bodyDeltaY * bodyDeltaY);
+                        accelerationX += factor * bodyDeltaX;
+                        accelerationY += factor * bodyDeltaY;
+                    }
+                    node = nodeNexts[node];
+                }else{
+                    node++;
+                }
+            }
+            accelerationsX[bodyIndices[p]] = accelerationX;
+            accelerationsY[bodyIndices[p]] = accelerationY;
+        }
+    }
+
+    /**
+     * Returns the acceleration per unit of displacement towards a mass at the given squared distance.
+     */
+    private double attraction(double mass, double distanceSquared){
+        double softened = distanceSquared + SOFTENING * SOFTENING;
+        return gravitationalConstant * mass / (softened * Math.sqrt(softened));
+    }
+
+    /**
+     * A class of tasks computing the accelerations of a range of many ships.
+     */
+    @SuppressWarnings("serial")
+    private final class ForceTask extends RecursiveAction {
+
+        ForceTask(int start, int end){
+            this.start = start;
+            this.end = end;
+        }
+
+        private final int start;
+
+        private final int end;
+
+        @Override
+        protected void compute(){
+            if(end - start > PARALLEL_THRESHOLD){
+                int middle = (start + end) >>> 1;
+                invokeAll(new ForceTask(start, middle), new ForceTask(middle, end));
+            }else{
+                computeAccelerations(start, end);
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of tables mapping integer handles to dense indices.
+ *
+ * The elements of a table with n elements occupy the indices 0 up to n - 1. A handle combines the slot of an
+ * element with a generation counter, so a handle of a removed element is never mistaken for a handle of an element
+ * that reuses its slot later on. The owner of a table stores the elements themselves in arrays indexed by dense
+ * index, and moves the last element into the freed index whenever an element is removed.
+ *
+ * @invar   The size of a table is never greater than the number of slots in use.
+ *          | getSize() <= getNbSlots()
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+class HandleTable {
+
+    /**
+     * Initializes a new empty table with room for the given number of elements.
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is negative or exceeds the maximum size.
+     *          | capacity < 0 || capacity > MAXIMUM_SIZE
+     */
+    HandleTable(int capacity) throws IllegalArgumentException{
+        if(capacity < 0 || capacity > MAXIMUM_SIZE)
+            throw new IllegalArgumentException();
+        this.denseToSlot = new int[capacity];
+        this.slotToDense = new int[capacity];
+        this.generations = new int[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    /**
+     * Constant registering the number of bits of a handle used for the slot of an element.
+     */
+    private static final int SLOT_BITS = 24;
+
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+
+    /**
+     * Constant registering the mask applied to the generation of a slot when it wraps around.
+     */
+    private static final int GENERATION_MASK = 0x7F;
+
+    /**
+     * Constant registering the maximum number of elements of a table.
+     */
+    static final int MAXIMUM_SIZE = 1 << SLOT_BITS;
+
+    /**
+     * Constant registering a handle that never refers to an element.
+     */
+    static final int NO_HANDLE = -1;
+
+    /**
+     * Array registering, for each dense index, the slot of the element at that index.
+     */
+    private int[] denseToSlot;
+
+    /**
+     * Array registering, for each slot, the dense index of its element or -1 if the slot is free.
+     */
+    private int[] slotToDense;
+
+    /**
+     * Array registering the current generation of each slot.
+     */
+    private int[] generations;
+
+    /**
+     * Stack registering the slots that were freed and can be reused.
+     */
+    private int[] freeSlots;
+
+    private int nbFreeSlots;
+
+    private int nbSlots;
+
+    private int size;
+
+    /**
+     * Returns the number of elements in this table.
+     */
+    @Basic
+    int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the number of slots this table has handed out, including freed slots.
+     */
+    @Basic
+    int getNbSlots(){
+        return nbSlots;
+    }
+
+    /**
+     * Returns the slot encoded in the given handle.
+     */
+    static int slotOf(int handle){
+        return handle & SLOT_MASK;
+    }
+
+    /**
+     * Returns the handle for the given slot with its current generation.
+     */
+    @Model
+    private int handleOf(int slot){
+        return (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Returns true if and only if the given handle refers to an element of this table.
+     */
+    boolean isValid(int handle){
+        if(handle < 0)
+            return false;
+        int slot = slotOf(handle);
+        return slot < nbSlots && slotToDense[slot] >= 0 && handleOf(slot) == handle;
+    }
+
+    /**
+     * Returns the dense index of the element with the given handle.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to an element of this table.
+     *          | !isValid(handle)
+     */
+    int indexOf(int handle) throws IllegalArgumentException{
+        if(!isValid(handle))
+            throw new IllegalArgumentException("Not an existing ship!");
+        return slotToDense[slotOf(handle)];
+    }
+
+    /**
+     * Returns the handle of the element at the given dense index.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to an element.
+     *          | index < 0 || index >= getSize()
+     */
+    int handleAt(int index) throws IndexOutOfBoundsException{
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("No ship at index " + index);
+        return handleOf(denseToSlot[index]);
+    }
+
+    /**
+     * Adds a new element at the last dense index and returns its handle.
+     *
+     * @post    The new element is at the last dense index.
+     *          | new.indexOf(result) == getSize()
+     *
+     * @throws  IllegalArgumentException
+     *          The table is full.
+     *          | getSize() == MAXIMUM_SIZE
+     */
+    int add() throws IllegalArgumentException{
+        int slot;
+        if(nbFreeSlots > 0){
+            slot = freeSlots[--nbFreeSlots];
+        }else{
+            if(nbSlots == MAXIMUM_SIZE)
+                throw new IllegalArgumentException("The table is full!");
+            slot = nbSlots++;
+            ensureCapacity(nbSlots);
+        }
+        int index = size++;
+        denseToSlot[index] = slot;
+        slotToDense[slot] = index;
+        return handleOf(slot);
+    }
+
+    /**
+     * Removes the element with the given handle and returns its former dense index.
+     * The element at the last dense index takes the place of the removed element.
+     *
+     * @post    The handle no longer refers to an element.
+     *          | !new.isValid(handle)
+     *
+     * @post    The element formerly at the last index is now at the returned index.
+     *          | new.handleAt(result) == handleAt(getSize() - 1) || result == getSize() - 1
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to an element of this table.
+     *          | !isValid(handle)
+     */
+    int remove(int handle) throws IllegalArgumentException{
+        int index = indexOf(handle);
+        int slot = slotOf(handle);
+        int last = --size;
+        if(index != last){
+            denseToSlot[index] = denseToSlot[last];
+            slotToDense[denseToSlot[index]] = index;
+        }
+        slotToDense[slot] = -1;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        freeSlots[nbFreeSlots++] = slot;
+        return index;
+    }
+
+    /**
+     * Moves the elements of this table to new dense indices: the element at the given position in the given order
+     * moves to that position. The handles of the elements do not change.
+     *
+     * @pre     The first getSize() entries of the given order are the dense indices of this table, each once.
+     *
+     * @post    The element formerly at order[index] is now at index.
+     *          | for each index in 0..getSize()-1:
+     *          |   new.handleAt(index) == handleAt(order[index])
+     */
+    void permute(int[] order){
+        if(spareDenseToSlot.length < denseToSlot.length)
+            spareDenseToSlot = new int[denseToSlot.length];
+        for(int index = 0; index < size; index++){
+            int slot = denseToSlot[order[index]];
+            spareDenseToSlot[index] = slot;
+            slotToDense[slot] = index;
+        }
+        int[] swap = denseToSlot;
+        denseToSlot = spareDenseToSlot;
+        spareDenseToSlot = swap;
+    }
+
+    /**
+     * Array to which the slots are copied in their new order while the elements are permuted, kept so that
+     * permuting does not allocate.
+     */
+    private int[] spareDenseToSlot = new int[0];
+
+    /**
+     * Grows the arrays of this table so they can hold at least the given number of slots.
+     */
+    void ensureCapacity(int capacity){
+        if(capacity <= slotToDense.length)
+            return;
+        int newCapacity = grownCapacity(slotToDense.length, capacity);
+        denseToSlot = Arrays.copyOf(denseToSlot, newCapacity);
+        slotToDense = Arrays.copyOf(slotToDense, newCapacity);
+        generations = Arrays.copyOf(generations, newCapacity);
+        freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+    }
+
+    /**
+     * Returns the capacity an array of the given length grows to when it has to hold at least the given number
+     * of elements.
+     */
+    static int grownCapacity(int length, int capacity){
+        return (int) Math.min(MAXIMUM_SIZE, Math.max(capacity, 2L * length));
+    }
+}
@@ -0,0 +1,137 @@
+package asteroids.model;
+
+/**
+ * A class of helpers ordering ships along a Hilbert curve through a square enclosing their positions.
+ *
+ * Points that are close along a Hilbert curve are close in the plane, and points close in the plane are mostly
+ * close along the curve. Storing ships in the order of the curve thus puts neighbouring ships next to each other in
+ * memory, so passes over the ships of a region or over a contiguous chunk of the ships touch few cache lines.
+ *
+ * The key of a ship combines its distance along the curve, in the upper bits, with its dense index, in the lower
+ * bits, so sorting the keys yields the new order of the dense indices.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+final class HilbertCurve {
+
+    private HilbertCurve(){
+    }
+
+    /**
+     * Constant registering the number of bits of each coordinate of a cell of the curve.
+     */
+    static final int ORDER = 16;
+
+    private static final int SIDE = 1 << ORDER;
+
+    /**
+     * Constant registering the number of bits of a key used for the dense index.
+     */
+    private static final int INDEX_BITS = 24;
+
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    /**
+     * Constant registering the number of places keys may move in total while sorting by insertion, per key, before
+     * the keys are considered too far out of order and are sorted from scratch.
+     */
+    private static final int NB_MOVES_PER_KEY = 8;
+
+    /**
+     * Returns the distance along the curve of the cell with the given coordinates, which lie between zero and
+     * 2^ORDER - 1.
+     */
+    static long distanceOf(int x, int y){
+        long distance = 0;
+        for(int s = SIDE >>> 1; s > 0; s >>>= 1){
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            distance += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant so the curve within it starts and ends at the right corners
+            if(ry == 0){
+                if(rx == 1){
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the key of the ship at the given dense index and position, within the square with the given lower
+     * corner and side. Positions outside the square are moved onto its border.
+     */
+    static long keyOf(int index, double x, double y, double minimumX, double minimumY, double side){
+        return distanceOf(cellOf(x, minimumX, side), cellOf(y, minimumY, side)) << INDEX_BITS | index;
+    }
+
+    /**
+     * Returns the dense index encoded in the given key.
+     */
+    static int indexOf(long key){
+        return (int) (key & INDEX_MASK);
+    }
+
+    private static int cellOf(double coordinate, double minimum, double side){
+        double cell = (coordinate - minimum) / side * SIDE;
+        // also maps NaN onto the first cell
+        if(!(cell >= 0))
+            return 0;
+        return cell >= SIDE - 1 ? SIDE - 1 : (int) cell;
+    }
+
+    /**
+     * Sorts the first given number of keys in ascending order, without allocating.
+     * Keys that are nearly in order, as they are when the ships were ordered recently, are sorted by insertion in
+     * time linear in the number of keys plus the number of places they move. Once the keys moved too many places,
+     * the remaining keys are sorted from scratch in time n log n.
+     */
+    static void sort(long[] keys, int nbKeys){
+        long budget = (long) NB_MOVES_PER_KEY * nbKeys;
+        for(int a = 1; a < nbKeys; a++){
+            long key = keys[a];
+            int b = a - 1;
+            while(b >= 0 && keys[b] > key){
+                keys[b + 1] = keys[b];
+                b--;
+            }
+            keys[b + 1] = key;
+            budget -= a - 1 - b;
+            if(budget < 0){
+                heapSort(keys, nbKeys);
+                return;
+            }
+        }
+    }
+
+    private static void heapSort(long[] keys, int nbKeys){
+        for(int i = nbKeys / 2 - 1; i >= 0; i--)
+            siftDown(keys, i, nbKeys);
+        for(int end = nbKeys - 1; end > 0; end--){
+            long swap = keys[0];
+            keys[0] = keys[end];
+            keys[end] = swap;
+            siftDown(keys, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int i, int size){
+        long key = keys[i];
+        while(2 * i + 1 < size){
+            int child = 2 * i + 1;
+            if(child + 1 < size && keys[child + 1] > keys[child])
+                child++;
+            if(keys[child] <= key)
+                break;
+            keys[i] = keys[child];
+            i = child;
+        }
+        keys[i] = key;
+    }
+}
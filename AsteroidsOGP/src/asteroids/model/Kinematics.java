@@ -0,0 +1,142 @@
+package asteroids.model;
+
+/**
+ * A class of static methods computing the motion and collisions of circular ships from primitive coordinates.
+ * The results match those of the corresponding methods of the class Ship, without creating vectors.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+final class Kinematics {
+
+    private Kinematics(){
+    }
+
+    /**
+     * Constant registering the speed of light which equals 300 000 km/s.
+     */
+    static final double SPEED_OF_LIGHT = 300000;
+
+    /**
+     * Constant registering the minimum radius of all ships.
+     */
+    static final double MINIMUM_RADIUS = 10;
+
+    /**
+     * Returns true if and only if the given radius is larger than the minimum radius and not NaN.
+     */
+    static boolean isValidRadius(double radius){
+        return radius >= MINIMUM_RADIUS && !Double.isNaN(radius);
+    }
+
+    /**
+     * Returns true if and only if the given angle is between 0 and 2 * PI.
+     */
+    static boolean isValidAngle(double angle){
+        return angle < 2 * Math.PI && 0 <= angle;
+    }
+
+    /**
+     * Returns the given maximum velocity, limited to the interval between zero and the speed of light.
+     *
+     * | if(0 <= velocity <= SPEED_OF_LIGHT) then result == velocity
+     * | else if(velocity > SPEED_OF_LIGHT) then result == SPEED_OF_LIGHT
+     * | else result == 0
+     */
+    static double toValidMaximumVelocity(double velocity){
+        if(velocity <= SPEED_OF_LIGHT && 0 <= velocity)
+            return velocity;
+        else if(velocity > SPEED_OF_LIGHT)
+            return SPEED_OF_LIGHT;
+        else
+            return 0;
+    }
+
+    /**
+     * Returns the factor by which a velocity of the given components has to be scaled so that its size does not
+     * exceed the given maximum velocity. The direction of the velocity remains unaltered.
+     */
+    static double clampFactor(double velocityX, double velocityY, double maximumVelocity){
+        double lengthSquared = velocityX * velocityX + velocityY * velocityY;
+        if(lengthSquared > maximumVelocity * maximumVelocity)
+            return maximumVelocity / Math.sqrt(lengthSquared);
+        return 1;
+    }
+
+    /**
+     * Returns the heading obtained by turning the given heading by the given angle, modulo 2 * PI.
+     */
+    static double turn(double heading, double angle){
+        return Math.abs((heading + angle) % (2 * Math.PI));
+    }
+
+    /**
+     * Returns the distance between two circles, which is negative if they overlap.
+     */
+    static double distanceBetween(double x1, double y1, double radius1, double x2, double y2, double radius2){
+        double xDifference = x1 - x2;
+        double yDifference = y1 - y2;
+        return Math.sqrt(xDifference * xDifference + yDifference * yDifference) - (radius1 + radius2);
+    }
+
+    /**
+     * Returns the time until two circles moving at constant velocities touch, or Double.POSITIVE_INFINITY if they
+     * never collide. Circles that overlap never collide.
+     */
+    static double timeToCollision(double x1, double y1, double velocityX1, double velocityY1, double radius1,
+                                  double x2, double y2, double velocityX2, double velocityY2, double radius2){
+        double deltaVX = velocityX2 - velocityX1;
+        double deltaVY = velocityY2 - velocityY1;
+        double deltaRX = x2 - x1;
+        double deltaRY = y2 - y1;
+        double sigma = radius1 + radius2;
+        double vr = deltaVX * deltaRX + deltaVY * deltaRY;
+        double vv = deltaVX * deltaVX + deltaVY * deltaVY;
+        double rr = deltaRX * deltaRX + deltaRY * deltaRY;
+        double d = vr * vr - vv * (rr - sigma * sigma);
+        if(vr >= 0 || d <= 0 || Math.sqrt(rr) - sigma < 0)
+            return Double.POSITIVE_INFINITY;
+        return -(vr + Math.sqrt(d)) / vv;
+    }
+
+    /**
+     * Stores the point where the hull of the first circle touches the second circle in the given array,
+     * if the circles will collide.
+     *
+     * @return  True if and only if the circles will collide.
+     */
+    static boolean collisionPosition(double x1, double y1, double velocityX1, double velocityY1, double radius1,
+                                     double x2, double y2, double velocityX2, double velocityY2, double radius2,
+                                     double[] result){
+        double deltaT = timeToCollision(x1, y1, velocityX1, velocityY1, radius1,
+                x2, y2, velocityX2, velocityY2, radius2);
+        if(deltaT == Double.POSITIVE_INFINITY)
+            return false;
+        double newX1 = x1 + deltaT * velocityX1;
+        double newY1 = y1 + deltaT * velocityY1;
+        double pointingX = x2 + deltaT * velocityX2 - newX1;
+        double pointingY = y2 + deltaT * velocityY2 - newY1;
+        double length = Math.sqrt(pointingX * pointingX + pointingY * pointingY);
+        if(length > 0){
+            pointingX /= length;
+            pointingY /= length;
+        }
+        result[0] = newX1 + pointingX * radius1;
+        result[1] = newY1 + pointingY * radius1;
+        return true;
+    }
+
+    /**
+     * Returns the time until a circle moving along an axis at the given velocity touches one of the walls at zero
+     * and at the given size, or Double.POSITIVE_INFINITY if it does not move. A circle already beyond the wall it
+     * moves to touches that wall immediately.
+     */
+    static double timeToWall(double position, double velocity, double radius, double size){
+        if(velocity < 0)
+            return Math.max(0, (position - radius) / -velocity);
+        if(velocity > 0)
+            return Math.max(0, (size - radius - position) / velocity);
+        return Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,438 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * A class storing the state of many ships outside of the Java heap.
+ *
+ * Every attribute of the ships (position, velocity, heading, radius and maximum velocity) is kept in its own direct
+ * buffer, indexed by the dense index of the ship. The heap only holds the buffer objects and the handle table, so
+ * the garbage collector has next to nothing to trace, however many ships are stored. Ships are referred to by
+ * handles, in the same way as in a ShipRegistry, and the operations on them follow the rules of the class Ship.
+ *
+ * The memory of a storage is released when the storage itself is garbage collected.
+ *
+ * @invar   The number of ships never exceeds the capacity.
+ *          | getNbShips() <= getCapacity()
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class OffHeapShipStorage {
+
+    /**
+     * Initializes a new empty storage with room for the given number of ships.
+     *
+     * @param   capacity
+     *          The number of ships the storage can hold before growing.
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is negative or exceeds the maximum number of ships.
+     *          | capacity < 0 || capacity > MAXIMUM_NB_SHIPS
+     */
+    public OffHeapShipStorage(int capacity) throws IllegalArgumentException{
+        this.handles = new HandleTable(Math.min(capacity, INITIAL_TABLE_CAPACITY));
+        allocate(capacity);
+    }
+
+    /**
+     * Constant registering the maximum number of ships a storage can hold.
+     */
+    public static final int MAXIMUM_NB_SHIPS = HandleTable.MAXIMUM_SIZE;
+
+    private static final int INITIAL_TABLE_CAPACITY = 1024;
+
+    private final HandleTable handles;
+
+    private DoubleBuffer positionsX;
+
+    private DoubleBuffer positionsY;
+
+    private DoubleBuffer velocitiesX;
+
+    private DoubleBuffer velocitiesY;
+
+    private DoubleBuffer headings;
+
+    private DoubleBuffer radii;
+
+    private DoubleBuffer maximumVelocities;
+
+    private int capacity;
+
+    /**
+     * Returns the number of ships this storage can hold before growing.
+     */
+    @Basic
+    public int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * Returns the number of ships in this storage.
+     */
+    @Basic
+    public int getNbShips(){
+        return handles.getSize();
+    }
+
+    /**
+     * Replaces the buffers of this storage by buffers with the given capacity, keeping the stored ships.
+     */
+    @Model
+    private void allocate(int capacity){
+        if(capacity < 0 || capacity > MAXIMUM_NB_SHIPS)
+            throw new IllegalArgumentException();
+        int nbShips = getNbShips();
+        positionsX = copyOf(positionsX, nbShips, capacity);
+        positionsY = copyOf(positionsY, nbShips, capacity);
+        velocitiesX = copyOf(velocitiesX, nbShips, capacity);
+        velocitiesY = copyOf(velocitiesY, nbShips, capacity);
+        headings = copyOf(headings, nbShips, capacity);
+        radii = copyOf(radii, nbShips, capacity);
+        maximumVelocities = copyOf(maximumVelocities, nbShips, capacity);
+        this.capacity = capacity;
+    }
+
+    private static DoubleBuffer copyOf(DoubleBuffer buffer, int length, int capacity){
+        DoubleBuffer result = ByteBuffer.allocateDirect(capacity * Double.BYTES)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        for(int i = 0; i < length; i++)
+            result.put(i, buffer.get(i));
+        return result;
+    }
+
+    // Handles
+    /**
+     * Returns true if and only if the given handle refers to a ship in this storage.
+     */
+    public boolean isValidHandle(int handle){
+        return handles.isValid(handle);
+    }
+
+    /**
+     * Returns the dense index of the ship with the given handle.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this storage.
+     *          | !isValidHandle(handle)
+     */
+    public int getIndexOf(int handle) throws IllegalArgumentException{
+        return handles.indexOf(handle);
+    }
+
+    /**
+     * Returns the handle of the ship at the given dense index.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public int getHandleAt(int index) throws IndexOutOfBoundsException{
+        return handles.handleAt(index);
+    }
+
+    /**
+     * Adds a new ship with the given position, velocity, radius and heading and returns its handle.
+     * The maximum velocity of the new ship is the speed of light.
+     *
+     * @pre     The heading is a valid angle.
+     *          | Kinematics.isValidAngle(heading)
+     *
+     * @throws  IllegalArgumentException
+     *          The position is not a number or the radius is invalid.
+     *          | Double.isNaN(x) || Double.isNaN(y) || !Kinematics.isValidRadius(radius)
+     */
+    public int add(double x, double y, double velocityX, double velocityY, double radius, double heading)
+            throws IllegalArgumentException{
+        if(Double.isNaN(x) || Double.isNaN(y) || !Kinematics.isValidRadius(radius))
+            throw new IllegalArgumentException();
+        assert Kinematics.isValidAngle(heading);
+        if(getNbShips() == capacity)
+            allocate(HandleTable.grownCapacity(capacity, capacity + 1));
+        int handle = handles.add();
+        int index = getNbShips() - 1;
+        positionsX.put(index, x);
+        positionsY.put(index, y);
+        headings.put(index, heading);
+        radii.put(index, radius);
+        maximumVelocities.put(index, Kinematics.SPEED_OF_LIGHT);
+        setVelocity(index, velocityX, velocityY);
+        return handle;
+    }
+
+    /**
+     * Adds a copy of the given ship and returns its handle.
+     *
+     * @throws  IllegalArgumentException
+     *          The ship does not exist.
+     *          | ship == null
+     */
+    public int add(Ship ship) throws IllegalArgumentException{
+        if(ship == null)
+            throw new IllegalArgumentException("Not an existing ship!");
+        Vector position = ship.getPosition();
+        Vector velocity = ship.getVelocity();
+        int handle = add(position.getX(), position.getY(), velocity.getX(), velocity.getY(),
+                ship.getRadius(), ship.getHeading());
+        maximumVelocities.put(getNbShips() - 1, ship.getMaximumVelocity());
+        return handle;
+    }
+
+    /**
+     * Removes the ship with the given handle. The last ship takes the dense index of the removed ship.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this storage.
+     *          | !isValidHandle(handle)
+     */
+    public void remove(int handle) throws IllegalArgumentException{
+        int index = handles.remove(handle);
+        int last = getNbShips();
+        if(index != last){
+            positionsX.put(index, positionsX.get(last));
+            positionsY.put(index, positionsY.get(last));
+            velocitiesX.put(index, velocitiesX.get(last));
+            velocitiesY.put(index, velocitiesY.get(last));
+            headings.put(index, headings.get(last));
+            radii.put(index, radii.get(last));
+            maximumVelocities.put(index, maximumVelocities.get(last));
+        }
+    }
+
+    // Order
+    /**
+     * Moves the ships of this storage to new dense indices, in the order of a Hilbert curve through the square
+     * enclosing their positions, so ships that are close in space are mostly close in memory. Handles keep referring
+     * to the same ships. Reordering ships that were reordered recently takes time linear in the number of ships.
+     */
+    public void reorderShips(){
+        int nbShips = getNbShips();
+        if(nbShips < 2)
+            return;
+        double minimumX = Double.POSITIVE_INFINITY, maximumX = Double.NEGATIVE_INFINITY;
+        double minimumY = Double.POSITIVE_INFINITY, maximumY = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < nbShips; i++){
+            minimumX = Math.min(minimumX, positionsX.get(i));
+            maximumX = Math.max(maximumX, positionsX.get(i));
+            minimumY = Math.min(minimumY, positionsY.get(i));
+            maximumY = Math.max(maximumY, positionsY.get(i));
+        }
+        double side = Math.max(maximumX - minimumX, maximumY - minimumY);
+        if(keys.length < nbShips){
+            keys = new long[nbShips];
+            order = new int[nbShips];
+        }
+        for(int i = 0; i < nbShips; i++)
+            keys[i] = HilbertCurve.keyOf(i, positionsX.get(i), positionsY.get(i), minimumX, minimumY, side);
+        HilbertCurve.sort(keys, nbShips);
+        for(int i = 0; i < nbShips; i++)
+            order[i] = HilbertCurve.indexOf(keys[i]);
+        if(spare == null || spare.capacity() < capacity)
+            spare = copyOf(null, 0, capacity);
+        positionsX = permuted(positionsX, nbShips);
+        positionsY = permuted(positionsY, nbShips);
+        velocitiesX = permuted(velocitiesX, nbShips);
+        velocitiesY = permuted(velocitiesY, nbShips);
+        headings = permuted(headings, nbShips);
+        radii = permuted(radii, nbShips);
+        maximumVelocities = permuted(maximumVelocities, nbShips);
+        handles.permute(order);
+    }
+
+    /**
+     * Variables registering the keys and the new order of the ships while they are reordered, and the buffer into
+     * which an attribute is permuted, kept so that reordering again does not allocate.
+     */
+    private long[] keys = new long[0];
+
+    private int[] order = new int[0];
+
+    private DoubleBuffer spare;
+
+    /**
+     * Returns the spare buffer filled with the given buffer in the new order, and keeps the given buffer as the
+     * spare buffer.
+     */
+    private DoubleBuffer permuted(DoubleBuffer buffer, int nbShips){
+        DoubleBuffer result = spare;
+        for(int i = 0; i < nbShips; i++)
+            result.put(i, buffer.get(order[i]));
+        spare = buffer;
+        return result;
+    }
+
+    // Attributes, by dense index
+    /**
+     * Returns the position along the x-axis of the ship at the given index.
+     */
+    public double getPositionX(int index){
+        return positionsX.get(index);
+    }
+
+    /**
+     * Returns the position along the y-axis of the ship at the given index.
+     */
+    public double getPositionY(int index){
+        return positionsY.get(index);
+    }
+
+    /**
+     * Returns the velocity along the x-axis of the ship at the given index.
+     */
+    public double getVelocityX(int index){
+        return velocitiesX.get(index);
+    }
+
+    /**
+     * Returns the velocity along the y-axis of the ship at the given index.
+     */
+    public double getVelocityY(int index){
+        return velocitiesY.get(index);
+    }
+
+    /**
+     * Returns the heading of the ship at the given index.
+     */
+    public double getHeading(int index){
+        return headings.get(index);
+    }
+
+    /**
+     * Returns the radius of the ship at the given index.
+     */
+    public double getRadius(int index){
+        return radii.get(index);
+    }
+
+    /**
+     * Returns the maximum velocity of the ship at the given index.
+     */
+    public double getMaximumVelocity(int index){
+        return maximumVelocities.get(index);
+    }
+
+    /**
+     * Sets the maximum velocity of the ship at the given index, limited to the interval between zero and the
+     * speed of light.
+     */
+    public void setMaximumVelocity(int index, double velocity){
+        maximumVelocities.put(index, Kinematics.toValidMaximumVelocity(velocity));
+    }
+
+    /**
+     * Sets the velocity of the ship at the given index. If its size exceeds the maximum velocity of the ship,
+     * it is scaled down to the maximum velocity.
+     */
+    @Model
+    private void setVelocity(int index, double velocityX, double velocityY){
+        double factor = Kinematics.clampFactor(velocityX, velocityY, maximumVelocities.get(index));
+        velocitiesX.put(index, velocityX * factor);
+        velocitiesY.put(index, velocityY * factor);
+    }
+
+    // Motion
+    /**
+     * Moves the ship at the given index by its velocity * time difference.
+     *
+     * @throws  IllegalArgumentException
+     *          The time difference is negative.
+     *          | !(timeDifference >= 0)
+     */
+    public void move(int index, double timeDifference) throws IllegalArgumentException{
+        if(!(timeDifference >= 0))
+            throw new IllegalArgumentException();
+        positionsX.put(index, positionsX.get(index) + velocitiesX.get(index) * timeDifference);
+        positionsY.put(index, positionsY.get(index) + velocitiesY.get(index) * timeDifference);
+    }
+
+    /**
+     * Moves every ship by its velocity * time difference.
+     *
+     * @throws  IllegalArgumentException
+     *          The time difference is negative.
+     *          | !(timeDifference >= 0)
+     */
+    public void moveAll(double timeDifference) throws IllegalArgumentException{
+        if(!(timeDifference >= 0))
+            throw new IllegalArgumentException();
+        int nbShips = getNbShips();
+        for(int i = 0; i < nbShips; i++){
+            positionsX.put(i, positionsX.get(i) + velocitiesX.get(i) * timeDifference);
+            positionsY.put(i, positionsY.get(i) + velocitiesY.get(i) * timeDifference);
+        }
+    }
+
+    /**
+     * Increases the velocity of the ship at the given index by the given amount in the direction of its heading.
+     * A negative amount leaves the velocity unchanged.
+     */
+    public void thrust(int index, double amount){
+        if(amount < 0)
+            amount = 0;
+        double heading = headings.get(index);
+        setVelocity(index, velocitiesX.get(index) + amount * Math.cos(heading),
+                velocitiesY.get(index) + amount * Math.sin(heading));
+    }
+
+    /**
+     * Turns the ship at the given index by the given angle, modulo 2 * PI.
+     */
+    public void turn(int index, double angle){
+        double newAngle = Kinematics.turn(headings.get(index), angle);
+        assert Kinematics.isValidAngle(newAngle);
+        headings.put(index, newAngle);
+    }
+
+    // Collision detection
+    /**
+     * Returns the distance between the ships at the given indices. The distance between a ship and itself is zero.
+     */
+    public double getDistanceBetween(int index1, int index2){
+        if(index1 == index2)
+            return 0;
+        return Kinematics.distanceBetween(positionsX.get(index1), positionsY.get(index1), radii.get(index1),
+                positionsX.get(index2), positionsY.get(index2), radii.get(index2));
+    }
+
+    /**
+     * Returns true if and only if the ships at the given indices overlap. A ship always overlaps with itself.
+     */
+    public boolean overlap(int index1, int index2){
+        return index1 == index2 || getDistanceBetween(index1, index2) < 0;
+    }
+
+    /**
+     * Returns the time until the ships at the given indices collide, or Double.POSITIVE_INFINITY if they never
+     * collide.
+     */
+    public double getTimeToCollision(int index1, int index2){
+        if(index1 == index2)
+            return Double.POSITIVE_INFINITY;
+        return Kinematics.timeToCollision(
+                positionsX.get(index1), positionsY.get(index1), velocitiesX.get(index1), velocitiesY.get(index1),
+                radii.get(index1),
+                positionsX.get(index2), positionsY.get(index2), velocitiesX.get(index2), velocitiesY.get(index2),
+                radii.get(index2));
+    }
+
+    /**
+     * Stores the position where the ships at the given indices collide in the given array of length 2.
+     *
+     * @return  True if and only if the ships will collide.
+     */
+    public boolean getCollisionPosition(int index1, int index2, double[] result){
+        if(index1 == index2)
+            return false;
+        return Kinematics.collisionPosition(
+                positionsX.get(index1), positionsY.get(index1), velocitiesX.get(index1), velocitiesY.get(index1),
+                radii.get(index1),
+                positionsX.get(index2), positionsY.get(index2), velocitiesX.get(index2), velocitiesY.get(index2),
+                radii.get(index2), result);
+    }
+}
@@ -0,0 +1,127 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of growable lists of pairs of ship indices, each with a value, stored in primitive arrays.
+ *
+ * @invar   The first index of each pair is smaller than its second index.
+ *          | for each k in 0..getSize()-1:
+ *          |   getFirst(k) < getSecond(k)
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class PairList {
+
+    /**
+     * Initializes a new empty list of pairs.
+     */
+    public PairList(){
+        this(16);
+    }
+
+    /**
+     * Initializes a new empty list of pairs with room for the given number of pairs.
+     */
+    PairList(int capacity){
+        this.firsts = new int[capacity];
+        this.seconds = new int[capacity];
+        this.values = new double[capacity];
+    }
+
+    private int[] firsts;
+
+    private int[] seconds;
+
+    private double[] values;
+
+    private int size;
+
+    /**
+     * Returns the number of pairs in this list.
+     */
+    @Basic
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the first ship index of the pair at the given position.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          | k < 0 || k >= getSize()
+     */
+    public int getFirst(int k) throws IndexOutOfBoundsException{
+        checkIndex(k);
+        return firsts[k];
+    }
+
+    /**
+     * Returns the second ship index of the pair at the given position.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          | k < 0 || k >= getSize()
+     */
+    public int getSecond(int k) throws IndexOutOfBoundsException{
+        checkIndex(k);
+        return seconds[k];
+    }
+
+    /**
+     * Returns the value of the pair at the given position.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          | k < 0 || k >= getSize()
+     */
+    public double getValue(int k) throws IndexOutOfBoundsException{
+        checkIndex(k);
+        return values[k];
+    }
+
+    private void checkIndex(int k){
+        if(k < 0 || k >= size)
+            throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * Appends the given pair with the given value.
+     */
+    void add(int first, int second, double value){
+        if(size == firsts.length)
+            grow(size + 1);
+        firsts[size] = first;
+        seconds[size] = second;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Appends all pairs of the given list, in order.
+     */
+    void addAll(PairList other){
+        if(size + other.size > firsts.length)
+            grow(size + other.size);
+        System.arraycopy(other.firsts, 0, firsts, size, other.size);
+        System.arraycopy(other.seconds, 0, seconds, size, other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Removes all pairs from this list, keeping its capacity.
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    private void grow(int capacity){
+        int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, 2L * firsts.length));
+        firsts = Arrays.copyOf(firsts, newCapacity);
+        seconds = Arrays.copyOf(seconds, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
@@ -0,0 +1,511 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of pools holding the projectiles fired by the ships of a world.
+ *
+ * Projectiles are circles flying in straight lines at constant velocity until they hit a ship other than the ship
+ * that fired them, until their lifetime runs out or, in a world with walls, until they touch a wall. They are
+ * kinetic, like ships: each projectile registers its position at the moment it was fired together with its velocity,
+ * so advancing the clock of the world takes constant time regardless of the number of projectiles.
+ *
+ * The attributes of the projectiles are stored in one primitive array per attribute, indexed by dense index, and
+ * projectiles are referred to by handles in the same way as ships. Removing a projectile moves the last projectile
+ * into its index and frees its slot for the next projectile, so firing and removing projectiles creates no objects
+ * once the arrays have grown to the number of projectiles in flight.
+ *
+ * Hits are only detected while the world evolves. The boxes swept by the ships during a step are sorted along the
+ * x-axis once, and every projectile is checked against the ships whose box overlaps its own, using the same circle
+ * math as the ships among themselves.
+ *
+ * @invar   The number of projectiles never exceeds the maximum number of projectiles.
+ *          | getNbProjectiles() <= MAXIMUM_NB_PROJECTILES
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class ProjectilePool {
+
+    /**
+     * Initializes a new empty pool of projectiles flying through the given world.
+     */
+    ProjectilePool(World world){
+        this.world = world;
+    }
+
+    /**
+     * Constant registering the maximum number of projectiles of a pool.
+     */
+    public static final int MAXIMUM_NB_PROJECTILES = HandleTable.MAXIMUM_SIZE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Variable registering the world through which the projectiles of this pool fly.
+     */
+    private final World world;
+
+    /**
+     * Variable registering the table mapping the handles of the projectiles to their dense indices.
+     */
+    private final HandleTable handles = new HandleTable(INITIAL_CAPACITY);
+
+    /**
+     * Arrays registering the attributes of the projectiles, by dense index: their position at the moment they were
+     * fired, that moment, their velocity, their radius, the moment at which they expire and the ship that fired them.
+     */
+    private double[] positionsX = new double[INITIAL_CAPACITY];
+
+    private double[] positionsY = new double[INITIAL_CAPACITY];
+
+    private double[] launchTimes = new double[INITIAL_CAPACITY];
+
+    private double[] velocitiesX = new double[INITIAL_CAPACITY];
+
+    private double[] velocitiesY = new double[INITIAL_CAPACITY];
+
+    private double[] radii = new double[INITIAL_CAPACITY];
+
+    private double[] expiryTimes = new double[INITIAL_CAPACITY];
+
+    private Ship[] owners = new Ship[INITIAL_CAPACITY];
+
+    /**
+     * Returns the number of projectiles in this pool.
+     */
+    @Basic
+    public int getNbProjectiles(){
+        return handles.getSize();
+    }
+
+    /**
+     * Returns true if and only if the given handle refers to a projectile in this pool.
+     */
+    public boolean isValidHandle(int handle){
+        return handles.isValid(handle);
+    }
+
+    /**
+     * Returns the dense index of the projectile with the given handle.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a projectile of this pool.
+     *          | !isValidHandle(handle)
+     */
+    public int getIndexOf(int handle) throws IllegalArgumentException{
+        return handles.indexOf(handle);
+    }
+
+    /**
+     * Returns the handle of the projectile at the given dense index.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a projectile.
+     *          | index < 0 || index >= getNbProjectiles()
+     */
+    public int getHandleAt(int index) throws IndexOutOfBoundsException{
+        return handles.handleAt(index);
+    }
+
+    // Firing and removing
+    /**
+     * Fires a new projectile with the given speed, radius and lifetime from the given ship, and returns its handle.
+     * The projectile starts just outside the hull of the ship in the direction of its heading, and moves at the
+     * velocity of the ship increased by the given speed in that direction, limited to the speed of light.
+     *
+     * @param   ship
+     *          The ship firing the projectile.
+     *
+     * @param   speed
+     *          The speed of the projectile relative to the ship.
+     *
+     * @param   radius
+     *          The radius of the projectile.
+     *
+     * @param   lifetime
+     *          The time after which the projectile disappears if it hit no ship.
+     *
+     * @throws  IllegalArgumentException
+     *          The ship does not belong to the world of this pool, the speed is negative, the radius or the lifetime
+     *          is not positive, one of them is not finite, or the pool is full.
+     *          | ship == null || ship.getWorld() != world || !(0 <= speed && speed < Double.POSITIVE_INFINITY)
+     *          | || !(0 < radius && radius < Double.POSITIVE_INFINITY)
+     *          | || !(0 < lifetime && lifetime < Double.POSITIVE_INFINITY)
+     *          | || getNbProjectiles() == MAXIMUM_NB_PROJECTILES
+     */
+    public int fire(Ship ship, double speed, double radius, double lifetime) throws IllegalArgumentException{
+        if(ship == null || ship.getWorld() != world || !(0 <= speed && speed < Double.POSITIVE_INFINITY)
+                || !(0 < radius && radius < Double.POSITIVE_INFINITY)
+                || !(0 < lifetime && lifetime < Double.POSITIVE_INFINITY))
+            throw new IllegalArgumentException();
+        double directionX = Math.cos(ship.getHeading());
+        double directionY = Math.sin(ship.getHeading());
+        double distance = ship.getRadius() + radius;
+        double velocityX = ship.getVelocityX() + speed * directionX;
+        double velocityY = ship.getVelocityY() + speed * directionY;
+        double factor = Kinematics.clampFactor(velocityX, velocityY, Kinematics.SPEED_OF_LIGHT);
+        int handle = handles.add();
+        int index = handles.getSize() - 1;
+        if(index == positionsX.length)
+            grow(index + 1);
+        double now = world.getTime();
+        positionsX[index] = ship.getPositionX() + distance * directionX;
+        positionsY[index] = ship.getPositionY() + distance * directionY;
+        launchTimes[index] = now;
+        velocitiesX[index] = velocityX * factor;
+        velocitiesY[index] = velocityY * factor;
+        radii[index] = radius;
+        expiryTimes[index] = now + lifetime;
+        owners[index] = ship;
+        return handle;
+    }
+
+    /**
+     * Removes the projectile with the given handle from this pool.
+     *
+     * @post    The handle no longer refers to a projectile.
+     *          | !new.isValidHandle(handle)
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a projectile of this pool.
+     *          | !isValidHandle(handle)
+     */
+    public void remove(int handle) throws IllegalArgumentException{
+        removeAt(handles.indexOf(handle), handle);
+    }
+
+    /**
+     * Removes the projectile with the given handle at the given dense index, moving the last projectile into that
+     * index.
+     */
+    @Model
+    private void removeAt(int index, int handle){
+        handles.remove(handle);
+        int last = handles.getSize();
+        positionsX[index] = positionsX[last];
+        positionsY[index] = positionsY[last];
+        launchTimes[index] = launchTimes[last];
+        velocitiesX[index] = velocitiesX[last];
+        velocitiesY[index] = velocitiesY[last];
+        radii[index] = radii[last];
+        expiryTimes[index] = expiryTimes[last];
+        owners[index] = owners[last];
+        owners[last] = null;
+    }
+
+    /**
+     * Grows the arrays of the projectiles so they can hold at least the given number of projectiles.
+     */
+    @Model
+    private void grow(int capacity){
+        int newCapacity = HandleTable.grownCapacity(positionsX.length, capacity);
+        positionsX = Arrays.copyOf(positionsX, newCapacity);
+        positionsY = Arrays.copyOf(positionsY, newCapacity);
+        launchTimes = Arrays.copyOf(launchTimes, newCapacity);
+        velocitiesX = Arrays.copyOf(velocitiesX, newCapacity);
+        velocitiesY = Arrays.copyOf(velocitiesY, newCapacity);
+        radii = Arrays.copyOf(radii, newCapacity);
+        expiryTimes = Arrays.copyOf(expiryTimes, newCapacity);
+        owners = Arrays.copyOf(owners, newCapacity);
+    }
+
+    // Attributes, by dense index
+    /**
+     * Returns the position along the x-axis of the projectile at the given index.
+     */
+    public double getPositionX(int index){
+        return world.wrap(positionsX[index] + velocitiesX[index] * (world.getTime() - launchTimes[index]),
+                world.getWidth());
+    }
+
+    /**
+     * Returns the position along the y-axis of the projectile at the given index.
+     */
+    public double getPositionY(int index){
+        return world.wrap(positionsY[index] + velocitiesY[index] * (world.getTime() - launchTimes[index]),
+                world.getHeight());
+    }
+
+    /**
+     * Returns the velocity along the x-axis of the projectile at the given index.
+     */
+    public double getVelocityX(int index){
+        return velocitiesX[index];
+    }
+
+    /**
+     * Returns the velocity along the y-axis of the projectile at the given index.
+     */
+    public double getVelocityY(int index){
+        return velocitiesY[index];
+    }
+
+    /**
+     * Returns the radius of the projectile at the given index.
+     */
+    public double getRadius(int index){
+        return radii[index];
+    }
+
+    /**
+     * Returns the time the projectile at the given index has left before it disappears, which is zero for a
+     * projectile that expired since the world last evolved.
+     */
+    public double getTimeLeft(int index){
+        return Math.max(0, expiryTimes[index] - world.getTime());
+    }
+
+    /**
+     * Returns the ship that fired the projectile at the given index.
+     */
+    public Ship getOwner(int index){
+        return owners[index];
+    }
+
+    // Hits
+    /**
+     * Variables registering the handles of the ships hit while the world last evolved, and the moments at which
+     * they were hit.
+     */
+    private int[] hitShips = new int[INITIAL_CAPACITY];
+
+    private double[] hitTimes = new double[INITIAL_CAPACITY];
+
+    private int nbHits;
+
+    /**
+     * Returns the number of hits of a ship by a projectile while the world last evolved.
+     */
+    @Basic
+    public int getNbHits(){
+        return nbHits;
+    }
+
+    /**
+     * Returns the handle of the ship hit by the k-th hit while the world last evolved.
+     * The hits are registered in no particular order.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          | k < 0 || k >= getNbHits()
+     */
+    public int getHitShip(int k) throws IndexOutOfBoundsException{
+        if(k < 0 || k >= nbHits)
+            throw new IndexOutOfBoundsException();
+        return hitShips[k];
+    }
+
+    /**
+     * Returns the moment of the k-th hit while the world last evolved.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          | k < 0 || k >= getNbHits()
+     */
+    public double getHitTime(int k) throws IndexOutOfBoundsException{
+        if(k < 0 || k >= nbHits)
+            throw new IndexOutOfBoundsException();
+        return hitTimes[k];
+    }
+
+    /**
+     * Variables registering the box swept by each ship during the step, by dense index, and the dense indices of the
+     * ships in order of the lower bound of their box along the x-axis. As for the collisions between ships, the
+     * order of the previous step is the starting point of the next.
+     */
+    private double[] minimaX = new double[0];
+
+    private double[] maximaX = new double[0];
+
+    private double[] minimaY = new double[0];
+
+    private double[] maximaY = new double[0];
+
+    private int[] order = new int[0];
+
+    private double maximumWidth;
+
+    /**
+     * Removes the projectiles that hit a ship, touch a wall or expire during a step of the given duration from the current time
+     * of the world, along the current trajectories of the ships, and registers the hits.
+     * A projectile hits at most one ship: the first one it touches.
+     *
+     * @return  The number of hits.
+     */
+    int update(double duration){
+        nbHits = 0;
+        int nbProjectiles = getNbProjectiles();
+        if(nbProjectiles == 0)
+            return 0;
+        double now = world.getTime();
+        int nbShips = world.getNbShips();
+        sweepShips(nbShips, duration);
+        boolean toroidal = world.getBoundaryMode() == BoundaryMode.TOROIDAL;
+        double width = world.getWidth();
+        double height = world.getHeight();
+        // projectiles are removed from the back, so the projectile moved into a freed index was examined already
+        for(int i = nbProjectiles - 1; i >= 0; i--){
+            double x = getPositionX(i);
+            double y = getPositionY(i);
+            double radius = radii[i];
+            double window = Math.min(duration, expiryTimes[i] - now);
+            // projectiles do not bounce off walls, they disappear when they touch one
+            if(world.getBoundaryMode() == BoundaryMode.REFLECTIVE)
+                window = Math.min(window, Math.min(Kinematics.timeToWall(x, velocitiesX[i], radius, width),
+                        Kinematics.timeToWall(y, velocitiesY[i], radius, height)));
+            if(window < 0){
+                removeAt(i, handles.handleAt(i));
+                continue;
+            }
+            double endX = x + velocitiesX[i] * window;
+            double endY = y + velocitiesY[i] * window;
+            double minimumX = Math.min(x, endX) - radius;
+            double maximumX = Math.max(x, endX) + radius;
+            double minimumY = Math.min(y, endY) - radius;
+            double maximumY = Math.max(y, endY) + radius;
+            double firstTime = Double.POSITIVE_INFINITY;
+            int firstShip = -1;
+            for(int shift = toroidal ? -1 : 0; shift <= (toroidal ? 1 : 0); shift++){
+                // shifts the box of the projectile to the images of the ships beyond the seams, if any
+                double offset = shift == 0 ? 0 : shift * width;
+                int b = lowerBound(minimumX + offset - maximumWidth, nbShips);
+                for(; b < nbShips && minimaX[order[b]] <= maximumX + offset; b++){
+                    int j = order[b];
+                    if(maximaX[j] < minimumX + offset
+                            || !overlap(minimumY, maximumY, minimaY[j], maximaY[j], toroidal ? height : 0))
+                        continue;
+                    Ship ship = world.getShipAt(j);
+                    if(ship == owners[i])
+                        continue;
+                    double time = getTimeToHit(i, x, y, ship);
+                    if(time <= window && time < firstTime){
+                        firstTime = time;
+                        firstShip = j;
+                    }
+                }
+            }
+            if(firstShip >= 0){
+                addHit(world.getHandleAt(firstShip), now + firstTime);
+                removeAt(i, handles.handleAt(i));
+            }else if(window < duration){
+                removeAt(i, handles.handleAt(i));
+            }
+        }
+        return nbHits;
+    }
+
+    /**
+     * Returns the time until the projectile at the given index and position touches the given ship. A projectile
+     * that already touches the ship hits it immediately.
+     */
+    @Model
+    private double getTimeToHit(int index, double x, double y, Ship ship){
+        double shipX = x + world.displacement(ship.getPositionX() - x, world.getWidth());
+        double shipY = y + world.displacement(ship.getPositionY() - y, world.getHeight());
+        if(Kinematics.distanceBetween(x, y, radii[index], shipX, shipY, ship.getRadius()) <= 0)
+            return 0;
+        return Kinematics.timeToCollision(x, y, velocitiesX[index], velocitiesY[index], radii[index],
+                shipX, shipY, ship.getVelocityX(), ship.getVelocityY(), ship.getRadius());
+    }
+
+    /**
+     * Computes the boxes swept by the ships of the world during a step of the given duration and sorts them by
+     * their lower bound along the x-axis.
+     */
+    @Model
+    private void sweepShips(int nbShips, double duration){
+        if(minimaX.length < nbShips){
+            int capacity = Math.max(nbShips, 2 * minimaX.length);
+            minimaX = new double[capacity];
+            maximaX = new double[capacity];
+            minimaY = new double[capacity];
+            maximaY = new double[capacity];
+        }
+        if(order.length != nbShips){
+            order = new int[nbShips];
+            for(int i = 0; i < nbShips; i++)
+                order[i] = i;
+        }
+        maximumWidth = 0;
+        for(int i = 0; i < nbShips; i++){
+            Ship ship = world.getShipAt(i);
+            double x = ship.getPositionX();
+            double y = ship.getPositionY();
+            double endX = x + ship.getVelocityX() * duration;
+            double endY = y + ship.getVelocityY() * duration;
+            double radius = ship.getRadius();
+            minimaX[i] = Math.min(x, endX) - radius;
+            maximaX[i] = Math.max(x, endX) + radius;
+            minimaY[i] = Math.min(y, endY) - radius;
+            maximaY[i] = Math.max(y, endY) + radius;
+            maximumWidth = Math.max(maximumWidth, maximaX[i] - minimaX[i]);
+        }
+        for(int a = 1; a < nbShips; a++){
+            int i = order[a];
+            double minimumX = minimaX[i];
+            int b = a - 1;
+            while(b >= 0 && minimaX[order[b]] > minimumX){
+                order[b + 1] = order[b];
+                b--;
+            }
+            order[b + 1] = i;
+        }
+    }
+
+    /**
+     * Returns the first position in the order whose box has a lower bound along the x-axis of at least the given
+     * value.
+     */
+    @Model
+    private int lowerBound(double value, int nbShips){
+        int low = 0;
+        int high = nbShips;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(minimaX[order[middle]] < value)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns true if and only if the given intervals overlap, possibly after shifting the second by the given
+     * period in either direction. A period of zero means the intervals are not periodic.
+     */
+    private static boolean overlap(double minimum1, double maximum1, double minimum2, double maximum2,
+                                   double period){
+        if(minimum2 <= maximum1 && minimum1 <= maximum2)
+            return true;
+        return period > 0 && ((minimum2 + period <= maximum1 && minimum1 <= maximum2 + period)
+                || (minimum2 - period <= maximum1 && minimum1 <= maximum2 - period));
+    }
+
+    /**
+     * Registers a hit of the ship with the given handle at the given moment.
+     */
+    @Model
+    private void addHit(int ship, double time){
+        if(nbHits == hitShips.length){
+            hitShips = Arrays.copyOf(hitShips, 2 * nbHits);
+            hitTimes = Arrays.copyOf(hitTimes, 2 * nbHits);
+        }
+        hitShips[nbHits] = ship;
+        hitTimes[nbHits] = time;
+        nbHits++;
+    }
+
+    /**
+     * Registers that the ships of the world moved to new dense indices: the ship at index i now has index
+     * newIndices[i].
+     */
+    void renumber(int[] newIndices, int nbShips){
+        if(order.length != nbShips)
+            return;
+        for(int a = 0; a < nbShips; a++)
+            order[a] = newIndices[order[a]];
+    }
+}
@@ -87,7 +87,7 @@ public class Ship {
                 if(Double.isNaN(x) ||  Double.isNaN(y))
                     throw new IllegalArgumentException();
                 else
-                    setPosition(new Vector(x, y));
+                    setPosition(x, y);
 
                 if(isValidRadius(radius)){
                     this.radius = radius;
@@ -95,7 +95,7 @@ public class Ship {
                     throw new IllegalArgumentException();
                 }
                 this.setMaximumVelocity(speedOfLight);
-                this.setVelocity(new Vector(velocityX,velocityY));
+                this.setVelocity(velocityX, velocityY);
                 this.setHeading(heading);
     }
 
@@ -119,38 +119,176 @@ public class Ship {
      */
     public Ship(){
 
-        this.setPosition(new Vector());
+        this.setPosition(0, 0);
         this.radius = minimumRadius;
         this.setMaximumVelocity(this.speedOfLight);
-        this.setVelocity(new Vector());
+        this.setVelocity(0, 0);
         this.setHeading(0);
 
     }
 
     //Position:
-    private Vector position;
+    /**
+     * Variables registering the position of the ship at the reference time.
+     */
+    private double positionX;
+
+    private double positionY;
 
     /**
-     * Changes the current position vector to a new position vector.
+     * Variable registering the time of the world clock at which the ship was at its reference position.
+     * Only relevant if the ship belongs to a world.
+     */
+    private double positionTime;
+
+    /**
+     * Changes the current position to a new position.
+     *
+     * @param   x
+     *          The new position along the x-axis.
      *
-     * @param   newPosition
-     *          The new position vector.
+     * @param   y
+     *          The new position along the y-axis.
      *
      * @post    The position is set to the new position.
-     *          |new.getPosition == newPosition
+     *          |new.getPosition().getX() == x && new.getPosition().getY() == y
      */
 
     @Model
-    private void setPosition(Vector newPosition){
-        this.position = newPosition;
+    private void setPosition(double x, double y){
+        this.positionX = x;
+        this.positionY = y;
+        this.positionTime = getCurrentTime();
     }
 
     /**
      * Returns the position vector of the ship.
+     * If the ship belongs to a world, the position is derived from the position at the reference time and the
+     * velocity of the ship, since the ship moves at a constant velocity until its trajectory changes. In a world
+     * that wraps around, the position is wrapped into the world.
+     *
+     * | if (getWorld() == null) then
+     * |    result == new Vector(positionX, positionY)
+     * | else
+     * |    result == new Vector(positionX, positionY)
+     * |                .sum(getVelocity().resizeVector(getWorld().getTime() - positionTime))
      */
-    @Basic
     public Vector getPosition(){
-        return position;
+        return new Vector(getPositionX(), getPositionY());
+    }
+
+    /**
+     * Returns the current position of the ship along the x-axis.
+     *
+     * | result == getPosition().getX()
+     */
+    public double getPositionX(){
+        double x = getUnwrappedPositionX();
+        return world == null ? x : world.wrap(x, world.getWidth());
+    }
+
+    /**
+     * Returns the current position of the ship along the y-axis.
+     *
+     * | result == getPosition().getY()
+     */
+    public double getPositionY(){
+        double y = getUnwrappedPositionY();
+        return world == null ? y : world.wrap(y, world.getHeight());
+    }
+
+    /**
+     * Returns the current position of the ship along the x-axis as if its world did not wrap around, i.e. followed
+     * continuously since the ship joined its world.
+     *
+     * | result == positionX + velocityX * (getWorld().getTime() - positionTime)
+     */
+    @Model
+    private double getUnwrappedPositionX(){
+        return positionX + velocityX * (getCurrentTime() - positionTime);
+    }
+
+    /**
+     * Returns the current position of the ship along the y-axis as if its world did not wrap around, i.e. followed
+     * continuously since the ship joined its world.
+     *
+     * | result == positionY + velocityY * (getWorld().getTime() - positionTime)
+     */
+    @Model
+    private double getUnwrappedPositionY(){
+        return positionY + velocityY * (getCurrentTime() - positionTime);
+    }
+
+    /**
+     * Variable registering the version of the trajectory of this ship.
+     */
+    private long trajectoryVersion;
+
+    /**
+     * Returns the version of the trajectory of this ship.
+     * The version increases whenever the ship is moved or its velocity, heading, maximum velocity or world changes,
+     * so a prediction between two ships remains valid for as long as the versions of both ships are unchanged.
+     */
+    @Basic
+    public long getTrajectoryVersion(){
+        return trajectoryVersion;
+    }
+
+    /**
+     * Registers that the trajectory of this ship changed.
+     *
+     * @post    The trajectory version of the ship has increased.
+     *          | new.getTrajectoryVersion() > getTrajectoryVersion()
+     */
+    @Model
+    private void changeTrajectory(){
+        trajectoryVersion++;
+        if(world != null)
+            world.changeState();
+    }
+
+    /**
+     * Returns the position along the x-axis at which the ship would have been at time zero of the clock of its world,
+     * had it always moved along its current trajectory, without wrapping around its world.
+     *
+     * | result == positionX - velocityX * positionTime
+     */
+    @Model
+    double getInterceptX(){
+        return positionX - velocityX * positionTime;
+    }
+
+    /**
+     * Returns the position along the y-axis at which the ship would have been at time zero of the clock of its world,
+     * had it always moved along its current trajectory, without wrapping around its world.
+     *
+     * | result == positionY - velocityY * positionTime
+     */
+    @Model
+    double getInterceptY(){
+        return positionY - velocityY * positionTime;
+    }
+
+    /**
+     * Makes the current position the reference position of the ship.
+     * This has to happen before the velocity of the ship changes. The reference position is not wrapped around the
+     * world, so the position at time zero along the trajectory of the ship stays the same.
+     *
+     * @post    The position of the ship is unchanged.
+     *          | new.getPosition() == getPosition()
+     */
+    @Model
+    private void synchronizePosition(){
+        if(getCurrentTime() != positionTime)
+            setPosition(getUnwrappedPositionX(), getUnwrappedPositionY());
+    }
+
+    /**
+     * Returns the time of the clock of the world of this ship, or zero if the ship does not belong to a world.
+     */
+    @Model
+    private double getCurrentTime(){
+        return world == null ? 0 : world.getTime();
     }
 
     //Move
@@ -166,7 +304,13 @@ public class Ship {
      */
     public void move(double timeDifference) throws IllegalArgumentException{
         if(isValidTimeDifference(timeDifference)){
-            setPosition(this.getPosition().sum(getVelocity().resizeVector(timeDifference)));
+            if(world != null)
+                world.getAggregates().remove(this);
+            setPosition(getUnwrappedPositionX() + velocityX * timeDifference,
+                    getUnwrappedPositionY() + velocityY * timeDifference);
+            changeTrajectory();
+            if(world != null)
+                world.getAggregates().add(this);
         }else{
             throw new IllegalArgumentException();
         }
@@ -187,7 +331,7 @@ public class Ship {
     /**
      * Constant registering the speed of light which equals 300 000 km/s.
      */
-    private final double speedOfLight = 300000;
+    private final double speedOfLight = Kinematics.SPEED_OF_LIGHT;
 
     private final double speedOfLightSquared = speedOfLight*speedOfLight;
 
@@ -235,9 +379,11 @@ public class Ship {
      *          |   this.maximumVelocity = 0
      *          |   this.maximumVelocitySquared = 0
      *          Thus the square of the maximum velocity changes accordingly.
+     *          The version of the trajectory of the ship only increases if the maximum velocity changes.
      */
 
     public void setMaximumVelocity(double velocity){
+        double oldMaximumVelocity = this.maximumVelocity;
         if(velocity <= speedOfLight && 0 <= velocity) {
             this.maximumVelocity = velocity;
             this.maximumVelocitySquared = velocity * velocity;
@@ -248,39 +394,71 @@ public class Ship {
             this.maximumVelocity = 0;
             this.maximumVelocitySquared = 0;
         }
+        // setting the maximum it already has changes nothing a cached prediction or an idle world depends on
+        if(this.maximumVelocity != oldMaximumVelocity)
+            changeTrajectory();
     }
 
     /**
-     * Returns the velocity vector.
+     * Variables registering the components of the velocity of this ship.
      */
-    private Vector velocity;
+    private double velocityX;
+
+    private double velocityY;
 
     /**
      * The new velocity is set at the given velocity.
      *
-     * @param   velocity
-     *          The new velocity vector.
+     * @param   velocityX
+     *          The new velocity along the x-axis.
+     *
+     * @param   velocityY
+     *          The new velocity along the y-axis.
      *
      * @post    If the square of the new total velocity does not exceed the square of the maximum velocity,
      *          the new velocity is equal the the given velocity.
-     *          | new.getVelocityX() == velocity
+     *          | new.getVelocity().getX() == velocityX && new.getVelocity().getY() == velocityY
      *          If the square of the new total velocity does exceed the square of the maximum velocity,
      *          the new total velocity is set at the maximum velocity, but the new direction of the velocity remains unaltered.
      *
      */
-
-    @Model
-    private void setVelocity(Vector velocity){
-        this.velocity = velocity.vectorLengthSquared() > this.getMaximumVelocitySquared()
-                ? velocity.normalize().resizeVector(maximumVelocity) :  velocity;
+    void setVelocity(double velocityX, double velocityY){
+        if(world != null)
+            world.getAggregates().remove(this);
+        synchronizePosition();
+        if(velocityX * velocityX + velocityY * velocityY > this.getMaximumVelocitySquared()){
+            double factor = Kinematics.clampFactor(velocityX, velocityY, maximumVelocity);
+            velocityX *= factor;
+            velocityY *= factor;
+        }
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        changeTrajectory();
+        if(world != null)
+            world.getAggregates().add(this);
     }
 
     /**
      * Returns the velocity vector.
      */
-    @Basic
     public Vector getVelocity(){
-        return this.velocity;
+        return new Vector(this.velocityX, this.velocityY);
+    }
+
+    /**
+     * Returns the velocity of the ship along the x-axis.
+     */
+    @Basic
+    public double getVelocityX(){
+        return this.velocityX;
+    }
+
+    /**
+     * Returns the velocity of the ship along the y-axis.
+     */
+    @Basic
+    public double getVelocityY(){
+        return this.velocityY;
     }
 
     /**
@@ -298,13 +476,9 @@ public class Ship {
         if (addedVelocitySize < 0) {
             addedVelocitySize = 0;
         }
-        Vector addedVelocity = new Vector(addedVelocitySize * Math.cos(this.getHeading()),
-                addedVelocitySize * Math.sin(this.getHeading()));
-        Vector newVelocity = this.velocity.sum(addedVelocity);
-        this.setVelocity(newVelocity);
-
-
-        }
+        this.setVelocity(this.velocityX + addedVelocitySize * Math.cos(this.getHeading()),
+                this.velocityY + addedVelocitySize * Math.sin(this.getHeading()));
+    }
 
     // Heading
 
@@ -363,13 +537,22 @@ public class Ship {
         double newAngle = Math.abs((this.getHeading() + angle) % (2 * Math.PI));
         assert isValidAngle(newAngle);
         this.setHeading(newAngle);
+        changeTrajectory();
     }
 
     //Radius
     /**
      * Variable registering the minimum radius of all ships.
      */
-    private static double minimumRadius = 10;
+    private static double minimumRadius = Kinematics.MINIMUM_RADIUS;
+
+    /**
+     * Returns the minimum radius of all ships.
+     */
+    @Basic
+    public static double getMinimumRadius(){
+        return minimumRadius;
+    }
 
     /**
      * Variable registering the radius of this ship.
@@ -395,6 +578,57 @@ public class Ship {
         return (radius >= minimumRadius && ! Double.isNaN(radius));
     }
 
+    // Mass
+    /**
+     * Constant registering the density of all ships.
+     */
+    private static final double density = 1.42E12;
+
+    /**
+     * Returns the mass of the ship, which is that of a sphere with the radius of the ship and a uniform density.
+     *
+     * | result == 4.0 / 3.0 * Math.PI * Math.pow(getRadius(), 3) * density
+     */
+    @Immutable
+    public double getMass(){
+        return 4.0 / 3.0 * Math.PI * radius * radius * radius * density;
+    }
+
+    // World
+    /**
+     * Variable registering the world this ship belongs to.
+     */
+    private World world;
+
+    /**
+     * Returns the world this ship belongs to, or null if the ship does not belong to a world.
+     */
+    @Basic
+    public World getWorld(){
+        return this.world;
+    }
+
+    /**
+     * Sets the world of this ship to the given world.
+     * From then on the ship moves along with the clock of the given world.
+     *
+     * @param   world
+     *          The new world of the ship, or null if the ship leaves its world.
+     *
+     * @post    The position of the ship is unchanged.
+     *          | new.getPosition() == getPosition()
+     *
+     * @post    The world of the ship is the given world.
+     *          | new.getWorld() == world
+     */
+    void setWorld(World world){
+        double x = getPositionX();
+        double y = getPositionY();
+        this.world = world;
+        setPosition(x, y);
+        changeTrajectory();
+    }
+
     // Collision detection
     /**
      * Returns the distance between two ships.
@@ -414,10 +648,8 @@ public class Ship {
                 return 0;
             }
             else {
-                double xDifference = (this.getPosition().getX() - other.getPosition().getX());
-                double yDifference = (this.getPosition().getY() - other.getPosition().getY());
-                double radiusSum = this.getRadius() + other.getRadius();
-                return Math.sqrt(xDifference * xDifference + yDifference * yDifference) - radiusSum;
+                return Kinematics.distanceBetween(this.getPositionX(), this.getPositionY(), this.getRadius(),
+                        getImageX(other), getImageY(other), other.getRadius());
             }
         }else{
             throw new IllegalArgumentException("Not an existing ship!");
@@ -454,13 +686,7 @@ public class Ship {
      *          | other == null
      */
     public boolean willCollide(Ship other) throws NullPointerException{
-
-            Vector deltaV = this.deltaV(other);
-            Vector deltaR = this.deltaR(other);
-            double sigma = this.sigma(other);
-            double d = d(deltaV, deltaR, sigma);
-
-            return  !(deltaV.scalarProduct(deltaR) >= 0 || d <= 0 || this.overlap(other));
+            return this.getTimeToCollision(other) != Double.POSITIVE_INFINITY;
     }
 
 
@@ -479,17 +705,13 @@ public class Ship {
      */
 
     public double getTimeToCollision(Ship other) throws NullPointerException{
-            Vector deltaV = this.deltaV(other);
-            Vector deltaR = this.deltaR(other);
-            double sigma = this.sigma(other);
-            double d = this.d(deltaV, deltaR, sigma);
-            double timeToCollision = -(deltaV.scalarProduct(deltaR) + Math.sqrt(d)) / deltaV.scalarProduct(deltaV);
-
-            if (this.willCollide(other)) {
-                return timeToCollision;
-            } else {
+            if (this == other) {
                 return Double.POSITIVE_INFINITY;
             }
+            return Kinematics.timeToCollision(
+                    this.getPositionX(), this.getPositionY(), this.getVelocityX(), this.getVelocityY(), this.getRadius(),
+                    getImageX(other), getImageY(other), other.getVelocityX(), other.getVelocityY(),
+                    other.getRadius());
     }
 
     /**
@@ -509,53 +731,78 @@ public class Ship {
      */
 
     public Vector getCollisionPosition(Ship other) throws NullPointerException {
-
-            if (!this.willCollide(other)) {
+            double[] hullPosition = new double[2];
+            if (this == other || !Kinematics.collisionPosition(
+                    this.getPositionX(), this.getPositionY(), this.getVelocityX(), this.getVelocityY(), this.getRadius(),
+                    getImageX(other), getImageY(other), other.getVelocityX(), other.getVelocityY(),
+                    other.getRadius(), hullPosition)) {
                 return null;
-            } else {
-                double deltaT = getTimeToCollision(other);
-
-                double newThisCoordX = this.getPosition().getX() + deltaT * this.getVelocity().getX();
-                double newThisCoordY = this.getPosition().getY() + deltaT * this.getVelocity().getY();
-                Vector newPositionThis = new Vector(newThisCoordX, newThisCoordY);
-
-                double newOtherCoordX = other.getPosition().getX() + deltaT * other.getVelocity().getX();
-                double newOtherCoordY = other.getPosition().getY() + deltaT * other.getVelocity().getY();
-                Vector newPositionOther = new Vector(newOtherCoordX, newOtherCoordY);
-
-                Vector pointingVector = newPositionOther.sum(newPositionThis.resizeVector(-1)).normalize();
-                Vector hullPosition = newPositionThis.sum(pointingVector.resizeVector(this.getRadius()));
-
-                return hullPosition;
             }
+            if (world != null)
+                return new Vector(world.wrap(hullPosition[0], world.getWidth()),
+                        world.wrap(hullPosition[1], world.getHeight()));
+            return new Vector(hullPosition[0], hullPosition[1]);
     }
 
     /**
-     * Returns the vectorial difference of the velocity vectors of two ships.
-     */
-    private Vector deltaV(Ship other){
-        return other.getVelocity().sum(this.getVelocity().resizeVector(-1));
+     * Stores the time of the clock of the world of this ship at which this ship and the other ship collide, followed
+     * by the position where the hull of this ship hits the other ship, in the given array of length 3.
+     *
+     * @return  True if and only if the ships will collide.
+     *          | result == willCollide(other)
+     */
+    boolean predictCollision(Ship other, double[] result){
+        if(this == other || !Kinematics.collisionPosition(
+                this.getPositionX(), this.getPositionY(), this.getVelocityX(), this.getVelocityY(), this.getRadius(),
+                getImageX(other), getImageY(other), other.getVelocityX(), other.getVelocityY(),
+                other.getRadius(), result))
+            return false;
+        result[2] = result[1];
+        result[1] = result[0];
+        result[0] = getCurrentTime() + getTimeToCollision(other);
+        if(world != null){
+            result[1] = world.wrap(result[1], world.getWidth());
+            result[2] = world.wrap(result[2], world.getHeight());
+        }
+        return true;
     }
 
     /**
-     * Returns the vectorial difference of the centers of the two ships.
+     * Returns the position along the x-axis of the image of the other ship closest to this ship.
+     * In a world that wraps around, ships near opposite sides of the world are close to each other; in all other
+     * cases the image is the other ship itself.
      */
-    private Vector deltaR(Ship other){
-        return other.getPosition().sum(this.getPosition().resizeVector(-1));
+    @Model
+    private double getImageX(Ship other){
+        if(world == null || other.world != world)
+            return other.getPositionX();
+        double x = getPositionX();
+        return x + world.displacement(other.getPositionX() - x, world.getWidth());
     }
 
     /**
-     * Returns the sum of the radii of the ships.
+     * Returns the position along the y-axis of the image of the other ship closest to this ship.
      */
-    private double sigma(Ship other){
-        return this.getRadius() + other.getRadius();
+    @Model
+    private double getImageY(Ship other){
+        if(world == null || other.world != world)
+            return other.getPositionY();
+        double y = getPositionY();
+        return y + world.displacement(other.getPositionY() - y, world.getHeight());
     }
 
     /**
-     * Returns the constant d, which was defined in the assignment.
+     * Returns the time until the ship hits a wall of its world, or Double.POSITIVE_INFINITY if its world has no
+     * walls or the ship does not move. A ship that is already beyond a wall and moves away from the world hits that
+     * wall immediately.
+     *
+     * | if (getWorld() == null || getWorld().getBoundaryMode() != BoundaryMode.REFLECTIVE) then
+     * |    result == Double.POSITIVE_INFINITY
      */
-    private double d(Vector deltaV, Vector deltaR, double sigma){
-        return deltaV.scalarProduct(deltaR) * deltaV.scalarProduct(deltaR)
-                - deltaV.scalarProduct(deltaV) * (deltaR.scalarProduct(deltaR) - sigma * sigma);
+    public double getTimeToWallCollision(){
+        if(world == null || world.getBoundaryMode() != BoundaryMode.REFLECTIVE)
+            return Double.POSITIVE_INFINITY;
+        return Math.min(Kinematics.timeToWall(getPositionX(), velocityX, radius, world.getWidth()),
+                Kinematics.timeToWall(getPositionY(), velocityY, radius, world.getHeight()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of registries handing out integer handles for ships.
+ *
+ * Registered ships are stored densely: the ships of a registry with n ships occupy the indices 0 up to n - 1,
+ * in a stable order that only changes when a ship is removed. Handles stay valid until their ship is removed.
+ * A handle combines the slot of the ship with a generation counter, so a handle of a removed ship is never
+ * mistaken for a handle of a ship that reuses its slot later on.
+ *
+ * @invar   The number of ships is never greater than the number of slots in use.
+ *          | getNbShips() <= getNbSlots()
+ *
+ * @invar   Each index below the number of ships refers to a ship with a valid handle.
+ *          | for each index in 0..getNbShips()-1:
+ *          |   isValidHandle(getHandleAt(index)) && getShip(getHandleAt(index)) == getShipAt(index)
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class ShipRegistry {
+
+    /**
+     * Initializes a new empty registry.
+     *
+     * @post    The new registry contains no ships.
+     *          | new.getNbShips() == 0
+     */
+    public ShipRegistry(){
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Initializes a new empty registry with room for the given number of ships.
+     *
+     * @param   capacity
+     *          The number of ships the registry can hold before growing.
+     *
+     * @post    The new registry contains no ships.
+     *          | new.getNbShips() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is negative or exceeds the maximum number of ships.
+     *          | capacity < 0 || capacity > MAXIMUM_NB_SHIPS
+     */
+    public ShipRegistry(int capacity) throws IllegalArgumentException{
+        this.handles = new HandleTable(capacity);
+        this.ships = new Ship[capacity];
+    }
+
+    /**
+     * Constant registering the maximum number of ships a registry can hold.
+     */
+    public static final int MAXIMUM_NB_SHIPS = HandleTable.MAXIMUM_SIZE;
+
+    /**
+     * Constant registering a handle that never refers to a ship.
+     */
+    public static final int NO_HANDLE = HandleTable.NO_HANDLE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Variable registering the table mapping the handles of this registry to dense indices.
+     */
+    private final HandleTable handles;
+
+    /**
+     * Array registering the ships of this registry, in dense order.
+     */
+    private Ship[] ships;
+
+    /**
+     * Returns true if and only if the given handle refers to a ship in this registry.
+     *
+     * @param   handle
+     *          The handle to check.
+     */
+    public boolean isValidHandle(int handle){
+        return handles.isValid(handle);
+    }
+
+    /**
+     * Returns the number of ships in this registry.
+     */
+    @Basic
+    public int getNbShips(){
+        return handles.getSize();
+    }
+
+    /**
+     * Returns the number of slots this registry has handed out, including freed slots.
+     */
+    @Basic
+    public int getNbSlots(){
+        return handles.getNbSlots();
+    }
+
+    /**
+     * Returns the ship at the given dense index.
+     *
+     * @param   index
+     *          The dense index of the ship.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public Ship getShipAt(int index) throws IndexOutOfBoundsException{
+        if(index < 0 || index >= getNbShips())
+            throw new IndexOutOfBoundsException("No ship at index " + index);
+        return ships[index];
+    }
+
+    /**
+     * Returns the handle of the ship at the given dense index.
+     *
+     * @param   index
+     *          The dense index of the ship.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public int getHandleAt(int index) throws IndexOutOfBoundsException{
+        return handles.handleAt(index);
+    }
+
+    /**
+     * Returns the dense index of the ship with the given handle.
+     *
+     * @param   handle
+     *          The handle of the ship.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this registry.
+     *          | !isValidHandle(handle)
+     */
+    public int getIndexOf(int handle) throws IllegalArgumentException{
+        return handles.indexOf(handle);
+    }
+
+    /**
+     * Returns the ship with the given handle.
+     *
+     * @param   handle
+     *          The handle of the ship.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this registry.
+     *          | !isValidHandle(handle)
+     */
+    public Ship getShip(int handle) throws IllegalArgumentException{
+        return ships[handles.indexOf(handle)];
+    }
+
+    /**
+     * Adds the given ship to this registry and returns its new handle.
+     *
+     * @param   ship
+     *          The ship to add.
+     *
+     * @pre     The ship is not yet registered in this registry.
+     *
+     * @post    The ship is stored at the last dense index.
+     *          | new.getShipAt(getNbShips()) == ship
+     *
+     * @post    The number of ships is increased by one.
+     *          | new.getNbShips() == getNbShips() + 1
+     *
+     * @throws  IllegalArgumentException
+     *          The ship does not exist or the registry is full.
+     *          | ship == null || getNbShips() == MAXIMUM_NB_SHIPS
+     */
+    public int add(Ship ship) throws IllegalArgumentException{
+        if(ship == null)
+            throw new IllegalArgumentException("Not an existing ship!");
+        int handle = handles.add();
+        int index = handles.getSize() - 1;
+        if(index == ships.length)
+            ships = Arrays.copyOf(ships, HandleTable.grownCapacity(ships.length, index + 1));
+        ships[index] = ship;
+        return handle;
+    }
+
+    /**
+     * Makes room for at least the given number of ships, so that adding ships up to that number does not grow
+     * this registry again.
+     *
+     * @throws  IllegalArgumentException
+     *          The given number exceeds the maximum number of ships.
+     *          | nbShips > MAXIMUM_NB_SHIPS
+     */
+    public void ensureCapacity(int nbShips) throws IllegalArgumentException{
+        if(nbShips > MAXIMUM_NB_SHIPS)
+            throw new IllegalArgumentException();
+        if(nbShips <= ships.length)
+            return;
+        handles.ensureCapacity(nbShips);
+        ships = Arrays.copyOf(ships, HandleTable.grownCapacity(ships.length, nbShips));
+    }
+
+    /**
+     * Moves the ships of this registry to new dense indices: the ship at the given position in the given order moves
+     * to that position. Handles keep referring to the same ships.
+     *
+     * @param   order
+     *          The former dense indices of the ships, in their new order.
+     *
+     * @pre     The given order contains each dense index of this registry once.
+     *
+     * @post    The ship formerly at order[index] is now at index, with the same handle.
+     *          | for each index in 0..getNbShips()-1:
+     *          |   new.getShipAt(index) == getShipAt(order[index])
+     *          |   && new.getHandleAt(index) == getHandleAt(order[index])
+     *
+     * @throws  IllegalArgumentException
+     *          The given order does not exist or has too few entries.
+     *          | order == null || order.length < getNbShips()
+     */
+    public void reorder(int[] order) throws IllegalArgumentException{
+        if(order == null || order.length < getNbShips())
+            throw new IllegalArgumentException();
+        if(spareShips.length < ships.length)
+            spareShips = new Ship[ships.length];
+        for(int index = 0; index < getNbShips(); index++)
+            spareShips[index] = ships[order[index]];
+        Ship[] swap = ships;
+        ships = spareShips;
+        spareShips = swap;
+        Arrays.fill(spareShips, 0, getNbShips(), null);
+        handles.permute(order);
+    }
+
+    /**
+     * Array to which the ships are copied in their new order while they are reordered, kept so that reordering does
+     * not allocate.
+     */
+    private Ship[] spareShips = new Ship[0];
+
+    /**
+     * Removes the ship with the given handle from this registry.
+     * The last ship takes the dense index of the removed ship.
+     *
+     * @param   handle
+     *          The handle of the ship to remove.
+     *
+     * @post    The handle no longer refers to a ship.
+     *          | !new.isValidHandle(handle)
+     *
+     * @post    The number of ships is decreased by one.
+     *          | new.getNbShips() == getNbShips() - 1
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this registry.
+     *          | !isValidHandle(handle)
+     */
+    public void remove(int handle) throws IllegalArgumentException{
+        int index = handles.remove(handle);
+        int last = handles.getSize();
+        ships[index] = ships[last];
+        ships[last] = null;
+    }
+}
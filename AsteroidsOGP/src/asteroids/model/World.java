@@ -0,0 +1,558 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of worlds containing ships that share a global clock.
+ *
+ * Ships in a world are kinetic: each ship registers its position at some reference time together with its
+ * velocity, and its current position is only computed when it is read or when its trajectory changes.
+ * Advancing the time of a world therefore takes constant time, regardless of the number of ships it contains.
+ *
+ * @invar   The time of a world is never negative.
+ *          | getTime() >= 0
+ *
+ * A world either has no boundaries, or spans a rectangle between the origin and its width and height. The boundaries
+ * of a bounded world are either walls off which ships bounce, or seams along which the world wraps around.
+ *
+ * @invar   Each ship of a world belongs to that world.
+ *          | for each index in 0..getNbShips()-1:
+ *          |   getShipAt(index).getWorld() == this
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class World {
+
+    /**
+     * Initializes a new empty world with its clock at zero.
+     *
+     * @post    The new world contains no ships.
+     *          | new.getNbShips() == 0
+     *
+     * @post    The time of the new world is zero.
+     *          | new.getTime() == 0
+     */
+    public World(){
+        this.width = Double.POSITIVE_INFINITY;
+        this.height = Double.POSITIVE_INFINITY;
+        this.boundaryMode = BoundaryMode.NONE;
+    }
+
+    /**
+     * Initializes a new empty world with the given size and boundaries, and its clock at zero.
+     * The world spans the rectangle between the origin and (width, height).
+     *
+     * @param   width
+     *          The size of the world along the x-axis.
+     *
+     * @param   height
+     *          The size of the world along the y-axis.
+     *
+     * @param   boundaryMode
+     *          The way in which the boundaries of the world affect its ships.
+     *
+     * @post    The new world contains no ships.
+     *          | new.getNbShips() == 0
+     *
+     * @post    The new world has the given size and boundaries.
+     *          | new.getWidth() == width && new.getHeight() == height && new.getBoundaryMode() == boundaryMode
+     *
+     * @throws  IllegalArgumentException
+     *          The size is not positive and finite, or the boundary mode does not exist.
+     *          | !(0 < width && width < Double.POSITIVE_INFINITY && 0 < height && height < Double.POSITIVE_INFINITY)
+     *          | || boundaryMode == null
+     */
+    public World(double width, double height, BoundaryMode boundaryMode) throws IllegalArgumentException{
+        if(!(0 < width && width < Double.POSITIVE_INFINITY && 0 < height && height < Double.POSITIVE_INFINITY)
+                || boundaryMode == null)
+            throw new IllegalArgumentException();
+        this.width = width;
+        this.height = height;
+        this.boundaryMode = boundaryMode;
+    }
+
+    // Boundaries
+    /**
+     * Variables registering the size of the world, which is infinite for worlds without boundaries.
+     */
+    private final double width;
+
+    private final double height;
+
+    /**
+     * Variable registering the way in which the boundaries of the world affect its ships.
+     */
+    private final BoundaryMode boundaryMode;
+
+    /**
+     * Returns the size of the world along the x-axis.
+     */
+    @Basic @Immutable
+    public double getWidth(){
+        return width;
+    }
+
+    /**
+     * Returns the size of the world along the y-axis.
+     */
+    @Basic @Immutable
+    public double getHeight(){
+        return height;
+    }
+
+    /**
+     * Returns the way in which the boundaries of the world affect its ships.
+     */
+    @Basic @Immutable
+    public BoundaryMode getBoundaryMode(){
+        return boundaryMode;
+    }
+
+    /**
+     * Returns the given coordinate wrapped into the interval between zero and the given size if the world wraps
+     * around, and the given coordinate otherwise.
+     */
+    double wrap(double coordinate, double size){
+        if(boundaryMode != BoundaryMode.TOROIDAL)
+            return coordinate;
+        double result = coordinate - size * Math.floor(coordinate / size);
+        return result < size ? result : 0;
+    }
+
+    /**
+     * Returns the shortest displacement equivalent to the given displacement if the world wraps around, and the
+     * given displacement otherwise.
+     */
+    double displacement(double difference, double size){
+        if(boundaryMode != BoundaryMode.TOROIDAL)
+            return difference;
+        return difference - size * Math.floor(difference / size + 0.5);
+    }
+
+    // Time
+    /**
+     * Variable registering the current time of the world clock.
+     */
+    private double time;
+
+    /**
+     * Returns the current time of the world clock.
+     */
+    @Basic
+    public double getTime(){
+        return this.time;
+    }
+
+    /**
+     * Advances the world clock by the given time difference.
+     * Every ship in the world moves along with the clock at its current velocity.
+     *
+     * @param   timeDifference
+     *          The time by which the clock is advanced.
+     *
+     * @post    The time of the world is increased by the given time difference.
+     *          | new.getTime() == getTime() + timeDifference
+     *
+     * @throws  IllegalArgumentException
+     *          The given time difference is negative or not a number.
+     *          | !(timeDifference >= 0)
+     */
+    public void advanceTime(double timeDifference) throws IllegalArgumentException{
+        if(!(timeDifference >= 0))
+            throw new IllegalArgumentException();
+        this.time += timeDifference;
+    }
+
+    /**
+     * Advances the world clock by the given time difference, bouncing the ships that collide on the way.
+     * Colliding ships bounce elastically at the moment they touch, and ships hitting a reflective wall bounce off it.
+     * If this world has a gravitational field, the velocities of the ships first change by their attraction over
+     * the time difference.
+     *
+     * @param   timeDifference
+     *          The time by which the clock is advanced.
+     *
+     * @return  The number of bounces.
+     *
+     * @post    The time of the world is increased by the given time difference.
+     *          | new.getTime() == getTime() + timeDifference
+     *
+     * @throws  IllegalArgumentException
+     *          The given time difference is negative or not a number.
+     *          | !(timeDifference >= 0)
+     */
+    public int evolve(double timeDifference) throws IllegalArgumentException{
+        if(!(timeDifference >= 0))
+            throw new IllegalArgumentException();
+        if(resolver == null)
+            resolver = new CollisionResolver();
+        if(gravity != null)
+            gravity.apply(this, timeDifference);
+        projectiles.update(timeDifference);
+        int nbBounces = resolver.resolve(this, timeDifference);
+        if(reorderInterval > 0 && ++nbStepsSinceReorder >= reorderInterval)
+            reorderShips();
+        return nbBounces;
+    }
+
+    /**
+     * Variable registering the resolver of the collisions in this world, created when the world first evolves.
+     */
+    private CollisionResolver resolver;
+
+    // Order
+    /**
+     * Constant registering the number of evolutions of a world after which its ships are reordered by default.
+     */
+    public static final int DEFAULT_REORDER_INTERVAL = 64;
+
+    /**
+     * Variable registering the number of evolutions of this world after which its ships are reordered, or zero if
+     * they are only reordered on request.
+     */
+    private int reorderInterval = DEFAULT_REORDER_INTERVAL;
+
+    private int nbStepsSinceReorder;
+
+    /**
+     * Returns the number of evolutions of this world after which its ships are reordered, or zero if they are only
+     * reordered on request.
+     */
+    @Basic
+    public int getReorderInterval(){
+        return reorderInterval;
+    }
+
+    /**
+     * Sets the number of evolutions of this world after which its ships are reordered.
+     *
+     * @param   reorderInterval
+     *          The new number of evolutions, or zero to only reorder the ships on request.
+     *
+     * @post    The reorder interval of this world equals the given interval.
+     *          | new.getReorderInterval() == reorderInterval
+     *
+     * @throws  IllegalArgumentException
+     *          The given interval is negative.
+     *          | reorderInterval < 0
+     */
+    public void setReorderInterval(int reorderInterval) throws IllegalArgumentException{
+        if(reorderInterval < 0)
+            throw new IllegalArgumentException();
+        this.reorderInterval = reorderInterval;
+    }
+
+    /**
+     * Variables registering the keys, the new order and the new indices of the ships while they are reordered,
+     * kept so that reordering again does not allocate.
+     */
+    private long[] reorderKeys = new long[0];
+
+    private int[] reorderOrder = new int[0];
+
+    private int[] reorderIndices = new int[0];
+
+    /**
+     * Moves the ships of this world to new indices, in the order of a Hilbert curve through the square enclosing
+     * their positions, so ships that are close in space are mostly close in memory and passes over the ships touch
+     * their neighbours while these are still cached. Handles keep referring to the same ships.
+     * Ships drift little between reorderings, so reordering them again takes time linear in the number of ships.
+     *
+     * @post    The handles of this world refer to the same ships as before.
+     *          | for each index in 0..getNbShips()-1:
+     *          |   new.getShip(getHandleAt(index)) == getShipAt(index)
+     */
+    public void reorderShips(){
+        nbStepsSinceReorder = 0;
+        int nbShips = getNbShips();
+        if(nbShips < 2)
+            return;
+        double minimumX = 0, minimumY = 0, side = Math.max(width, height);
+        if(boundaryMode == BoundaryMode.NONE){
+            minimumX = aggregates.getMinimumX();
+            minimumY = aggregates.getMinimumY();
+            side = Math.max(aggregates.getMaximumX() - minimumX, aggregates.getMaximumY() - minimumY);
+        }
+        if(reorderKeys.length < nbShips){
+            int capacity = Math.max(nbShips, 2 * reorderKeys.length);
+            reorderKeys = new long[capacity];
+            reorderOrder = new int[capacity];
+            reorderIndices = new int[capacity];
+        }
+        for(int i = 0; i < nbShips; i++){
+            Ship ship = getShipAt(i);
+            reorderKeys[i] = HilbertCurve.keyOf(i, ship.getPositionX(), ship.getPositionY(), minimumX, minimumY, side);
+        }
+        HilbertCurve.sort(reorderKeys, nbShips);
+        for(int i = 0; i < nbShips; i++){
+            reorderOrder[i] = HilbertCurve.indexOf(reorderKeys[i]);
+            reorderIndices[reorderOrder[i]] = i;
+        }
+        ships.reorder(reorderOrder);
+        if(resolver != null)
+            resolver.renumber(reorderIndices, nbShips);
+        projectiles.renumber(reorderIndices, nbShips);
+    }
+
+    // Gravity
+    /**
+     * Variable registering the gravitational field in which the ships of this world attract each other, or null if
+     * they do not.
+     */
+    private GravityField gravity;
+
+    /**
+     * Returns the gravitational field in which the ships of this world attract each other, or null if they do not.
+     */
+    @Basic
+    public GravityField getGravity(){
+        return gravity;
+    }
+
+    /**
+     * Sets the gravitational field in which the ships of this world attract each other while it evolves.
+     *
+     * @param   gravity
+     *          The new gravitational field, or null to let the ships move without attracting each other.
+     *
+     * @post    The gravitational field of this world is the given field.
+     *          | new.getGravity() == gravity
+     */
+    public void setGravity(GravityField gravity){
+        this.gravity = gravity;
+    }
+
+    // Projectiles
+    /**
+     * Variable registering the projectiles fired by the ships of this world.
+     */
+    private final ProjectilePool projectiles = new ProjectilePool(this);
+
+    /**
+     * Returns the projectiles fired by the ships of this world. Projectiles move along with the world clock, and
+     * hit ships, touch walls and expire while this world evolves.
+     */
+    @Basic @Immutable
+    public ProjectilePool getProjectiles(){
+        return projectiles;
+    }
+
+    // Aggregates
+    /**
+     * Variable registering the aggregates over the ships of this world.
+     */
+    private final WorldAggregates aggregates = new WorldAggregates(this);
+
+    /**
+     * Returns the aggregates over the ships of this world, which are kept up to date as the ships change.
+     */
+    @Basic @Immutable
+    public WorldAggregates getAggregates(){
+        return aggregates;
+    }
+
+    // State
+    /**
+     * Variable registering the version of the state of this world.
+     */
+    private long stateVersion;
+
+    /**
+     * Variables registering whether all ships of this world were at rest at the state version at which this was
+     * last determined.
+     */
+    private boolean atRest = true;
+
+    private long atRestVersion;
+
+    /**
+     * Returns the version of the state of this world.
+     * The version increases whenever a ship is added to or removed from this world or a ship of this world changes
+     * its trajectory. While the world is at rest, an unchanged version therefore means that no ship changed its
+     * position or heading.
+     */
+    @Basic
+    public long getStateVersion(){
+        return stateVersion;
+    }
+
+    /**
+     * Registers that the state of this world changed.
+     *
+     * @post    The state version of the world has increased.
+     *          | new.getStateVersion() > getStateVersion()
+     */
+    void changeState(){
+        stateVersion++;
+    }
+
+    /**
+     * Returns true if and only if no ship of this world moves.
+     * The answer is only computed again after the state of the world changed.
+     *
+     * | result == for each i in 0..getNbShips()-1:
+     * |     getShipAt(i).getVelocityX() == 0 && getShipAt(i).getVelocityY() == 0
+     */
+    public boolean isAtRest(){
+        if(atRestVersion != stateVersion){
+            atRest = true;
+            for(int i = 0; i < getNbShips() && atRest; i++){
+                Ship ship = getShipAt(i);
+                atRest = ship.getVelocityX() == 0 && ship.getVelocityY() == 0;
+            }
+            atRestVersion = stateVersion;
+        }
+        return atRest;
+    }
+
+    // Ships
+    /**
+     * Variable registering the ships of this world.
+     */
+    private final ShipRegistry ships = new ShipRegistry();
+
+    /**
+     * Returns the number of ships in this world.
+     */
+    public int getNbShips(){
+        return ships.getNbShips();
+    }
+
+    /**
+     * Returns the ship at the given index.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public Ship getShipAt(int index) throws IndexOutOfBoundsException{
+        return ships.getShipAt(index);
+    }
+
+    /**
+     * Returns the handle of the ship at the given index.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          The index does not refer to a ship.
+     *          | index < 0 || index >= getNbShips()
+     */
+    public int getHandleAt(int index) throws IndexOutOfBoundsException{
+        return ships.getHandleAt(index);
+    }
+
+    /**
+     * Returns the ship with the given handle.
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this world.
+     *          | !hasShip(handle)
+     */
+    public Ship getShip(int handle) throws IllegalArgumentException{
+        return ships.getShip(handle);
+    }
+
+    /**
+     * Returns true if and only if the given handle refers to a ship of this world.
+     */
+    public boolean hasShip(int handle){
+        return ships.isValidHandle(handle);
+    }
+
+    /**
+     * Adds the given ship to this world and returns its handle.
+     *
+     * @param   ship
+     *          The ship to add.
+     *
+     * @post    The ship belongs to this world and keeps its current position.
+     *          | new.getShip(result) == ship && (new ship).getWorld() == this
+     *          | && (new ship).getPosition() == ship.getPosition()
+     *
+     * @throws  IllegalArgumentException
+     *          The ship does not exist or already belongs to a world.
+     *          | ship == null || ship.getWorld() != null
+     */
+    public int addShip(Ship ship) throws IllegalArgumentException{
+        if(ship == null || ship.getWorld() != null)
+            throw new IllegalArgumentException("Not a ship that can be added to this world!");
+        int handle = ships.add(ship);
+        ship.setWorld(this);
+        aggregates.add(ship);
+        changeState();
+        return handle;
+    }
+
+    /**
+     * Adds the first given number of ships of the given array to this world, in order.
+     * The handle of the i-th added ship is getHandleAt(getNbShips() - nbShips + i) right after the call.
+     * Either all ships are added, or none of them.
+     *
+     * @param   ships
+     *          The array containing the ships to add.
+     *
+     * @param   nbShips
+     *          The number of ships to add from the start of the array.
+     *
+     * @post    The ships belong to this world and keep their current positions.
+     *          | for each i in 0..nbShips-1:
+     *          |   (new ships[i]).getWorld() == this
+     *
+     * @throws  IllegalArgumentException
+     *          One of the ships does not exist or already belongs to a world, or the number of ships is out of
+     *          the bounds of the array.
+     *          | nbShips < 0 || nbShips > ships.length
+     *          | || for some i in 0..nbShips-1: ships[i] == null || ships[i].getWorld() != null
+     */
+    public void addShips(Ship[] ships, int nbShips) throws IllegalArgumentException{
+        if(nbShips < 0 || nbShips > ships.length)
+            throw new IllegalArgumentException();
+        this.ships.ensureCapacity(getNbShips() + nbShips);
+        for(int i = 0; i < nbShips; i++){
+            try{
+                addShip(ships[i]);
+            }catch(IllegalArgumentException e){
+                for(int j = 0; j < i; j++)
+                    removeShip(getHandleAt(getNbShips() - 1));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Makes room for at least the given number of ships in this world.
+     *
+     * @throws  IllegalArgumentException
+     *          The given number exceeds the maximum number of ships.
+     *          | nbShips > ShipRegistry.MAXIMUM_NB_SHIPS
+     */
+    public void ensureCapacity(int nbShips) throws IllegalArgumentException{
+        ships.ensureCapacity(nbShips);
+    }
+
+    /**
+     * Removes the ship with the given handle from this world.
+     * The ship keeps its current position and no longer moves along with the world clock.
+     *
+     * @param   handle
+     *          The handle of the ship to remove.
+     *
+     * @post    The handle no longer refers to a ship of this world.
+     *          | !new.hasShip(handle)
+     *
+     * @post    The ship does not belong to a world.
+     *          | (new getShip(handle)).getWorld() == null
+     *
+     * @throws  IllegalArgumentException
+     *          The handle does not refer to a ship of this world.
+     *          | !hasShip(handle)
+     */
+    public void removeShip(int handle) throws IllegalArgumentException{
+        Ship ship = ships.getShip(handle);
+        aggregates.remove(ship);
+        ships.remove(handle);
+        ship.setWorld(null);
+        changeState();
+    }
+}
@@ -0,0 +1,326 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of aggregates over all ships of a world: their total mass and kinetic energy, their mean speed, their
+ * center of mass and the box bounding their hulls.
+ *
+ * The aggregates are kept up to date while ships are added, removed, moved or change their velocity, so reading
+ * them does not iterate over the ships. Since the ships of a world move along straight lines with its clock, the
+ * center of mass is a linear function of time and is kept as such. Each side of the bounding box is kept as the ship
+ * currently defining it, together with the first moment at which another ship could overtake it; only once that
+ * moment has passed, or the defining ship changed its trajectory, is the side determined again from all ships.
+ *
+ * Sums to which many contributions have been added and from which many have been subtracted are recomputed from
+ * scratch once the number of updates exceeds a multiple of the number of ships, which bounds the rounding error at a
+ * constant cost per update.
+ *
+ * In a world that wraps around, ships have no box bounding them other than the world itself, so the bounding box is
+ * the rectangle of the world. The sums behind the center of mass are kept over the positions the ships would have if
+ * the world did not wrap, i.e. followed continuously since each ship joined the world, so they stay linear in time
+ * and agree with their recomputation; the center of mass is wrapped into the world when it is read.
+ *
+ * Since every change to a ship of the world updates these aggregates, ships of one world share state even when they
+ * are changed independently. The aggregates are not guarded against concurrent changes: ships of one world have to
+ * be changed by one thread at a time, which the ConcurrentFacade ensures by holding the monitor of the world while it
+ * changes one of its ships.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class WorldAggregates {
+
+    /**
+     * Initializes new aggregates of the given world, which has no ships yet.
+     */
+    WorldAggregates(World world){
+        this.world = world;
+    }
+
+    /**
+     * Variable registering the world whose ships are aggregated.
+     */
+    private final World world;
+
+    /**
+     * Variables registering the sums over the ships of the world: the mass, the momentum, the mass-weighted
+     * position at time zero along the current trajectory, the kinetic energy and the speed.
+     */
+    private double totalMass;
+
+    private double momentumX;
+
+    private double momentumY;
+
+    private double momentX;
+
+    private double momentY;
+
+    private double kineticEnergy;
+
+    private double totalSpeed;
+
+    /**
+     * Variable registering the number of updates of the sums since they were last computed from scratch.
+     */
+    private int nbUpdates;
+
+    /**
+     * Constant registering the number of updates, besides a few per ship, after which the sums are recomputed.
+     */
+    private static final int MINIMUM_NB_UPDATES = 1024;
+
+    /**
+     * Variables registering the sides of the bounding box.
+     */
+    private final Extremum minimumX = new Extremum(true, -1);
+
+    private final Extremum maximumX = new Extremum(true, 1);
+
+    private final Extremum minimumY = new Extremum(false, -1);
+
+    private final Extremum maximumY = new Extremum(false, 1);
+
+    /**
+     * Returns the total mass of the ships of the world.
+     */
+    public double getTotalMass(){
+        repairIfNeeded();
+        return totalMass;
+    }
+
+    /**
+     * Returns the total kinetic energy of the ships of the world.
+     *
+     * | result == sum over all ships of ship.getMass() * speed(ship)^2 / 2
+     */
+    public double getKineticEnergy(){
+        repairIfNeeded();
+        return kineticEnergy;
+    }
+
+    /**
+     * Returns the mean speed of the ships of the world, or Double.NaN if the world has no ships.
+     */
+    public double getMeanSpeed(){
+        repairIfNeeded();
+        return world.getNbShips() == 0 ? Double.NaN : totalSpeed / world.getNbShips();
+    }
+
+    /**
+     * Returns the position along the x-axis of the center of mass of the ships of the world, or Double.NaN if the
+     * world has no ships. In a world that wraps around, the position is wrapped into the world.
+     */
+    public double getCenterOfMassX(){
+        repairIfNeeded();
+        if(world.getNbShips() == 0)
+            return Double.NaN;
+        return world.wrap((momentX + momentumX * world.getTime()) / totalMass, world.getWidth());
+    }
+
+    /**
+     * Returns the position along the y-axis of the center of mass of the ships of the world, or Double.NaN if the
+     * world has no ships. In a world that wraps around, the position is wrapped into the world.
+     */
+    public double getCenterOfMassY(){
+        repairIfNeeded();
+        if(world.getNbShips() == 0)
+            return Double.NaN;
+        return world.wrap((momentY + momentumY * world.getTime()) / totalMass, world.getHeight());
+    }
+
+    /**
+     * Returns the smallest position along the x-axis of a point of the hull of a ship of the world, or Double.NaN if
+     * the world has no ships. In a world that wraps around, this is zero of the world.
+     */
+    public double getMinimumX(){
+        return minimumX.getValue();
+    }
+
+    /**
+     * Returns the largest position along the x-axis of a point of the hull of a ship of the world, or Double.NaN if
+     * the world has no ships. In a world that wraps around, this is the width of the world.
+     */
+    public double getMaximumX(){
+        return maximumX.getValue();
+    }
+
+    /**
+     * Returns the smallest position along the y-axis of a point of the hull of a ship of the world, or Double.NaN if
+     * the world has no ships. In a world that wraps around, this is zero of the world.
+     */
+    public double getMinimumY(){
+        return minimumY.getValue();
+    }
+
+    /**
+     * Returns the largest position along the y-axis of a point of the hull of a ship of the world, or Double.NaN if
+     * the world has no ships. In a world that wraps around, this is the height of the world.
+     */
+    public double getMaximumY(){
+        return maximumY.getValue();
+    }
+
+    /**
+     * Adds the contribution of the given ship, with its current trajectory, to the aggregates.
+     */
+    void add(Ship ship){
+        update(ship, 1);
+        minimumX.add(ship);
+        maximumX.add(ship);
+        minimumY.add(ship);
+        maximumY.add(ship);
+    }
+
+    /**
+     * Removes the contribution of the given ship, with its current trajectory, from the aggregates.
+     */
+    void remove(Ship ship){
+        update(ship, -1);
+        minimumX.remove(ship);
+        maximumX.remove(ship);
+        minimumY.remove(ship);
+        maximumY.remove(ship);
+    }
+
+    /**
+     * Adds the contribution of the given ship, multiplied by the given sign, to the sums.
+     */
+    @Model
+    private void update(Ship ship, int sign){
+        double mass = sign * ship.getMass();
+        double velocityX = ship.getVelocityX();
+        double velocityY = ship.getVelocityY();
+        double speedSquared = velocityX * velocityX + velocityY * velocityY;
+        totalMass += mass;
+        momentumX += mass * velocityX;
+        momentumY += mass * velocityY;
+        momentX += mass * ship.getInterceptX();
+        momentY += mass * ship.getInterceptY();
+        kineticEnergy += mass * speedSquared / 2;
+        totalSpeed += sign * Math.sqrt(speedSquared);
+        nbUpdates++;
+    }
+
+    /**
+     * Recomputes the sums from scratch if they were updated too often since they were last computed.
+     */
+    @Model
+    private void repairIfNeeded(){
+        if(nbUpdates > MINIMUM_NB_UPDATES + 4L * world.getNbShips() || world.getNbShips() == 0)
+            repair();
+    }
+
+    /**
+     * Recomputes the sums from scratch.
+     */
+    @Model
+    private void repair(){
+        totalMass = momentumX = momentumY = momentX = momentY = kineticEnergy = totalSpeed = 0;
+        for(int i = 0; i < world.getNbShips(); i++)
+            update(world.getShipAt(i), 1);
+        nbUpdates = 0;
+    }
+
+    /**
+     * A class of sides of the bounding box.
+     *
+     * A side is the largest of the linear functions sign * (position + sign * radius) of time over all ships, along
+     * one axis. It registers the ship attaining that largest value and the first moment at which another ship may
+     * attain a larger value, and it is only determined again from all ships when that ship changes its trajectory or
+     * that moment has passed.
+     */
+    private final class Extremum {
+
+        Extremum(boolean alongX, int sign){
+            this.alongX = alongX;
+            this.sign = sign;
+        }
+
+        private final boolean alongX;
+
+        private final int sign;
+
+        /**
+         * Variable registering the ship defining this side, or null if it has to be determined again.
+         */
+        private Ship ship;
+
+        /**
+         * Variable registering the first moment at which another ship may define this side.
+         */
+        private double expiryTime;
+
+        private double valueOf(Ship ship, double time){
+            return sign * ((alongX ? ship.getInterceptX() : ship.getInterceptY()) + slopeOf(ship) * sign * time)
+                    + ship.getRadius();
+        }
+
+        private double slopeOf(Ship ship){
+            return sign * (alongX ? ship.getVelocityX() : ship.getVelocityY());
+        }
+
+        /**
+         * Returns the moment after the given time at which the given other ship overtakes the defining ship, or
+         * Double.POSITIVE_INFINITY if it never does.
+         */
+        private double overtakingTime(Ship other, double time){
+            double gain = slopeOf(other) - slopeOf(ship);
+            if(!(gain > 0))
+                return Double.POSITIVE_INFINITY;
+            return time + Math.max(0, valueOf(ship, time) - valueOf(other, time)) / gain;
+        }
+
+        double getValue(){
+            if(world.getNbShips() == 0)
+                return Double.NaN;
+            if(world.getBoundaryMode() == BoundaryMode.TOROIDAL)
+                return sign < 0 ? 0 : alongX ? world.getWidth() : world.getHeight();
+            double time = world.getTime();
+            if(ship == null || time >= expiryTime)
+                determine(time);
+            return sign * valueOf(ship, time);
+        }
+
+        /**
+         * Determines the ship defining this side at the given time from all ships, and the moment until which it
+         * does.
+         */
+        private void determine(double time){
+            ship = null;
+            double value = Double.NEGATIVE_INFINITY;
+            for(int i = 0; i < world.getNbShips(); i++){
+                Ship other = world.getShipAt(i);
+                double otherValue = valueOf(other, time);
+                // among equal values the fastest ship keeps the side longest
+                if(ship == null || otherValue > value || (otherValue == value && slopeOf(other) > slopeOf(ship))){
+                    ship = other;
+                    value = otherValue;
+                }
+            }
+            expiryTime = Double.POSITIVE_INFINITY;
+            for(int i = 0; i < world.getNbShips(); i++){
+                Ship other = world.getShipAt(i);
+                if(other != ship)
+                    expiryTime = Math.min(expiryTime, overtakingTime(other, time));
+            }
+        }
+
+        void add(Ship other){
+            if(ship == null)
+                return;
+            double time = world.getTime();
+            if(valueOf(other, time) > valueOf(ship, time))
+                ship = null;
+            else
+                expiryTime = Math.min(expiryTime, overtakingTime(other, time));
+        }
+
+        void remove(Ship other){
+            if(other == ship)
+                ship = null;
+        }
+    }
+}
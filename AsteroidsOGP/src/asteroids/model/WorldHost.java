@@ -0,0 +1,309 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A class of hosts running many independent worlds concurrently, without a graphical user interface.
+ *
+ * Every hosted world runs its own tick loop on a shared work-stealing pool. A world never runs on two threads at
+ * the same time, so worlds need no synchronization of their own. A world executes at most its tick budget before it
+ * yields its thread and is queued again behind the other worlds, so a busy world can not starve the others.
+ *
+ * @invar   The number of threads of a host is positive.
+ *          | getParallelism() > 0
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class WorldHost implements AutoCloseable {
+
+    /**
+     * Initializes a new host with one thread per available processor.
+     */
+    public WorldHost(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a new host with the given number of threads.
+     *
+     * @param   parallelism
+     *          The number of threads running the worlds.
+     *
+     * @throws  IllegalArgumentException
+     *          The given number of threads is not positive.
+     *          | parallelism <= 0
+     */
+    public WorldHost(int parallelism) throws IllegalArgumentException{
+        if(parallelism <= 0)
+            throw new IllegalArgumentException();
+        this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Variable registering the work-stealing pool on which the worlds run.
+     * The pool runs its queues in first-in-first-out order, so requeued worlds get in line behind the others.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Variable registering the worlds of this host.
+     */
+    private final Set<HostedWorld> worlds = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService clock;
+
+    private ScheduledFuture<?> clockTask;
+
+    /**
+     * Returns the number of threads of this host.
+     */
+    public int getParallelism(){
+        return pool.getParallelism();
+    }
+
+    /**
+     * Returns the number of worlds of this host.
+     */
+    public int getNbWorlds(){
+        return worlds.size();
+    }
+
+    /**
+     * Hosts the given world.
+     *
+     * @param   world
+     *          The world to host.
+     *
+     * @param   timeStep
+     *          The time by which the world evolves in each tick, bouncing the ships that collide.
+     *
+     * @param   tickBudget
+     *          The maximum number of ticks the world may execute before it yields its thread to other worlds.
+     *
+     * @param   controller
+     *          The action executed on the world before each tick, for example to steer its ships, or null.
+     *
+     * @throws  IllegalArgumentException
+     *          The world does not exist, the time step is negative or the tick budget is not positive.
+     *          | world == null || !(timeStep >= 0) || tickBudget <= 0
+     */
+    public HostedWorld host(World world, double timeStep, int tickBudget, Consumer<World> controller)
+            throws IllegalArgumentException{
+        if(world == null || !(timeStep >= 0) || tickBudget <= 0)
+            throw new IllegalArgumentException();
+        HostedWorld hosted = new HostedWorld(world, timeStep, tickBudget, controller);
+        worlds.add(hosted);
+        return hosted;
+    }
+
+    /**
+     * Requests one tick for every hosted world at the given fixed rate, until the clock is stopped.
+     * A world that falls behind keeps at most the given number of ticks pending; older ticks are dropped.
+     *
+     * @param   periodMillis
+     *          The number of milliseconds between two ticks.
+     *
+     * @param   maximumBacklog
+     *          The maximum number of pending ticks of a world.
+     *
+     * @throws  IllegalArgumentException
+     *          The period or the maximum backlog is not positive.
+     *          | periodMillis <= 0 || maximumBacklog <= 0
+     *
+     * @throws  IllegalStateException
+     *          The clock is already running.
+     */
+    public synchronized void startClock(long periodMillis, final long maximumBacklog)
+            throws IllegalArgumentException, IllegalStateException{
+        if(periodMillis <= 0 || maximumBacklog <= 0)
+            throw new IllegalArgumentException();
+        if(clockTask != null)
+            throw new IllegalStateException("The clock is already running!");
+        if(clock == null)
+            clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "asteroids-world-host-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+        clockTask = clock.scheduleAtFixedRate(() -> {
+            for(HostedWorld world : worlds)
+                world.requestTicks(1, maximumBacklog);
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops requesting ticks at a fixed rate. Pending ticks are still executed.
+     */
+    public synchronized void stopClock(){
+        if(clockTask != null){
+            clockTask.cancel(false);
+            clockTask = null;
+        }
+    }
+
+    /**
+     * Waits until no hosted world has pending ticks or the given time has elapsed.
+     *
+     * @return  True if and only if all pending ticks were executed in time.
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit){
+        return pool.awaitQuiescence(timeout, unit);
+    }
+
+    /**
+     * Stops the clock and the threads of this host. Pending ticks are discarded.
+     */
+    @Override
+    public synchronized void close(){
+        stopClock();
+        if(clock != null)
+            clock.shutdownNow();
+        for(HostedWorld world : worlds)
+            world.stop();
+        pool.shutdownNow();
+    }
+
+    /**
+     * A class of worlds hosted by a world host, together with the state of their tick loop.
+     */
+    public class HostedWorld {
+
+        private HostedWorld(World world, double timeStep, int tickBudget, Consumer<World> controller){
+            this.world = world;
+            this.timeStep = timeStep;
+            this.tickBudget = tickBudget;
+            this.controller = controller;
+        }
+
+        private final World world;
+
+        private final double timeStep;
+
+        private final int tickBudget;
+
+        private final Consumer<World> controller;
+
+        /**
+         * Variable registering the number of ticks requested but not yet executed.
+         */
+        private final AtomicLong pendingTicks = new AtomicLong();
+
+        /**
+         * Variable registering whether a task running this world is queued or running.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile long nbTicks;
+
+        private volatile boolean stopped;
+
+        private volatile RuntimeException failure;
+
+        /**
+         * Returns the hosted world. It may only be inspected while the world has no pending ticks.
+         */
+        @Basic @Immutable
+        public World getWorld(){
+            return world;
+        }
+
+        /**
+         * Returns the number of ticks this world has executed.
+         */
+        @Basic
+        public long getNbTicks(){
+            return nbTicks;
+        }
+
+        /**
+         * Returns the number of ticks requested but not yet executed.
+         */
+        public long getNbPendingTicks(){
+            return pendingTicks.get();
+        }
+
+        /**
+         * Returns the exception that stopped this world, or null if no tick failed.
+         */
+        @Basic
+        public RuntimeException getFailure(){
+            return failure;
+        }
+
+        /**
+         * Returns true if and only if this world no longer executes ticks.
+         */
+        public boolean isStopped(){
+            return stopped;
+        }
+
+        /**
+         * Requests the given number of ticks for this world.
+         *
+         * @throws  IllegalArgumentException
+         *          The given number of ticks is negative.
+         *          | nbTicks < 0
+         */
+        public void requestTicks(long nbTicks) throws IllegalArgumentException{
+            requestTicks(nbTicks, Long.MAX_VALUE);
+        }
+
+        private void requestTicks(long nbTicks, long maximumBacklog){
+            if(nbTicks < 0)
+                throw new IllegalArgumentException();
+            if(stopped)
+                return;
+            pendingTicks.accumulateAndGet(nbTicks, (pending, added) -> Math.min(maximumBacklog, pending + added));
+            schedule();
+        }
+
+        /**
+         * Stops this world and removes it from its host. Pending ticks are discarded.
+         */
+        public void stop(){
+            stopped = true;
+            pendingTicks.set(0);
+            worlds.remove(this);
+        }
+
+        private void schedule(){
+            if(pendingTicks.get() > 0 && !stopped && scheduled.compareAndSet(false, true))
+                pool.execute(this::run);
+        }
+
+        /**
+         * Executes at most the tick budget of this world and queues the world again if ticks remain.
+         */
+        private void run(){
+            try{
+                for(int i = 0; i < tickBudget && !stopped; i++){
+                    if(pendingTicks.getAndUpdate(pending -> pending > 0 ? pending - 1 : 0) == 0)
+                        break;
+                    if(controller != null)
+                        controller.accept(world);
+                    world.evolve(timeStep);
+                    nbTicks++;
+                }
+            }catch(RuntimeException e){
+                failure = e;
+                stop();
+            }finally{
+                scheduled.set(false);
+            }
+            schedule();
+        }
+    }
+}
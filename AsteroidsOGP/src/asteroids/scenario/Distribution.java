@@ -0,0 +1,32 @@
+package asteroids.scenario;
+
+/**
+ * An enumeration of the ways in which a scenario generator can spread its ships.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public enum Distribution {
+
+    /**
+     * Ships are spread uniformly over the area and move in random directions.
+     */
+    UNIFORM,
+
+    /**
+     * Ships are gathered around a number of cluster centers and move in random directions.
+     */
+    CLUSTERED,
+
+    /**
+     * Ships move in horizontal lanes, with a stream from the left and a stream from the right in each lane,
+     * so that every ship is on a head-on course with a ship of the opposite stream.
+     */
+    HEAD_ON_STREAMS,
+
+    /**
+     * All ships are centered so close to the middle of the area that every ship overlaps with every other ship.
+     */
+    ALL_OVERLAPPING
+}
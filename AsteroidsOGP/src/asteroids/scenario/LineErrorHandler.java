@@ -0,0 +1,16 @@
+package asteroids.scenario;
+
+/**
+ * An interface for receivers of the errors found on single lines of a loaded file.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public interface LineErrorHandler {
+
+    /**
+     * Receive the error found on the line with the given number, counting from one.
+     */
+    public void error(long lineNumber, String message);
+}
@@ -0,0 +1,121 @@
+package asteroids.scenario;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.List;
+
+import asteroids.model.Ship;
+import asteroids.part1.facade.IFacade;
+import asteroids.util.ModelException;
+
+/**
+ * A class of drivers running generated scenarios through a facade and reporting their throughput and latency.
+ *
+ * Each tick mimics a tick of the game loop: one ship thrusts and turns, every ship moves, and optionally the time
+ * to collision between that ship and every other ship is predicted, as when collisions are shown.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class LoadTestDriver {
+
+    /**
+     * Initializes a new driver running the given number of ticks of the given duration through the given facade.
+     *
+     * @throws  IllegalArgumentException
+     *          The facade does not exist, the number of ticks is negative or the time step is negative.
+     *          | facade == null || nbTicks < 0 || !(timeStep >= 0)
+     */
+    public LoadTestDriver(IFacade facade, int nbTicks, double timeStep) throws IllegalArgumentException{
+        if(facade == null || nbTicks < 0 || !(timeStep >= 0))
+            throw new IllegalArgumentException();
+        this.facade = facade;
+        this.nbTicks = nbTicks;
+        this.timeStep = timeStep;
+    }
+
+    private final IFacade facade;
+
+    private final int nbTicks;
+
+    private final double timeStep;
+
+    private boolean collisionQueries = true;
+
+    /**
+     * Constant registering the angle by which the steered ship turns each tick, as the ship of a player holding a
+     * turn key does at thirty ticks per second.
+     */
+    private static final double STEERING_ANGLE = Math.PI / 30;
+
+    /**
+     * Returns true if and only if each tick predicts the collisions of the steered ship.
+     */
+    @Basic
+    public boolean hasCollisionQueries(){
+        return collisionQueries;
+    }
+
+    /**
+     * Sets whether each tick predicts the collisions of the steered ship.
+     */
+    public void setCollisionQueries(boolean collisionQueries){
+        this.collisionQueries = collisionQueries;
+    }
+
+    /**
+     * Generates the ships of the given scenario, runs the ticks and returns the report.
+     *
+     * @throws  ModelException
+     *          The ships of the scenario can not be created.
+     */
+    public LoadTestReport run(ScenarioGenerator scenario) throws ModelException{
+        List<Ship> ships = scenario.generate(facade);
+        long[] durations = new long[ships.isEmpty() ? 0 : nbTicks];
+        long nbErrors = 0;
+        for(int tick = 0; tick < durations.length; tick++){
+            long start = System.nanoTime();
+            Ship steered = ships.get(tick % ships.size());
+            try{
+                facade.thrust(steered, 1);
+                facade.turn(steered, STEERING_ANGLE);
+            }catch(ModelException e){
+                nbErrors++;
+            }
+            for(Ship ship : ships){
+                try{
+                    facade.move(ship, timeStep);
+                }catch(ModelException e){
+                    nbErrors++;
+                }
+            }
+            if(collisionQueries){
+                for(Ship ship : ships){
+                    try{
+                        facade.getTimeToCollision(steered, ship);
+                    }catch(ModelException e){
+                        nbErrors++;
+                    }
+                }
+            }
+            durations[tick] = System.nanoTime() - start;
+        }
+        return new LoadTestReport(scenario.getDistribution().toString(), ships.size(), durations, nbErrors);
+    }
+
+    /**
+     * Runs every distribution through a new Facade and prints the reports.
+     *
+     * The optional arguments are the number of ships, the number of ticks and the seed, in that order.
+     */
+    public static void main(String[] args) throws ModelException{
+        int nbShips = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int nbTicks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        for(Distribution distribution : Distribution.values()){
+            LoadTestDriver driver = new LoadTestDriver(new asteroids.facade.Facade(), nbTicks, 1. / 30);
+            System.out.println(driver.run(new ScenarioGenerator(distribution, nbShips, seed)));
+        }
+    }
+}
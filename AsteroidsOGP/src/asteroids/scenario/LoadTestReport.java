@@ -0,0 +1,131 @@
+package asteroids.scenario;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of reports on the throughput and latency of a load test.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class LoadTestReport {
+
+    /**
+     * Initializes a new report for the given scenario.
+     *
+     * @param   scenario
+     *          The name of the scenario.
+     *
+     * @param   nbShips
+     *          The number of ships of the scenario.
+     *
+     * @param   tickDurations
+     *          The duration of each tick, in nanoseconds.
+     *
+     * @param   nbErrors
+     *          The number of operations that failed.
+     */
+    public LoadTestReport(String scenario, int nbShips, long[] tickDurations, long nbErrors){
+        this.scenario = scenario;
+        this.nbShips = nbShips;
+        this.tickDurations = tickDurations.clone();
+        Arrays.sort(this.tickDurations);
+        long total = 0;
+        for(long duration : tickDurations)
+            total += duration;
+        this.totalDuration = total;
+        this.nbErrors = nbErrors;
+    }
+
+    private final String scenario;
+
+    private final int nbShips;
+
+    /**
+     * Array registering the durations of the ticks in nanoseconds, in ascending order.
+     */
+    private final long[] tickDurations;
+
+    private final long totalDuration;
+
+    private final long nbErrors;
+
+    /**
+     * Returns the name of the scenario of this report.
+     */
+    @Basic @Immutable
+    public String getScenario(){
+        return scenario;
+    }
+
+    /**
+     * Returns the number of ships of the scenario of this report.
+     */
+    @Basic @Immutable
+    public int getNbShips(){
+        return nbShips;
+    }
+
+    /**
+     * Returns the number of ticks that were run.
+     */
+    public int getNbTicks(){
+        return tickDurations.length;
+    }
+
+    /**
+     * Returns the number of operations that failed.
+     */
+    @Basic @Immutable
+    public long getNbErrors(){
+        return nbErrors;
+    }
+
+    /**
+     * Returns the number of ticks per second.
+     */
+    public double getTicksPerSecond(){
+        return totalDuration == 0 ? Double.POSITIVE_INFINITY : getNbTicks() * 1e9 / totalDuration;
+    }
+
+    /**
+     * Returns the number of ship updates per second.
+     */
+    public double getShipUpdatesPerSecond(){
+        return getTicksPerSecond() * nbShips;
+    }
+
+    /**
+     * Returns the duration in nanoseconds below which the given percentage of the ticks completed.
+     *
+     * @throws  IllegalArgumentException
+     *          The given percentage does not lie between 0 and 100, or no ticks were run.
+     *          | !(0 <= percentage && percentage <= 100) || getNbTicks() == 0
+     */
+    public long getLatencyPercentile(double percentage) throws IllegalArgumentException{
+        if(!(0 <= percentage && percentage <= 100) || getNbTicks() == 0)
+            throw new IllegalArgumentException();
+        int index = (int) Math.ceil(percentage / 100 * getNbTicks()) - 1;
+        return tickDurations[Math.max(0, index)];
+    }
+
+    /**
+     * Returns the duration in nanoseconds of the slowest tick.
+     */
+    public long getMaximumLatency(){
+        return getNbTicks() == 0 ? 0 : tickDurations[getNbTicks() - 1];
+    }
+
+    @Override
+    public String toString(){
+        if(getNbTicks() == 0)
+            return String.format("%-16s %9d ships: no ticks", scenario, nbShips);
+        return String.format("%-16s %9d ships %8.1f ticks/s %12.0f updates/s"
+                        + "  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms  errors %d",
+                scenario, nbShips, getTicksPerSecond(), getShipUpdatesPerSecond(),
+                getLatencyPercentile(50) / 1e6, getLatencyPercentile(99) / 1e6, getMaximumLatency() / 1e6, nbErrors);
+    }
+}
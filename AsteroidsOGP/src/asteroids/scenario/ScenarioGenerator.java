@@ -0,0 +1,283 @@
+package asteroids.scenario;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asteroids.model.Ship;
+import asteroids.part1.facade.IFacade;
+import asteroids.util.ModelException;
+
+/**
+ * A class of generators of reproducible scenarios for load tests.
+ *
+ * A generator produces a given number of ships spread over a rectangular area according to a distribution, with
+ * radii and speeds drawn uniformly from configurable ranges. All random choices derive from the seed of the
+ * generator, so generating the same scenario twice yields exactly the same ships.
+ *
+ * @invar   The radius and speed ranges are proper ranges.
+ *          | getMinimumRadius() <= getMaximumRadius() && getMinimumSpeed() <= getMaximumSpeed()
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class ScenarioGenerator {
+
+    /**
+     * Initializes a new generator of the given number of ships spread according to the given distribution.
+     * The ships are generated in an area of 1024 by 768, with radii between 10 and 50 and speeds between 0 and 100.
+     *
+     * @param   distribution
+     *          The distribution of the ships.
+     *
+     * @param   nbShips
+     *          The number of ships to generate.
+     *
+     * @param   seed
+     *          The seed from which all random choices derive.
+     *
+     * @throws  IllegalArgumentException
+     *          The distribution does not exist or the number of ships is negative.
+     *          | distribution == null || nbShips < 0
+     */
+    public ScenarioGenerator(Distribution distribution, int nbShips, long seed) throws IllegalArgumentException{
+        if(distribution == null || nbShips < 0)
+            throw new IllegalArgumentException();
+        this.distribution = distribution;
+        this.nbShips = nbShips;
+        this.seed = seed;
+    }
+
+    private final Distribution distribution;
+
+    private final int nbShips;
+
+    private final long seed;
+
+    private double width = 1024;
+
+    private double height = 768;
+
+    private double minimumRadius = Ship.getMinimumRadius();
+
+    private double maximumRadius = 50;
+
+    private double minimumSpeed = 0;
+
+    private double maximumSpeed = 100;
+
+    private int nbClusters = 8;
+
+    /**
+     * Returns the distribution of the generated ships.
+     */
+    @Basic @Immutable
+    public Distribution getDistribution(){
+        return distribution;
+    }
+
+    /**
+     * Returns the number of generated ships.
+     */
+    @Basic @Immutable
+    public int getNbShips(){
+        return nbShips;
+    }
+
+    /**
+     * Returns the seed of this generator.
+     */
+    @Basic @Immutable
+    public long getSeed(){
+        return seed;
+    }
+
+    /**
+     * Returns the lower bound of the radii of the generated ships.
+     */
+    @Basic
+    public double getMinimumRadius(){
+        return minimumRadius;
+    }
+
+    /**
+     * Returns the upper bound of the radii of the generated ships.
+     */
+    @Basic
+    public double getMaximumRadius(){
+        return maximumRadius;
+    }
+
+    /**
+     * Returns the lower bound of the speeds of the generated ships.
+     */
+    @Basic
+    public double getMinimumSpeed(){
+        return minimumSpeed;
+    }
+
+    /**
+     * Returns the upper bound of the speeds of the generated ships.
+     */
+    @Basic
+    public double getMaximumSpeed(){
+        return maximumSpeed;
+    }
+
+    /**
+     * Sets the area over which the ships are spread, with its lower left corner at the origin.
+     *
+     * @throws  IllegalArgumentException
+     *          The width or height is not positive.
+     *          | !(width > 0 && height > 0)
+     */
+    public void setArea(double width, double height) throws IllegalArgumentException{
+        if(!(width > 0 && height > 0))
+            throw new IllegalArgumentException();
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the range from which the radii of the ships are drawn.
+     *
+     * @throws  IllegalArgumentException
+     *          The range is not a proper range of radii valid for ships.
+     *          | !(Ship.getMinimumRadius() <= minimum && minimum <= maximum) || Double.isInfinite(maximum)
+     */
+    public void setRadiusRange(double minimum, double maximum) throws IllegalArgumentException{
+        if(!(Ship.getMinimumRadius() <= minimum && minimum <= maximum) || Double.isInfinite(maximum))
+            throw new IllegalArgumentException();
+        this.minimumRadius = minimum;
+        this.maximumRadius = maximum;
+    }
+
+    /**
+     * Sets the range from which the speeds of the ships are drawn.
+     *
+     * @throws  IllegalArgumentException
+     *          The range is not a proper range of nonnegative speeds.
+     *          | !(0 <= minimum && minimum <= maximum) || Double.isInfinite(maximum)
+     */
+    public void setSpeedRange(double minimum, double maximum) throws IllegalArgumentException{
+        if(!(0 <= minimum && minimum <= maximum) || Double.isInfinite(maximum))
+            throw new IllegalArgumentException();
+        this.minimumSpeed = minimum;
+        this.maximumSpeed = maximum;
+    }
+
+    /**
+     * Sets the number of clusters of a clustered distribution.
+     *
+     * @throws  IllegalArgumentException
+     *          The number of clusters is not positive.
+     *          | nbClusters <= 0
+     */
+    public void setNbClusters(int nbClusters) throws IllegalArgumentException{
+        if(nbClusters <= 0)
+            throw new IllegalArgumentException();
+        this.nbClusters = nbClusters;
+    }
+
+    /**
+     * Generates the ships of this scenario and passes them to the given sink, in a reproducible order.
+     */
+    public void generate(ShipSink sink){
+        Random random = new Random(seed);
+        switch(distribution){
+            case UNIFORM:
+                for(int i = 0; i < nbShips; i++)
+                    acceptMoving(sink, random, width * random.nextDouble(), height * random.nextDouble());
+                break;
+            case CLUSTERED:
+                double[] centers = new double[2 * nbClusters];
+                for(int i = 0; i < centers.length; i += 2){
+                    centers[i] = width * random.nextDouble();
+                    centers[i + 1] = height * random.nextDouble();
+                }
+                double spread = Math.min(width, height) / 20;
+                for(int i = 0; i < nbShips; i++){
+                    int cluster = random.nextInt(nbClusters);
+                    acceptMoving(sink, random, centers[2 * cluster] + spread * random.nextGaussian(),
+                            centers[2 * cluster + 1] + spread * random.nextGaussian());
+                }
+                break;
+            case HEAD_ON_STREAMS:
+                generateStreams(sink, random);
+                break;
+            case ALL_OVERLAPPING:
+                for(int i = 0; i < nbShips; i++){
+                    double angle = 2 * Math.PI * random.nextDouble();
+                    double distance = minimumRadius / 2 * random.nextDouble();
+                    acceptMoving(sink, random, width / 2 + distance * Math.cos(angle),
+                            height / 2 + distance * Math.sin(angle));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Generates pairs of ships on a head-on course, in lanes stacked around the middle of the area.
+     */
+    @Model
+    private void generateStreams(ShipSink sink, Random random){
+        int nbPairs = (nbShips + 1) / 2;
+        int nbLanes = Math.max(1, (int) Math.ceil(Math.sqrt(nbPairs)));
+        double spacing = 3 * maximumRadius;
+        double firstLaneY = height / 2 - (nbLanes - 1) * spacing / 2;
+        for(int i = 0; i < nbShips; i++){
+            int pair = i / 2;
+            double y = firstLaneY + (pair % nbLanes) * spacing;
+            double offset = 2 * maximumRadius + (pair / nbLanes) * spacing;
+            double speed = randomSpeed(random);
+            if(i % 2 == 0)
+                sink.accept(width / 2 - offset, y, speed, 0, randomRadius(random), 0);
+            else
+                sink.accept(width / 2 + offset, y, -speed, 0, randomRadius(random), Math.PI);
+        }
+    }
+
+    /**
+     * Passes a ship at the given position to the given sink, with a random radius, speed and direction.
+     * The ship is heading in the direction in which it moves.
+     */
+    @Model
+    private void acceptMoving(ShipSink sink, Random random, double x, double y){
+        double direction = 2 * Math.PI * random.nextDouble();
+        double speed = randomSpeed(random);
+        sink.accept(x, y, speed * Math.cos(direction), speed * Math.sin(direction), randomRadius(random), direction);
+    }
+
+    private double randomRadius(Random random){
+        return minimumRadius + (maximumRadius - minimumRadius) * random.nextDouble();
+    }
+
+    private double randomSpeed(Random random){
+        return minimumSpeed + (maximumSpeed - minimumSpeed) * random.nextDouble();
+    }
+
+    /**
+     * Generates the ships of this scenario through the given facade and returns them.
+     *
+     * @throws  ModelException
+     *          The facade does not accept one of the generated ships.
+     */
+    public List<Ship> generate(final IFacade facade) throws ModelException{
+        final List<Ship> ships = new ArrayList<>(nbShips);
+        try{
+            generate((x, y, xVelocity, yVelocity, radius, heading) -> {
+                try{
+                    ships.add(facade.createShip(x, y, xVelocity, yVelocity, radius, heading));
+                }catch(ModelException e){
+                    throw new IllegalArgumentException(e);
+                }
+            });
+        }catch(IllegalArgumentException e){
+            throw e.getCause() instanceof ModelException ? (ModelException) e.getCause() : new ModelException(e);
+        }
+        return ships;
+    }
+}
@@ -0,0 +1,20 @@
+package asteroids.scenario;
+
+/**
+ * An interface for receivers of generated or loaded ships, described by their primitive attributes.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public interface ShipSink {
+
+    /**
+     * Receive a ship with the given position, velocity, radius and heading (in radians).
+     *
+     * @throws  IllegalArgumentException
+     *          The sink does not accept a ship with the given attributes.
+     */
+    public void accept(double x, double y, double xVelocity, double yVelocity, double radius, double heading)
+            throws IllegalArgumentException;
+}
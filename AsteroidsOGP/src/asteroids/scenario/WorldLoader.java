@@ -0,0 +1,326 @@
+package asteroids.scenario;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class of loaders reading ships from a text file, with one ship per line.
+ *
+ * Each line contains the six attributes x, y, xVelocity, yVelocity, radius and heading, separated by commas,
+ * semicolons or white space. Blank lines, lines starting with '#' and a first line starting with a letter (a
+ * header) are skipped. A line that can not be read or describes an invalid ship is reported to an error handler,
+ * after which loading continues with the next line.
+ *
+ * A loader reads its input through a single byte buffer of fixed size and parses numbers directly from that
+ * buffer, so its memory use does not depend on the size of the input. Lines longer than the buffer are reported
+ * as errors.
+ *
+ * @author  Wim Kunnen and Maarten Doclo
+ *
+ * @version 1.0
+ */
+public class WorldLoader {
+
+    /**
+     * Initializes a new loader with a buffer of 64 KiB.
+     */
+    public WorldLoader(){
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Initializes a new loader with a buffer of the given number of bytes.
+     *
+     * @throws  IllegalArgumentException
+     *          The buffer size is not positive.
+     *          | bufferSize <= 0
+     */
+    public WorldLoader(int bufferSize) throws IllegalArgumentException{
+        if(bufferSize <= 0)
+            throw new IllegalArgumentException();
+        this.buffer = new byte[bufferSize];
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Constant registering the number of ships created before they are added to a world at once.
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    private static final int NB_FIELDS = 6;
+
+    /**
+     * Constant registering the powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final byte[] buffer;
+
+    private final double[] fields = new double[NB_FIELDS];
+
+    /**
+     * Variable registering the value of the last number parsed by parseDouble.
+     */
+    private double parsedValue;
+
+    /**
+     * Reads the ships in the given file and passes them to the given sink, in order.
+     *
+     * @return  The number of ships accepted by the sink.
+     */
+    public long load(Path path, ShipSink sink, LineErrorHandler errors) throws IOException{
+        try(InputStream in = Files.newInputStream(path)){
+            return load(in, sink, errors);
+        }
+    }
+
+    /**
+     * Reads the ships in the given stream and passes them to the given sink, in order.
+     * Lines that can not be read, and lines describing ships the sink does not accept, are reported to the given
+     * error handler.
+     *
+     * A loader is not thread-safe: it can only load one stream at a time.
+     *
+     * @return  The number of ships accepted by the sink.
+     */
+    public long load(InputStream in, ShipSink sink, LineErrorHandler errors) throws IOException{
+        long nbShips = 0;
+        long lineNumber = 0;
+        int start = 0;
+        int scanned = 0;
+        int limit = 0;
+        boolean endOfInput = false;
+        boolean skipping = false;
+        while(true){
+            int newline = scanned;
+            while(newline < limit && buffer[newline] != '\n')
+                newline++;
+            if(newline < limit){
+                if(skipping)
+                    skipping = false;
+                else if(parseLine(++lineNumber, start, newline, sink, errors))
+                    nbShips++;
+                start = scanned = newline + 1;
+            }else if(endOfInput){
+                if(start < limit && !skipping && parseLine(++lineNumber, start, limit, sink, errors))
+                    nbShips++;
+                return nbShips;
+            }else{
+                if(start == 0 && limit == buffer.length){
+                    errors.error(++lineNumber, "Line longer than " + buffer.length + " bytes");
+                    skipping = true;
+                    limit = 0;
+                }else{
+                    System.arraycopy(buffer, start, buffer, 0, limit - start);
+                    limit -= start;
+                }
+                start = 0;
+                scanned = limit;
+                int nbRead = in.read(buffer, limit, buffer.length - limit);
+                if(nbRead < 0)
+                    endOfInput = true;
+                else
+                    limit += nbRead;
+            }
+        }
+    }
+
+    /**
+     * Parses the line between the given indices of the buffer and passes its ship to the given sink.
+     *
+     * @return  True if and only if the line described a ship that the sink accepted.
+     */
+    @Model
+    private boolean parseLine(long lineNumber, int from, int to, ShipSink sink, LineErrorHandler errors){
+        if(to > from && buffer[to - 1] == '\r')
+            to--;
+        int position = skipWhitespace(from, to);
+        if(position == to || buffer[position] == '#')
+            return false;
+        if(lineNumber == 1 && Character.isLetter(buffer[position]) && !startsWithNumber(position, to))
+            return false;
+        for(int field = 0; field < NB_FIELDS; field++){
+            if(field > 0){
+                int afterSpace = skipWhitespace(position, to);
+                if(afterSpace < to && (buffer[afterSpace] == ',' || buffer[afterSpace] == ';'))
+                    afterSpace = skipWhitespace(afterSpace + 1, to);
+                else if(afterSpace == position && afterSpace < to){
+                    errors.error(lineNumber, "Unexpected character after field " + field);
+                    return false;
+                }
+                position = afterSpace;
+            }
+            if(position == to){
+                errors.error(lineNumber, "Expected " + NB_FIELDS + " fields, found " + field);
+                return false;
+            }
+            int end = parseDouble(position, to);
+            if(end < 0){
+                errors.error(lineNumber, "Field " + (field + 1) + " is not a number");
+                return false;
+            }
+            fields[field] = parsedValue;
+            position = end;
+        }
+        if(skipWhitespace(position, to) != to){
+            errors.error(lineNumber, "More than " + NB_FIELDS + " fields");
+            return false;
+        }
+        double heading = fields[5];
+        if(!(0 <= heading && heading < 2 * Math.PI)){
+            errors.error(lineNumber, "Heading " + heading + " is not between 0 and 2 * PI");
+            return false;
+        }
+        try{
+            sink.accept(fields[0], fields[1], fields[2], fields[3], fields[4], heading);
+            return true;
+        }catch(IllegalArgumentException e){
+            errors.error(lineNumber, e.getMessage() != null ? e.getMessage() : "Invalid position or radius");
+            return false;
+        }
+    }
+
+    private int skipWhitespace(int position, int to){
+        while(position < to && (buffer[position] == ' ' || buffer[position] == '\t'))
+            position++;
+        return position;
+    }
+
+    /**
+     * Returns true if and only if the token at the given position is a special number, such as NaN or Infinity.
+     */
+    private boolean startsWithNumber(int position, int to){
+        return parseDouble(position, to) >= 0;
+    }
+
+    private static boolean isDigit(byte b){
+        return '0' <= b && b <= '9';
+    }
+
+    private static boolean isSeparator(byte b){
+        return b == ',' || b == ';' || b == ' ' || b == '\t';
+    }
+
+    /**
+     * Parses the number starting at the given position of the buffer and stores it in parsedValue.
+     * Numbers with at most 18 significant digits and a small exponent are computed exactly from the digits;
+     * other numbers fall back to Double.parseDouble.
+     *
+     * @return  The position right after the number, or -1 if there is no number at the given position.
+     */
+    @Model
+    private int parseDouble(int from, int to){
+        int position = from;
+        boolean negative = false;
+        if(position < to && (buffer[position] == '+' || buffer[position] == '-')){
+            negative = buffer[position] == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int nbDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean truncated = false;
+        for(; position < to && isDigit(buffer[position]); position++){
+            hasDigits = true;
+            if(nbDigits < 18){
+                mantissa = mantissa * 10 + (buffer[position] - '0');
+                if(mantissa != 0)
+                    nbDigits++;
+            }else{
+                exponent++;
+                truncated |= buffer[position] != '0';
+            }
+        }
+        if(position < to && buffer[position] == '.'){
+            for(position++; position < to && isDigit(buffer[position]); position++){
+                hasDigits = true;
+                if(nbDigits < 18){
+                    mantissa = mantissa * 10 + (buffer[position] - '0');
+                    if(mantissa != 0)
+                        nbDigits++;
+                    exponent--;
+                }else{
+                    truncated |= buffer[position] != '0';
+                }
+            }
+        }
+        if(!hasDigits)
+            return parseSpecial(from, to);
+        if(position < to && (buffer[position] == 'e' || buffer[position] == 'E')){
+            position++;
+            boolean negativeExponent = false;
+            if(position < to && (buffer[position] == '+' || buffer[position] == '-')){
+                negativeExponent = buffer[position] == '-';
+                position++;
+            }
+            if(position == to || !isDigit(buffer[position]))
+                return -1;
+            int explicitExponent = 0;
+            for(; position < to && isDigit(buffer[position]); position++){
+                if(explicitExponent < 100000)
+                    explicitExponent = explicitExponent * 10 + (buffer[position] - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if(position < to && !isSeparator(buffer[position]))
+            return -1;
+        if(mantissa == 0 && !truncated){
+            parsedValue = negative ? -0.0 : 0.0;
+        }else if(!truncated && mantissa < (1L << 53) && -22 <= exponent && exponent <= 22){
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            parsedValue = negative ? -value : value;
+        }else{
+            parsedValue = Double.parseDouble(new String(buffer, from, position - from, StandardCharsets.US_ASCII));
+        }
+        return position;
+    }
+
+    /**
+     * Parses NaN or Infinity, with an optional sign, at the given position of the buffer.
+     *
+     * @return  The position right after the number, or -1 if there is no such number at the given position.
+     */
+    private int parseSpecial(int from, int to){
+        int end = from;
+        while(end < to && !isSeparator(buffer[end]))
+            end++;
+        if(end - from > 9)
+            return -1;
+        String token = new String(buffer, from, end - from, StandardCharsets.US_ASCII);
+        if(!token.matches("[+-]?(NaN|Infinity)"))
+            return -1;
+        parsedValue = Double.parseDouble(token);
+        return end;
+    }
+
+    /**
+     * Reads the ships in the given file into a new world. The ships are created in batches, and each batch is
+     * added to the world at once.
+     */
+    public World loadWorld(Path path, LineErrorHandler errors) throws IOException{
+        final World world = new World();
+        final Ship[] batch = new Ship[BATCH_SIZE];
+        final int[] batchSize = new int[1];
+        load(path, (x, y, xVelocity, yVelocity, radius, heading) -> {
+            batch[batchSize[0]++] = new Ship(x, y, xVelocity, yVelocity, radius, heading);
+            if(batchSize[0] == BATCH_SIZE){
+                world.addShips(batch, BATCH_SIZE);
+                batchSize[0] = 0;
+            }
+        }, errors);
+        world.addShips(batch, batchSize[0]);
+        return world;
+    }
+}
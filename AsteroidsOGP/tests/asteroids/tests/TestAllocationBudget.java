@@ -0,0 +1,238 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits which guard the performance of the hot paths of the model.
+ *
+ * The allocation budgets are expressed in bytes per call, measured with the allocation counter of the current
+ * thread. The time budgets are expressed in nanoseconds per tick of a synthetic world. Every budget can be
+ * overridden with a system property, for example -Dasteroids.budget.move=0.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestAllocationBudget {
+
+	private static final int NB_SHIPS = 10000;
+	private static final int WARM_UP_ITERATIONS = 200000;
+	private static final int ITERATIONS = 200000;
+	private static final int NB_TIMED_TICKS = 51;
+
+	/**
+	 * The number of bytes a measurement may allocate by itself, regardless of the number of iterations.
+	 */
+	private static final long MEASUREMENT_OVERHEAD = 1024;
+
+	private static final double TIME_STEP = 1. / 30;
+
+	private com.sun.management.ThreadMXBean threads;
+	private Ship[] ships;
+
+	/**
+	 * An operation executed once per iteration of a measurement.
+	 */
+	private interface Operation {
+		void run(int iteration);
+	}
+
+	/**
+	 * A set up method which creates a synthetic world of moving ships spread over a grid.
+	 */
+	@Before
+	public void setUp() {
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threads.setThreadAllocatedMemoryEnabled(true);
+		ships = new Ship[NB_SHIPS];
+		for (int i = 0; i < NB_SHIPS; i++) {
+			ships[i] = new Ship(100.0 * (i % 100), 100.0 * (i / 100), i % 7 - 3, i % 5 - 2, 10 + i % 20, 0.0);
+		}
+	}
+
+	/**
+	 * Returns the budget with the given name, or the given default if no system property overrides it.
+	 */
+	private static long budget(String name, long defaultBudget) {
+		return Long.getLong("asteroids.budget." + name, defaultBudget);
+	}
+
+	/**
+	 * Fails if the given operation allocates more than the given budget in bytes per call, on average.
+	 */
+	private void assertAllocationBudget(String name, long defaultBudget, Operation operation) {
+		long budget = budget(name, defaultBudget);
+		for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+			operation.run(i);
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			operation.run(i);
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+		assertTrue(name + " allocates " + allocated + " bytes in " + ITERATIONS + " calls, budget is " + budget
+				+ " bytes per call", allocated <= budget * ITERATIONS + MEASUREMENT_OVERHEAD);
+	}
+
+	/**
+	 * Fails if the median duration of the given tick exceeds the given budget in nanoseconds.
+	 */
+	private void assertTimeBudget(String name, long defaultBudget, Operation tick) {
+		long budget = budget(name, defaultBudget);
+		for (int i = 0; i < NB_TIMED_TICKS; i++) {
+			tick.run(i);
+		}
+		long[] durations = new long[NB_TIMED_TICKS];
+		for (int i = 0; i < NB_TIMED_TICKS; i++) {
+			long start = System.nanoTime();
+			tick.run(i);
+			durations[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(durations);
+		long median = durations[NB_TIMED_TICKS / 2];
+		assertTrue(name + " takes " + median + " ns per tick of " + NB_SHIPS + " ships, budget is " + budget + " ns",
+				median <= budget);
+	}
+
+	/**
+	 * A test suit which tests whether moving a ship does not allocate.
+	 */
+	@Test
+	public void testMoveAllocation() {
+		assertAllocationBudget("move", 0, i -> ships[i % NB_SHIPS].move(TIME_STEP));
+	}
+
+	/**
+	 * A test suit which tests whether thrusting a ship does not allocate.
+	 */
+	@Test
+	public void testThrustAllocation() {
+		assertAllocationBudget("thrust", 0, i -> ships[i % NB_SHIPS].thrust(1));
+	}
+
+	/**
+	 * A test suit which tests whether turning a ship does not allocate.
+	 */
+	@Test
+	public void testTurnAllocation() {
+		assertAllocationBudget("turn", 0, i -> ships[i % NB_SHIPS].turn(Math.PI / 20));
+	}
+
+	/**
+	 * A test suit which tests whether predicting a collision does not allocate.
+	 */
+	@Test
+	public void testTimeToCollisionAllocation() {
+		assertAllocationBudget("timeToCollision", 0,
+				i -> ships[i % NB_SHIPS].getTimeToCollision(ships[(i * 31 + 1) % NB_SHIPS]));
+	}
+
+	/**
+	 * A test suit which tests whether a full tick of the frame loop does not allocate:
+	 * the selected ship thrusts and turns, after which every ship moves.
+	 */
+	@Test
+	public void testTickAllocation() {
+		assertAllocationBudget("tick", 0, i -> {
+			Ship selected = ships[i % NB_SHIPS];
+			selected.thrust(1);
+			selected.turn(Math.PI / 20);
+			for (int j = 0; j < 100; j++) {
+				ships[(i + j) % NB_SHIPS].move(TIME_STEP);
+			}
+		});
+	}
+
+	/**
+	 * A test suit which tests whether a tick of a world does not allocate.
+	 */
+	@Test
+	public void testWorldTickAllocation() {
+		World world = new World();
+		for (Ship ship : ships) {
+			world.addShip(ship);
+		}
+		assertAllocationBudget("worldTick", 0, i -> world.advanceTime(TIME_STEP));
+	}
+
+	/**
+	 * A test suit which tests whether resolving collisions does not allocate: small ships keep thrusting into
+	 * large ships in front of them, so contacts remain to be resolved throughout the measurement.
+	 */
+	@Test
+	public void testEvolveAllocation() {
+		World world = new World();
+		for (int i = 0; i < 100; i++) {
+			world.addShip(new Ship(0.0, 200.0 * i, 0.0, 0.0, 10.0, 0.0));
+			world.addShip(new Ship(65.0, 200.0 * i, 0.0, 0.0, 50.0, 0.0));
+		}
+		final int[] nbBounces = new int[1];
+		assertAllocationBudget("evolve", 0, i -> {
+			for (int j = 0; j < world.getNbShips(); j += 2) {
+				world.getShipAt(j).thrust(10);
+			}
+			nbBounces[0] += world.evolve(TIME_STEP);
+		});
+		assertTrue(nbBounces[0] > 0);
+	}
+
+	/**
+	 * A test suit which tests whether firing projectiles and evolving a world in which they hit ships does not
+	 * allocate, once as many projectiles are in flight as ever will be.
+	 */
+	@Test
+	public void testProjectileAllocation() {
+		World world = new World();
+		for (int i = 0; i < 20; i++) {
+			world.addShip(new Ship(200.0 * i, 0.0, 0.0, 0.0, 10.0, 0.0));
+		}
+		final int[] nbHits = new int[1];
+		assertAllocationBudget("projectile", 0, i -> {
+			world.getProjectiles().fire(world.getShipAt(i % 20), 300, 2, 1);
+			world.evolve(TIME_STEP);
+			nbHits[0] += world.getProjectiles().getNbHits();
+		});
+		assertTrue(nbHits[0] > 0);
+	}
+
+	/**
+	 * A test suit which tests whether moving every ship of a synthetic world stays within its time budget.
+	 */
+	@Test
+	public void testTickTime() {
+		assertTimeBudget("tickTime", 2000000, i -> {
+			for (Ship ship : ships) {
+				ship.move(TIME_STEP);
+			}
+		});
+	}
+
+	/**
+	 * A test suit which tests whether advancing the clock of a synthetic world and reading every position
+	 * stays within its time budget.
+	 */
+	@Test
+	public void testWorldTickTime() {
+		World world = new World();
+		for (Ship ship : ships) {
+			world.addShip(ship);
+		}
+		assertTimeBudget("worldTickTime", 2000000, i -> {
+			world.advanceTime(TIME_STEP);
+			double sum = 0;
+			for (int j = 0; j < world.getNbShips(); j++) {
+				sum += world.getShipAt(j).getPositionX();
+			}
+			assertFalse(Double.isNaN(sum));
+		});
+	}
+}
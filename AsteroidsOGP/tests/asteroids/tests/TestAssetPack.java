@@ -0,0 +1,127 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import asteroids.util.internal.AssetPack;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * A class containing test suits for asset packs.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestAssetPack {
+
+	private Path directory;
+	private Path packFile;
+
+	/**
+	 * A set up method which packs a directory with two images and a sound.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("assets");
+		Files.createDirectories(directory.resolve("images"));
+		Files.createDirectories(directory.resolve("sounds"));
+		Files.write(directory.resolve("images/ship.png"), "ship".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("images/bullet.png"), "bullet!".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("sounds/thrust.wav"), new byte[0]);
+		packFile = Files.createTempFile("assets", ".pack");
+		AssetPack.create(packFile, directory);
+	}
+
+	/**
+	 * A tear down method which removes the temporary files.
+	 */
+	@After
+	public void tearDown() throws IOException {
+		ResourceUtils.unmountAssetPacks();
+		try (Stream<Path> walk = Files.walk(directory)) {
+			for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+				Files.delete(path);
+		}
+		Files.delete(packFile);
+	}
+
+	private static String read(InputStream stream) throws IOException {
+		byte[] buffer = new byte[64];
+		int length = 0;
+		for (int n; (n = stream.read(buffer, length, buffer.length - length)) > 0;)
+			length += n;
+		return new String(buffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A test suit which tests whether the entries of a pack have the contents of the packed files.
+	 */
+	@Test
+	public void testRead() throws IOException {
+		AssetPack pack = AssetPack.open(packFile);
+		assertEquals(3, pack.getNames().size());
+		assertEquals("ship", read(pack.openResource("images/ship.png")));
+		assertEquals("bullet!", read(pack.openResource("images/bullet.png")));
+		assertEquals(-1, pack.openResource("sounds/thrust.wav").read());
+		assertEquals(7, pack.getBuffer("images/bullet.png").remaining());
+		assertNull(pack.openResource("images/missing.png"));
+	}
+
+	/**
+	 * A test suit which tests whether a folder lists only the entries directly in it.
+	 */
+	@Test
+	public void testListFileNames() throws IOException {
+		AssetPack pack = AssetPack.open(packFile);
+		assertEquals(Arrays.asList("bullet.png", "ship.png"),
+				pack.listFileNames("images").collect(Collectors.toList()));
+		assertEquals(0, pack.listFileNames("").count());
+		assertTrue(pack.containsFolder("sounds"));
+		assertFalse(pack.containsFolder("music"));
+	}
+
+	/**
+	 * A test suit which tests whether mounted packs are consulted by the resource utilities.
+	 */
+	@Test
+	public void testMount() throws IOException {
+		ResourceUtils.mountAssetPack(packFile);
+		assertEquals("ship", read(ResourceUtils.openResource("images/ship.png")));
+		assertEquals(2, ResourceUtils.listFileNames("images").count());
+	}
+
+	/**
+	 * A test suit which tests whether images cached while a pack was mounted are forgotten once it is unmounted.
+	 */
+	@Test
+	public void testUnmount() throws IOException {
+		ResourceUtils.mountAssetPack(packFile);
+		ResourceUtils.getImageCache().put("images/ship.png", new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB));
+		ResourceUtils.unmountAssetPacks();
+		assertNull(ResourceUtils.getImageCache().get("images/ship.png"));
+		assertEquals(0, ResourceUtils.getImageCache().getNbImages());
+	}
+
+	/**
+	 * A test suit which tests whether a file which is not an asset pack is rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void testNotAPack() throws IOException {
+		Files.write(packFile, "not a pack".getBytes(StandardCharsets.UTF_8));
+		AssetPack.open(packFile);
+	}
+}
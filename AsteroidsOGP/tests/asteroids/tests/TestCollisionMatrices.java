@@ -0,0 +1,137 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.CollisionMatrices;
+import asteroids.model.PairList;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the all-pairs collision matrices.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestCollisionMatrices {
+
+	private static final int NB_SHIPS = 600;
+
+	private Ship[] ships;
+	private CollisionMatrices matrices;
+
+	/**
+	 * A set up method which creates ships at random positions, spanning several tiles.
+	 */
+	@Before
+	public void setUp() {
+		Random random = new Random(3);
+		ships = new Ship[NB_SHIPS];
+		for (int i = 0; i < NB_SHIPS; i++)
+			ships[i] = new Ship(2000 * random.nextDouble(), 2000 * random.nextDouble(),
+					100 * random.nextGaussian(), 100 * random.nextGaussian(), 10 + 40 * random.nextDouble(), 0);
+		matrices = new CollisionMatrices(ships);
+	}
+
+	/**
+	 * A test suit which tests whether the dense matrices match the methods of the class Ship.
+	 */
+	@Test
+	public void testDense() {
+		double[] distances = matrices.getDistanceMatrix();
+		double[] times = matrices.getTimeToCollisionMatrix();
+		assertEquals(NB_SHIPS * NB_SHIPS, distances.length);
+		for (int i = 0; i < NB_SHIPS; i++) {
+			for (int j = 0; j < NB_SHIPS; j++) {
+				assertEquals(ships[i].getDistanceBetween(ships[j]), distances[i * NB_SHIPS + j], 1e-9);
+				assertEquals(ships[i].getTimeToCollision(ships[j]), times[i * NB_SHIPS + j], 1e-9);
+			}
+		}
+	}
+
+	/**
+	 * A test suit which tests whether the sparse lists contain exactly the pairs within the limit.
+	 */
+	@Test
+	public void testSparse() {
+		double[] times = matrices.getTimeToCollisionMatrix();
+		PairList pairs = matrices.getPairsCollidingWithin(2.0);
+		int expected = 0;
+		for (int i = 0; i < NB_SHIPS; i++)
+			for (int j = i + 1; j < NB_SHIPS; j++)
+				if (times[i * NB_SHIPS + j] <= 2.0)
+					expected++;
+		assertTrue(expected > 0);
+		assertEquals(expected, pairs.getSize());
+		for (int k = 0; k < pairs.getSize(); k++) {
+			assertTrue(pairs.getFirst(k) < pairs.getSecond(k));
+			assertEquals(times[pairs.getFirst(k) * NB_SHIPS + pairs.getSecond(k)], pairs.getValue(k), 0.0);
+		}
+		PairList close = matrices.getPairsWithinDistance(0);
+		for (int k = 0; k < close.getSize(); k++)
+			assertTrue(ships[close.getFirst(k)].getDistanceBetween(ships[close.getSecond(k)]) <= 0);
+	}
+
+	/**
+	 * A test suit which tests whether the results do not depend on the pool.
+	 */
+	@Test
+	public void testSingleThreaded() {
+		double[] expected = matrices.getDistanceMatrix();
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			matrices.setPool(pool);
+			assertArrayEquals(expected, matrices.getDistanceMatrix(), 0.0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A test suit which tests whether ships of a world that wraps around are compared across its edges, as the
+	 * methods of the class Ship do.
+	 */
+	@Test
+	public void testSeam() {
+		World world = new World(1000, 1000, BoundaryMode.TOROIDAL);
+		Ship ship1 = new Ship(5.0, 500.0, 0.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(995.0, 500.0, 0.0, 0.0, 10.0, 0.0);
+		Ship ship3 = new Ship(30.0, 200.0, -5.0, 0.0, 10.0, 0.0);
+		Ship ship4 = new Ship(970.0, 200.0, 5.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		world.addShip(ship3);
+		world.addShip(ship4);
+		CollisionMatrices seam = new CollisionMatrices(world);
+		double[] distances = seam.getDistanceMatrix();
+		double[] times = seam.getTimeToCollisionMatrix();
+		assertEquals(-10.0, distances[1], 1e-9);
+		assertEquals(4.0, times[2 * 4 + 3], 1e-9);
+		Ship[] inWorld = {ship1, ship2, ship3, ship4};
+		for (int i = 0; i < inWorld.length; i++) {
+			for (int j = 0; j < inWorld.length; j++) {
+				assertEquals(inWorld[i].getDistanceBetween(inWorld[j]), distances[i * 4 + j], 1e-9);
+				assertEquals(inWorld[i].getTimeToCollision(inWorld[j]), times[i * 4 + j], 1e-9);
+			}
+		}
+		assertArrayEquals(distances, new CollisionMatrices(inWorld).getDistanceMatrix(), 0.0);
+		assertEquals(1, seam.getPairsWithinDistance(0).getSize());
+	}
+
+	/**
+	 * A test suit which tests whether an empty set of ships gives empty results.
+	 */
+	@Test
+	public void testEmpty() {
+		CollisionMatrices empty = new CollisionMatrices(new Ship[0]);
+		assertEquals(0, empty.getDistanceMatrix().length);
+		assertEquals(0, empty.getPairsWithinDistance(Double.POSITIVE_INFINITY).getSize());
+	}
+}
@@ -0,0 +1,150 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.CollisionPredictionCache;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the cache of collision predictions and the trajectory versions of ships.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestCollisionPredictionCache {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether the trajectory version of a ship increases whenever its trajectory changes.
+	 */
+	@Test
+	public void testTrajectoryVersion() {
+		Ship ship = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		long version = ship.getTrajectoryVersion();
+		ship.getTimeToCollision(new Ship(100.0, 0.0, 0.0, 0.0, 10.0, 0.0));
+		assertEquals(version, ship.getTrajectoryVersion());
+		ship.thrust(5);
+		assertTrue(ship.getTrajectoryVersion() > version);
+		version = ship.getTrajectoryVersion();
+		ship.turn(1);
+		assertTrue(ship.getTrajectoryVersion() > version);
+		version = ship.getTrajectoryVersion();
+		ship.setMaximumVelocity(5);
+		assertTrue(ship.getTrajectoryVersion() > version);
+		version = ship.getTrajectoryVersion();
+		ship.move(1);
+		assertTrue(ship.getTrajectoryVersion() > version);
+	}
+
+	/**
+	 * A test suit which tests whether repeated queries are answered from the cache with the results of the ships.
+	 */
+	@Test
+	public void testRepeatedQueries() {
+		CollisionPredictionCache cache = new CollisionPredictionCache(16);
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 5.0, -10.0, 0.0, 10.0, 0.0);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(ship1.getTimeToCollision(ship2), cache.getTimeToCollision(ship1, ship2), EPSILON);
+			assertEquals(ship1.getTimeToCollision(ship2), cache.getTimeToCollision(ship2, ship1), EPSILON);
+			double[] position = cache.getCollisionPosition(ship1, ship2);
+			assertEquals(ship1.getCollisionPosition(ship2).getX(), position[0], EPSILON);
+			assertEquals(ship1.getCollisionPosition(ship2).getY(), position[1], EPSILON);
+		}
+		assertEquals(1, cache.getNbMisses());
+		assertEquals(8, cache.getNbHits());
+	}
+
+	/**
+	 * A test suit which tests whether a change of trajectory makes the predictions of a ship stale.
+	 */
+	@Test
+	public void testChangedTrajectory() {
+		CollisionPredictionCache cache = new CollisionPredictionCache(16);
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		assertEquals(8.0, cache.getTimeToCollision(ship1, ship2), EPSILON);
+		ship1.thrust(10);
+		assertEquals(4.0, cache.getTimeToCollision(ship1, ship2), EPSILON);
+		ship1.turn(Math.PI);
+		ship1.thrust(100);
+		assertEquals(Double.POSITIVE_INFINITY, cache.getTimeToCollision(ship1, ship2), 0.0);
+		assertEquals(3, cache.getNbMisses());
+		assertNull(cache.getCollisionPosition(ship1, ship2));
+		assertEquals(1, cache.getNbHits());
+	}
+
+	/**
+	 * A test suit which tests whether predictions between coasting ships remain valid while their world evolves.
+	 */
+	@Test
+	public void testEvolvingWorld() {
+		CollisionPredictionCache cache = new CollisionPredictionCache(16);
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 0.0, -10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(4.0, cache.getTimeToCollision(ship1, ship2), EPSILON);
+		world.evolve(1.5);
+		assertEquals(2.5, cache.getTimeToCollision(ship1, ship2), EPSILON);
+		assertEquals(1, cache.getNbHits());
+		world.evolve(10);
+		assertEquals(Double.POSITIVE_INFINITY, cache.getTimeToCollision(ship1, ship2), 0.0);
+		assertEquals(Double.POSITIVE_INFINITY, ship1.getTimeToCollision(ship2), 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether predictions in a world that wraps around are only reused at the moment they
+	 * were made.
+	 */
+	@Test
+	public void testWrappingWorld() {
+		CollisionPredictionCache cache = new CollisionPredictionCache(16);
+		World world = new World(200, 200, BoundaryMode.TOROIDAL);
+		Ship ship1 = new Ship(20.0, 100.0, -10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(150.0, 100.0, 0.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(ship1.getTimeToCollision(ship2), cache.getTimeToCollision(ship1, ship2), EPSILON);
+		assertEquals(ship1.getTimeToCollision(ship2), cache.getTimeToCollision(ship1, ship2), EPSILON);
+		world.evolve(1);
+		assertEquals(ship1.getTimeToCollision(ship2), cache.getTimeToCollision(ship1, ship2), EPSILON);
+		assertEquals(1, cache.getNbHits());
+	}
+
+	/**
+	 * A test suit which tests whether the least recently used predictions are evicted from a full cache.
+	 */
+	@Test
+	public void testEviction() {
+		CollisionPredictionCache cache = new CollisionPredictionCache(2);
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		Ship ship3 = new Ship(0.0, 100.0, 0.0, 0.0, 10.0, 0.0);
+		cache.getCollisionPosition(ship1, ship2);
+		cache.getCollisionPosition(ship1, ship3);
+		cache.getCollisionPosition(ship1, ship2);
+		cache.getCollisionPosition(ship2, ship3);
+		assertEquals(2, cache.getSize());
+		cache.getCollisionPosition(ship1, ship2);
+		assertEquals(2, cache.getNbHits());
+		cache.getCollisionPosition(ship1, ship3);
+		assertEquals(4, cache.getNbMisses());
+		cache.setCapacity(1);
+		assertEquals(1, cache.getSize());
+	}
+
+	/**
+	 * A test suit which tests whether a cache without room is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new CollisionPredictionCache(0);
+	}
+}
@@ -0,0 +1,156 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the resolution of collisions in evolving worlds.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestCollisionResolver {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether two equal ships colliding head-on exchange their velocities at the moment
+	 * they touch.
+	 */
+	@Test
+	public void testHeadOn() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 0.0, -10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(1, world.evolve(10));
+		assertEquals(10.0, world.getTime(), EPSILON);
+		assertEquals(-10.0, ship1.getVelocityX(), EPSILON);
+		assertEquals(10.0, ship2.getVelocityX(), EPSILON);
+		assertEquals(-20.0, ship1.getPositionX(), EPSILON);
+		assertEquals(120.0, ship2.getPositionX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether an oblique collision between ships of different sizes conserves momentum and
+	 * kinetic energy.
+	 */
+	@Test
+	public void testConservation() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 20.0, 3.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 15.0, -5.0, 0.0, 30.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		double momentumX = ship1.getMass() * ship1.getVelocityX() + ship2.getMass() * ship2.getVelocityX();
+		double momentumY = ship1.getMass() * ship1.getVelocityY() + ship2.getMass() * ship2.getVelocityY();
+		double energy = kineticEnergy(ship1) + kineticEnergy(ship2);
+		assertEquals(1, world.evolve(10));
+		assertEquals(1.0, (ship1.getMass() * ship1.getVelocityX() + ship2.getMass() * ship2.getVelocityX())
+				/ momentumX, EPSILON);
+		assertEquals(1.0, (ship1.getMass() * ship1.getVelocityY() + ship2.getMass() * ship2.getVelocityY())
+				/ momentumY, EPSILON);
+		assertEquals(1.0, (kineticEnergy(ship1) + kineticEnergy(ship2)) / energy, EPSILON);
+		assertTrue(ship1.getDistanceBetween(ship2) > 0);
+	}
+
+	private static double kineticEnergy(Ship ship) {
+		return ship.getMass() * (ship.getVelocityX() * ship.getVelocityX() + ship.getVelocityY() * ship.getVelocityY())
+				/ 2;
+	}
+
+	/**
+	 * A test suit which tests whether the velocity after a bounce is limited to the maximum velocity of the ship.
+	 */
+	@Test
+	public void testMaximumVelocity() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 0.0, -50.0, 0.0, 10.0, 0.0);
+		ship1.setMaximumVelocity(5);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(1, world.evolve(10));
+		assertEquals(-5.0, ship1.getVelocityX(), EPSILON);
+		assertEquals(0.0, ship2.getVelocityX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a collision caused by a bounce is handled within the same step, in a row of
+	 * ships at rest hit by an equal ship.
+	 */
+	@Test
+	public void testChain() {
+		World world = new World();
+		Ship[] ships = new Ship[4];
+		for (int i = 0; i < ships.length; i++) {
+			ships[i] = new Ship(30.0 * i, 0.0, i == 0 ? 10.0 : 0.0, 0.0, 10.0, 0.0);
+			world.addShip(ships[i]);
+		}
+		assertEquals(3, world.evolve(10));
+		for (int i = 0; i < 3; i++)
+			assertEquals(0.0, ships[i].getVelocityX(), EPSILON);
+		assertEquals(10.0, ships[3].getVelocityX(), EPSILON);
+		assertEquals(160.0, ships[3].getPositionX(), EPSILON);
+		assertEquals(70.0, ships[2].getPositionX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether ships that only pass each other do not bounce.
+	 */
+	@Test
+	public void testMiss() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 25.0, -10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(0, world.evolve(10));
+		assertEquals(100.0, ship1.getPositionX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether the outcome of a crowded world is deterministic.
+	 */
+	@Test
+	public void testDeterministic() {
+		World world1 = crowdedWorld();
+		World world2 = crowdedWorld();
+		int nbBounces = 0;
+		for (int i = 0; i < 100; i++) {
+			int step = world1.evolve(0.1);
+			assertEquals(step, world2.evolve(0.1));
+			nbBounces += step;
+		}
+		assertTrue(nbBounces > 0);
+		for (int i = 0; i < world1.getNbShips(); i++) {
+			assertEquals(world1.getShipAt(i).getPositionX(), world2.getShipAt(i).getPositionX(), 0.0);
+			assertEquals(world1.getShipAt(i).getVelocityY(), world2.getShipAt(i).getVelocityY(), 0.0);
+		}
+	}
+
+	private static World crowdedWorld() {
+		World world = new World();
+		Random random = new Random(9);
+		for (int i = 0; i < 200; i++) {
+			world.addShip(new Ship(50.0 * (i % 20) + 5 * random.nextDouble(), 50.0 * (i / 20), 50 * random.nextGaussian(),
+					50 * random.nextGaussian(), 10 + 10 * random.nextDouble(), 0.0));
+		}
+		return world;
+	}
+
+	/**
+	 * A test suit which tests whether a negative time difference is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTime() {
+		new World().evolve(-1);
+	}
+}
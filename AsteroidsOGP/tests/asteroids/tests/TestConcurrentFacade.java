@@ -0,0 +1,175 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import asteroids.facade.ConcurrentFacade;
+import asteroids.facade.Facade;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldAggregates;
+import asteroids.util.ModelException;
+
+/**
+ * A class containing test suits for the facade that can be used by several threads at once.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestConcurrentFacade {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether a single thread gets the same results as through the ordinary facade.
+	 */
+	@Test
+	public void testSingleThread() throws ModelException {
+		ConcurrentFacade facade = new ConcurrentFacade(8);
+		Facade reference = new Facade();
+		Ship ship1 = facade.createShip(0.0, 0.0, 10.0, 3.0, 10.0, 0.0);
+		Ship ship2 = facade.createShip(100.0, 15.0, -5.0, 0.0, 30.0, 0.0);
+		facade.thrust(ship1, 5);
+		facade.turn(ship2, 1);
+		facade.move(ship1, 0.5);
+		assertEquals(7.5, facade.getShipPosition(ship1)[0], EPSILON);
+		assertEquals(15.0, facade.getShipVelocity(ship1)[0], EPSILON);
+		assertEquals(1.0, facade.getShipOrientation(ship2), EPSILON);
+		assertEquals(30.0, facade.getShipRadius(ship2), EPSILON);
+		assertEquals(reference.getDistanceBetween(ship1, ship2), facade.getDistanceBetween(ship1, ship2), EPSILON);
+		assertEquals(reference.getTimeToCollision(ship1, ship2), facade.getTimeToCollision(ship1, ship2), EPSILON);
+		assertEquals(reference.getCollisionPosition(ship1, ship2)[1], facade.getCollisionPosition(ship1, ship2)[1],
+				EPSILON);
+		assertFalse(facade.overlap(ship1, ship2));
+		assertTrue(facade.overlap(ship1, ship1));
+		assertEquals(8, facade.getNbStripes());
+		assertEquals(16, new ConcurrentFacade(9).getNbStripes());
+	}
+
+	/**
+	 * A test suit which tests whether moves of a shared ship by several threads are not lost.
+	 */
+	@Test
+	public void testConcurrentMoves() throws Exception {
+		final ConcurrentFacade facade = new ConcurrentFacade(4);
+		final Ship ship = facade.createShip(0.0, 0.0, 1.0, 0.0, 10.0, 0.0);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					for (int i = 0; i < 20000; i++)
+						facade.move(ship, 1);
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertNull(failure.get());
+		assertEquals(80000.0, facade.getShipPosition(ship)[0], EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether readers only see velocities a writer set, never a mix of two of them.
+	 */
+	@Test
+	public void testConsistentReads() throws Exception {
+		final ConcurrentFacade facade = new ConcurrentFacade(4);
+		final Ship ship = facade.createShip(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		ship.setMaximumVelocity(10);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread writer = new Thread(() -> {
+			try {
+				// every thrust swings the velocity to the heading, a quarter turn away from the last one
+				for (int i = 0; i < 50000; i++) {
+					facade.turn(ship, Math.PI / 2);
+					facade.thrust(ship, 1e9);
+				}
+			} catch (Throwable e) {
+				failure.set(e);
+			}
+		});
+		writer.start();
+		int nbReads = 0;
+		while (writer.isAlive() || nbReads == 0) {
+			double[] velocity = facade.getShipVelocity(ship);
+			assertTrue(Math.hypot(velocity[0], velocity[1]) <= 10 + EPSILON);
+			nbReads++;
+		}
+		writer.join();
+		assertNull(failure.get());
+	}
+
+	/**
+	 * A test suit which tests whether threads changing different ships of one world keep the aggregates and the
+	 * state version of that world consistent.
+	 */
+	@Test
+	public void testSharedWorld() throws Exception {
+		final ConcurrentFacade facade = new ConcurrentFacade(16);
+		final World world = new World();
+		final Ship[] ships = new Ship[8];
+		for (int i = 0; i < ships.length; i++) {
+			ships[i] = facade.createShip(100.0 * i, 0.0, 0.0, 0.0, 10.0, 0.0);
+			world.addShip(ships[i]);
+		}
+		long version = world.getStateVersion();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = 2 * t;
+			threads[t] = new Thread(() -> {
+				try {
+					for (int i = 0; i < 5000; i++) {
+						Ship ship = ships[first + i % 2];
+						facade.thrust(ship, 0.001);
+						facade.turn(ship, 0.5);
+						facade.move(ship, 0.01);
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertNull(failure.get());
+		assertEquals(version + 3 * 5000 * threads.length, world.getStateVersion());
+		double mass = 0, energy = 0, momentX = 0, momentY = 0;
+		for (Ship ship : ships) {
+			double speed = Math.hypot(ship.getVelocityX(), ship.getVelocityY());
+			mass += ship.getMass();
+			energy += ship.getMass() * speed * speed / 2;
+			momentX += ship.getMass() * ship.getPositionX();
+			momentY += ship.getMass() * ship.getPositionY();
+		}
+		WorldAggregates aggregates = world.getAggregates();
+		assertEquals(1.0, aggregates.getTotalMass() / mass, EPSILON);
+		assertEquals(1.0, aggregates.getKineticEnergy() / energy, EPSILON);
+		assertEquals(momentX / mass, aggregates.getCenterOfMassX(), EPSILON);
+		assertEquals(momentY / mass, aggregates.getCenterOfMassY(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a ship that does not exist is rejected.
+	 */
+	@Test(expected = ModelException.class)
+	public void testNullShip() throws ModelException {
+		new ConcurrentFacade().getShipPosition(null);
+	}
+
+	/**
+	 * A test suit which tests whether a facade without stripes is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNbStripes() {
+		new ConcurrentFacade(0);
+	}
+}
@@ -0,0 +1,121 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import asteroids.part1.internal.ErrorReporter;
+
+/**
+ * A class containing test suits for the reporter collecting the errors of the game loop.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestErrorReporter {
+
+	/**
+	 * Constant registering a flush interval long enough for the background thread never to flush during a test.
+	 */
+	private static final long FLUSH_INTERVAL = 3_600_000;
+
+	/**
+	 * A test suit which tests whether identical errors are collapsed: printed once in full, then summarized.
+	 */
+	@Test
+	public void testCollapsing() {
+		ByteArrayOutputStream sink = new ByteArrayOutputStream();
+		ErrorReporter reporter = new ErrorReporter(new PrintStream(sink, true), FLUSH_INTERVAL, 10);
+		for (int i = 0; i < 5; i++)
+			reporter.report(error("collapsed"));
+		assertEquals(5, reporter.getCount(error("collapsed")));
+		reporter.flush();
+		String[] lines = lines(sink);
+		assertEquals(1, countStarting(lines, "java.lang.IllegalStateException: collapsed"));
+		assertEquals("\t(repeated 4 more times)", lines[lines.length - 1]);
+		sink.reset();
+		for (int i = 0; i < 3; i++)
+			reporter.report(error("collapsed"));
+		reporter.flush();
+		lines = lines(sink);
+		assertEquals(1, lines.length);
+		assertEquals("java.lang.IllegalStateException: collapsed (repeated 3 more times, 8 in total)", lines[0]);
+		sink.reset();
+		reporter.flush();
+		assertEquals(0, sink.size());
+		reporter.close();
+	}
+
+	/**
+	 * A test suit which tests whether a flush writes at most the given number of errors, and whether later flushes
+	 * continue with the errors left out, so errors that recur before every flush are all written.
+	 */
+	@Test
+	public void testLineCap() {
+		ByteArrayOutputStream sink = new ByteArrayOutputStream();
+		ErrorReporter reporter = new ErrorReporter(new PrintStream(sink, true), FLUSH_INTERVAL, 4);
+		int[] written = new int[10];
+		for (int flush = 0; flush < 3; flush++) {
+			for (int i = 0; i < 10; i++)
+				reporter.report(error("error " + i));
+			sink.reset();
+			reporter.flush();
+			int nbWritten = 0;
+			for (String line : lines(sink)) {
+				if (line.startsWith("java.lang.IllegalStateException: error ")) {
+					written[Integer.parseInt(line.split(" ")[2])]++;
+					nbWritten++;
+				}
+			}
+			assertEquals(4, nbWritten);
+		}
+		for (int i = 0; i < 10; i++)
+			assertTrue(written[i] >= 1);
+		assertEquals(3, reporter.getCount(error("error 9")));
+		reporter.close();
+	}
+
+	/**
+	 * A test suit which tests whether errors beyond the maximum number of distinct errors are counted as dropped.
+	 */
+	@Test
+	public void testDroppedErrors() {
+		ByteArrayOutputStream sink = new ByteArrayOutputStream();
+		ErrorReporter reporter = new ErrorReporter(new PrintStream(sink, true), FLUSH_INTERVAL, 1000);
+		// the reporter keeps at most 256 distinct errors
+		for (int i = 0; i < 256 + 5; i++)
+			reporter.report(error("error " + i));
+		assertEquals(0, reporter.getCount(error("error 260")));
+		reporter.flush();
+		String[] lines = lines(sink);
+		assertEquals(256, countStarting(lines, "java.lang.IllegalStateException: error "));
+		assertEquals("5 errors dropped: too many distinct errors", lines[lines.length - 1]);
+		sink.reset();
+		reporter.flush();
+		assertEquals(0, sink.size());
+		reporter.close();
+	}
+
+	/**
+	 * Returns a new error with the given message, raised at the same site as every other error this method returns.
+	 */
+	private static IllegalStateException error(String message) {
+		return new IllegalStateException(message);
+	}
+
+	private static String[] lines(ByteArrayOutputStream sink) {
+		return sink.toString().split("\\R");
+	}
+
+	private static int countStarting(String[] lines, String prefix) {
+		int count = 0;
+		for (String line : lines) {
+			if (line.startsWith(prefix))
+				count++;
+		}
+		return count;
+	}
+}
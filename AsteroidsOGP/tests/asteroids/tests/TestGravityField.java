@@ -0,0 +1,164 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.GravityField;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the gravitational attraction between ships.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestGravityField {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether two ships attract each other with equal and opposite forces.
+	 */
+	@Test
+	public void testTwoShips() {
+		World world = new World();
+		world.addShip(new Ship(0.0, 0.0, 0.0, 0.0, 10.0, 0.0));
+		world.addShip(new Ship(1000.0, 0.0, 0.0, 0.0, 20.0, 0.0));
+		GravityField field = new GravityField();
+		field.compute(world);
+		Ship ship1 = world.getShipAt(0);
+		Ship ship2 = world.getShipAt(1);
+		double softened = 1000.0 * 1000.0 + GravityField.SOFTENING * GravityField.SOFTENING;
+		double expected = GravityField.GRAVITATIONAL_CONSTANT * ship2.getMass() * 1000.0 / Math.pow(softened, 1.5);
+		assertEquals(1.0, field.getAccelerationX(0) / expected, EPSILON);
+		assertEquals(0.0, field.getAccelerationY(0), 0.0);
+		assertEquals(-1.0, ship2.getMass() * field.getAccelerationX(1) / (ship1.getMass() * expected), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether the attractions in small worlds match the sum over all pairs of ships: exactly
+	 * with an opening angle of zero, and within a small error with the default opening angle.
+	 */
+	@Test
+	public void testDirectSum() {
+		Random random = new Random(17);
+		for (int trial = 0; trial < 5; trial++) {
+			World world = new World(5000, 5000, BoundaryMode.REFLECTIVE);
+			for (int i = 0; i < 300; i++) {
+				world.addShip(new Ship(5000 * random.nextDouble(), 5000 * random.nextDouble(), 0.0, 0.0,
+						10 + 30 * random.nextDouble(), 0.0));
+			}
+			GravityField exact = new GravityField(GravityField.GRAVITATIONAL_CONSTANT, 0);
+			exact.compute(world);
+			GravityField approximate = new GravityField();
+			approximate.compute(world);
+			assertEquals(0.0, relativeError(world, exact, 0, world.getNbShips()), 1e-12);
+			assertTrue(relativeError(world, approximate, 0, world.getNbShips()) < 0.01);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether the attractions in a world large enough to build the tree in parallel match
+	 * the sum over all pairs of ships, for a sample of the ships.
+	 */
+	@Test
+	public void testLargeWorld() {
+		Random random = new Random(19);
+		World world = new World();
+		for (int i = 0; i < 20000; i++) {
+			// a dense core with a sparse halo, so the tree is deep in some places and shallow in others
+			double distance = 20000 * Math.pow(random.nextDouble(), 3);
+			double angle = 2 * Math.PI * random.nextDouble();
+			world.addShip(new Ship(distance * Math.cos(angle), distance * Math.sin(angle), 0.0, 0.0,
+					10 + 10 * random.nextDouble(), 0.0));
+		}
+		GravityField field = new GravityField();
+		field.compute(world);
+		assertTrue(relativeError(world, field, 0, 200) < 0.01);
+		field.setOpeningAngle(0);
+		field.compute(world);
+		assertEquals(0.0, relativeError(world, field, 0, 200), 1e-9);
+	}
+
+	/**
+	 * Returns the root of the mean squared error of the accelerations of the ships with indices in the given range,
+	 * relative to the root of the mean squared acceleration of the sum over all pairs of ships.
+	 */
+	private static double relativeError(World world, GravityField field, int start, int end) {
+		double error = 0, norm = 0;
+		for (int i = start; i < end; i++) {
+			Ship ship = world.getShipAt(i);
+			double accelerationX = 0, accelerationY = 0;
+			for (int j = 0; j < world.getNbShips(); j++) {
+				if (j == i)
+					continue;
+				Ship other = world.getShipAt(j);
+				double deltaX = other.getPositionX() - ship.getPositionX();
+				double deltaY = other.getPositionY() - ship.getPositionY();
+				double softened = deltaX * deltaX + deltaY * deltaY + GravityField.SOFTENING * GravityField.SOFTENING;
+				double factor = GravityField.GRAVITATIONAL_CONSTANT * other.getMass() / Math.pow(softened, 1.5);
+				accelerationX += factor * deltaX;
+				accelerationY += factor * deltaY;
+			}
+			error += Math.pow(field.getAccelerationX(i) - accelerationX, 2)
+					+ Math.pow(field.getAccelerationY(i) - accelerationY, 2);
+			norm += accelerationX * accelerationX + accelerationY * accelerationY;
+		}
+		return Math.sqrt(error / norm);
+	}
+
+	/**
+	 * A test suit which tests whether ships at rest fall towards each other while their world evolves, no faster than
+	 * their maximum velocity, and keep their total momentum.
+	 */
+	@Test
+	public void testEvolve() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 0.0, 0.0, 30.0, 0.0);
+		Ship ship2 = new Ship(500.0, 0.0, 0.0, 0.0, 30.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		world.setGravity(new GravityField());
+		world.evolve(0.1);
+		assertTrue(ship1.getVelocityX() > 0);
+		assertTrue(ship2.getVelocityX() < 0);
+		assertEquals(0.0, ship1.getVelocityX() + ship2.getVelocityX(), EPSILON);
+		ship1.setMaximumVelocity(0.001);
+		for (int step = 0; step < 10; step++)
+			world.evolve(0.1);
+		assertTrue(ship1.getVelocityX() <= 0.001 + EPSILON);
+		world.setGravity(null);
+		double velocity = ship2.getVelocityX();
+		world.evolve(0.1);
+		assertEquals(velocity, ship2.getVelocityX(), 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether ships sharing a position do not attract each other without bound.
+	 */
+	@Test
+	public void testCoincidentShips() {
+		World world = new World();
+		for (int i = 0; i < 50; i++)
+			world.addShip(new Ship(100.0, 100.0, 0.0, 0.0, 10.0, 0.0));
+		GravityField field = new GravityField();
+		field.compute(world);
+		for (int i = 0; i < world.getNbShips(); i++) {
+			assertEquals(0.0, field.getAccelerationX(i), 0.0);
+			assertEquals(0.0, field.getAccelerationY(i), 0.0);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether a negative opening angle is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidOpeningAngle() {
+		new GravityField(GravityField.GRAVITATIONAL_CONSTANT, -0.1);
+	}
+}
@@ -0,0 +1,99 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import asteroids.part1.internal.InputLatencyTracker;
+import asteroids.part1.internal.LatencyHistogram;
+import asteroids.part1.internal.PerformanceHud;
+
+/**
+ * A class containing test suits for the tracking of the latency between input and display.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestInputLatency {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether the percentiles of a histogram lie within a quarter of the recorded values.
+	 */
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1_000_000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500.5e6, histogram.getMean(), EPSILON);
+		assertEquals(1_000_000_000, histogram.getMaximum());
+		long median = histogram.getPercentile(50);
+		assertTrue(500_000_000 <= median && median <= 625_000_000);
+		long p99 = histogram.getPercentile(99);
+		assertTrue(990_000_000 <= p99 && p99 <= 1_000_000_000);
+		assertEquals(1_000_000_000, histogram.getPercentile(100));
+	}
+
+	/**
+	 * A test suit which tests whether small, zero, negative and huge durations are recorded.
+	 */
+	@Test
+	public void testExtremes() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		histogram.record(0);
+		histogram.record(3);
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(4, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(3, histogram.getPercentile(75));
+		assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+		assertTrue(histogram.toString().startsWith("n=4 "));
+		histogram.clear();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50));
+	}
+
+	/**
+	 * A test suit which tests whether events are followed from input through the tick applying them to the next
+	 * frame.
+	 */
+	@Test
+	public void testTracker() {
+		InputLatencyTracker tracker = new InputLatencyTracker(2);
+		tracker.received(100);
+		tracker.received(300);
+		tracker.received(400);
+		assertEquals(1, tracker.getNbDropped());
+		tracker.displayed(500);
+		assertEquals(0, tracker.getDisplayLatencies().getCount());
+		tracker.applied(1_000);
+		assertEquals(2, tracker.getApplyLatencies().getCount());
+		assertEquals(800, tracker.getApplyLatencies().getMean(), EPSILON);
+		tracker.displayed(5_000);
+		assertEquals(2, tracker.getDisplayLatencies().getCount());
+		assertEquals(4_800, tracker.getDisplayLatencies().getMean(), EPSILON);
+		assertEquals(0, tracker.getNbWaiting());
+		tracker.receivedAndApplied(6_000);
+		tracker.displayed(6_500);
+		assertEquals(3, tracker.getDisplayLatencies().getCount());
+		assertEquals(4_900, tracker.getDisplayLatencies().getMaximum());
+	}
+
+	/**
+	 * A test suit which tests whether the performance overlay shows the latencies.
+	 */
+	@Test
+	public void testOverlay() {
+		PerformanceHud hud = new PerformanceHud(10, 5_000_000);
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3_000_000);
+		hud.setLatencies(histogram);
+		String[] lines = hud.toString().split("\n");
+		assertEquals(5, lines.length);
+		assertEquals("input     p50 3.00 ms  p99 3.00 ms", lines[4]);
+	}
+}
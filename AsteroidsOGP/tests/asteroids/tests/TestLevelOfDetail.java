@@ -0,0 +1,102 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import asteroids.part1.internal.DensityImage;
+import asteroids.part1.internal.LevelOfDetail;
+
+/**
+ * A class containing test suits for the level of detail with which ships are drawn.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestLevelOfDetail {
+
+	/**
+	 * A test suit which tests whether small ships lose their heading and tiny ships become points.
+	 */
+	@Test
+	public void testRadiusThresholds() {
+		LevelOfDetail levelOfDetail = new LevelOfDetail(100, 1000);
+		levelOfDetail.update(10, 1);
+		assertTrue(levelOfDetail.isAntialiased());
+		assertTrue(levelOfDetail.hasHeading(10));
+		assertFalse(levelOfDetail.isPoint(10));
+		assertFalse(levelOfDetail.hasHeading(3));
+		assertFalse(levelOfDetail.isPoint(3));
+		assertTrue(levelOfDetail.isPoint(1));
+	}
+
+	/**
+	 * A test suit which tests whether the thresholds apply to the radius on screen.
+	 */
+	@Test
+	public void testScale() {
+		LevelOfDetail levelOfDetail = new LevelOfDetail(100, 1000);
+		levelOfDetail.update(10, 0.1);
+		assertTrue(levelOfDetail.isPoint(10));
+		levelOfDetail.update(10, 4);
+		assertTrue(levelOfDetail.hasHeading(1));
+	}
+
+	/**
+	 * A test suit which tests whether crowded views turn off antialiasing and draw more ships in cheaper forms.
+	 */
+	@Test
+	public void testCrowded() {
+		LevelOfDetail levelOfDetail = new LevelOfDetail(100, 1000);
+		levelOfDetail.update(500, 1);
+		assertFalse(levelOfDetail.isAntialiased());
+		assertTrue(levelOfDetail.hasHeading(10));
+		assertFalse(levelOfDetail.isPoint(3));
+		levelOfDetail.update(5000, 1);
+		assertFalse(levelOfDetail.hasHeading(10));
+		assertTrue(levelOfDetail.isPoint(3));
+		levelOfDetail.update(50, 1);
+		assertTrue(levelOfDetail.isAntialiased());
+	}
+
+	/**
+	 * A test suit which tests whether a density image counts the points per pixel and draws more crowded pixels
+	 * more opaquely.
+	 */
+	@Test
+	public void testDensityImage() {
+		DensityImage density = new DensityImage(Color.WHITE);
+		density.reset(20, 10);
+		density.add(2.5, 3.5);
+		density.add(5.2, 6.9);
+		density.add(5.7, 6.1);
+		density.add(-1, 3);
+		density.add(25, 3);
+		assertEquals(3, density.getNbPoints());
+		assertEquals(1, density.getCount(2, 3));
+		assertEquals(2, density.getCount(5, 6));
+		BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = image.createGraphics();
+		density.draw(g2d);
+		g2d.dispose();
+		int single = image.getRGB(2, 3) & 0xFF;
+		int dense = image.getRGB(5, 6) & 0xFF;
+		assertTrue(0 < single && single < dense);
+		assertEquals(0, image.getRGB(0, 0) & 0xFFFFFF);
+		density.reset(20, 10);
+		assertEquals(0, density.getNbPoints());
+		assertEquals(0, density.getCount(5, 6));
+	}
+
+	/**
+	 * A test suit which tests whether negative limits are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLimit() {
+		new LevelOfDetail(-1, 10);
+	}
+}
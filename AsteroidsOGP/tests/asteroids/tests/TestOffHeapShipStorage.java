@@ -0,0 +1,126 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import asteroids.model.OffHeapShipStorage;
+import asteroids.model.Ship;
+
+/**
+ * A class containing test suits for the class of off-heap ship storages.
+ * The ships are the same as those of TestShip, so the results must match those of the class Ship.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestOffHeapShipStorage {
+
+	private static final double EPSILON = 0.0001;
+
+	private OffHeapShipStorage storage;
+	private int ship2;
+	private int ship3;
+	private int ship4;
+
+	/**
+	 * A set up method which stores three ships in a storage with room for only one ship.
+	 */
+	@Before
+	public void setUp() {
+		storage = new OffHeapShipStorage(1);
+		ship2 = storage.getIndexOf(storage.add(0.0,0.0,10.0,10.0,30.0,0.0));
+		ship3 = storage.getIndexOf(storage.add(100.0,0.0,0.0,0.0,30,0.0));
+		ship4 = storage.getIndexOf(storage.add(new Ship(30.0,0.0,10.0,0.0,10.0,0.0)));
+	}
+
+	/**
+	 * A test suit which tests whether the ships are stored correctly.
+	 */
+	@Test
+	public void testAdd() {
+		assertEquals(3, storage.getNbShips());
+		assertEquals(30.0,storage.getPositionX(ship4),EPSILON);
+		assertEquals(10.0,storage.getVelocityX(ship4),EPSILON);
+		assertEquals(10.0,storage.getRadius(ship4),EPSILON);
+		assertEquals(300000.0,storage.getMaximumVelocity(ship4),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests the move() and moveAll() methods.
+	 */
+	@Test
+	public void testMove() {
+		storage.move(ship2, 10);
+		assertEquals(100.0,storage.getPositionX(ship2),EPSILON);
+		assertEquals(100.0,storage.getPositionY(ship2),EPSILON);
+		storage.moveAll(1);
+		assertEquals(110.0,storage.getPositionX(ship2),EPSILON);
+		assertEquals(40.0,storage.getPositionX(ship4),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests the thrust() method, including the limit on the velocity.
+	 */
+	@Test
+	public void testThrust() {
+		storage.thrust(ship2, 10);
+		assertEquals(20.0,storage.getVelocityX(ship2),EPSILON);
+		assertEquals(10.0,storage.getVelocityY(ship2),EPSILON);
+		storage.thrust(ship2, -10);
+		assertEquals(20.0,storage.getVelocityX(ship2),EPSILON);
+		storage.setMaximumVelocity(ship3, 5);
+		storage.thrust(ship3, 10);
+		assertEquals(5.0,storage.getVelocityX(ship3),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests the turn() method.
+	 */
+	@Test
+	public void testTurn() {
+		storage.turn(ship2, Math.PI);
+		assertEquals(Math.PI,storage.getHeading(ship2),EPSILON);
+		storage.turn(ship2, Math.PI);
+		assertEquals(0.0,storage.getHeading(ship2),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests the collision detection methods.
+	 */
+	@Test
+	public void testCollisions() {
+		assertEquals(0.0,storage.getDistanceBetween(ship2, ship2),EPSILON);
+		assertEquals(40.0,storage.getDistanceBetween(ship2, ship3),EPSILON);
+		assertFalse(storage.overlap(ship2, ship3));
+		assertTrue(storage.overlap(ship2, ship4));
+		assertEquals(Double.POSITIVE_INFINITY,storage.getTimeToCollision(ship2, ship3),EPSILON);
+		assertEquals(3.0,storage.getTimeToCollision(ship4, ship3),EPSILON);
+		double[] position = new double[2];
+		assertFalse(storage.getCollisionPosition(ship2, ship3, position));
+		assertTrue(storage.getCollisionPosition(ship3, ship4, position));
+		assertEquals(70.0,position[0],EPSILON);
+		assertEquals(0.0,position[1],EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether removing a ship moves the last ship into its place.
+	 */
+	@Test
+	public void testRemove() {
+		int handle4 = storage.getHandleAt(ship4);
+		storage.remove(storage.getHandleAt(ship2));
+		assertEquals(2, storage.getNbShips());
+		assertEquals(0, storage.getIndexOf(handle4));
+		assertEquals(30.0,storage.getPositionX(0),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a ship with an invalid radius is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void add_IllegalCase() {
+		storage.add(0.0,0.0,0.0,0.0,5.0,0.0);
+	}
+}
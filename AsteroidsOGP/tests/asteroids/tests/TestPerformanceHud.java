@@ -0,0 +1,99 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import asteroids.part1.internal.PerformanceHud;
+import asteroids.part1.internal.PerformanceHud.Phase;
+import asteroids.part1.internal.TimingRing;
+
+/**
+ * A class containing test suits for the performance overlay and its rings of measurements.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestPerformanceHud {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether a ring averages and maximizes over its most recent measurements only.
+	 */
+	@Test
+	public void testRing() {
+		TimingRing ring = new TimingRing(3);
+		assertEquals(0.0, ring.getAverage(), EPSILON);
+		ring.add(10);
+		ring.add(40);
+		assertEquals(25.0, ring.getAverage(), EPSILON);
+		assertEquals(40, ring.getMaximum());
+		ring.add(1);
+		ring.add(7);
+		ring.add(4);
+		assertEquals(3, ring.getCount());
+		assertEquals(4.0, ring.getAverage(), EPSILON);
+		assertEquals(7, ring.getMaximum());
+		ring.clear();
+		assertEquals(0, ring.getCount());
+	}
+
+	/**
+	 * A test suit which tests whether the rates follow from the intervals between frames and ticks.
+	 */
+	@Test
+	public void testRates() {
+		PerformanceHud hud = new PerformanceHud(10, 1_000_000);
+		for (int i = 0; i < 5; i++) {
+			hud.frame(i * 20_000_000L);
+			hud.tick(i * 50_000_000L);
+		}
+		assertEquals(50.0, hud.getFramesPerSecond(), EPSILON);
+		assertEquals(20.0, hud.getTicksPerSecond(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether the text shows the measurements and whether slow phases are flagged.
+	 */
+	@Test
+	public void testText() {
+		PerformanceHud hud = new PerformanceHud(10, 5_000_000);
+		hud.frame(0);
+		hud.frame(25_000_000L);
+		hud.setNbShips(1234);
+		hud.record(Phase.MOVE, 1_000_000);
+		hud.record(Phase.MOVE, 2_000_000);
+		hud.record(Phase.PAINT, 12_345_678);
+		String[] lines = hud.toString().split("\n");
+		assertEquals(4, lines.length);
+		assertEquals("FPS 40.0  ticks/s 0.0  ships 1234", lines[0]);
+		assertEquals("move      avg 1.50 ms  max 2.00 ms", lines[1]);
+		assertEquals("collision avg 0.00 ms  max 0.00 ms", lines[2]);
+		assertEquals("paint     avg 12.35 ms  max 12.35 ms", lines[3]);
+		assertFalse(hud.isOverBudget(Phase.MOVE));
+		assertTrue(hud.isOverBudget(Phase.PAINT));
+	}
+
+	/**
+	 * A test suit which tests whether the overlay is only drawn when it is visible.
+	 */
+	@Test
+	public void testVisibility() {
+		PerformanceHud hud = new PerformanceHud(10, 5_000_000);
+		BufferedImage image = new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = image.createGraphics();
+		hud.draw(g2d);
+		assertEquals(Color.BLACK.getRGB(), image.getRGB(2, 2));
+		hud.setVisible(true);
+		g2d.setColor(Color.WHITE);
+		g2d.fillRect(0, 0, 300, 100);
+		hud.draw(g2d);
+		g2d.dispose();
+		assertTrue((image.getRGB(2, 2) & 0xFF) < 255);
+	}
+}
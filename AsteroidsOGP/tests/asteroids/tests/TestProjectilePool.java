@@ -0,0 +1,231 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.facade.HandleFacade;
+import asteroids.facade.IProjectileFacade;
+import asteroids.model.BoundaryMode;
+import asteroids.model.ProjectilePool;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.util.ModelException;
+
+/**
+ * A class containing test suits for the projectiles fired by ships.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestProjectilePool {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether a projectile starts in front of the ship firing it and flies along with the
+	 * clock of the world.
+	 */
+	@Test
+	public void testFire() {
+		World world = new World();
+		Ship ship = new Ship(0.0, 0.0, 5.0, 0.0, 10.0, Math.PI / 2);
+		world.addShip(ship);
+		ProjectilePool projectiles = world.getProjectiles();
+		int handle = projectiles.fire(ship, 100, 2, 1);
+		int index = projectiles.getIndexOf(handle);
+		assertEquals(1, projectiles.getNbProjectiles());
+		assertEquals(0.0, projectiles.getPositionX(index), EPSILON);
+		assertEquals(12.0, projectiles.getPositionY(index), EPSILON);
+		assertEquals(5.0, projectiles.getVelocityX(index), EPSILON);
+		assertEquals(100.0, projectiles.getVelocityY(index), EPSILON);
+		assertSame(ship, projectiles.getOwner(index));
+		world.advanceTime(0.5);
+		assertEquals(2.5, projectiles.getPositionX(index), EPSILON);
+		assertEquals(62.0, projectiles.getPositionY(index), EPSILON);
+		assertEquals(0.5, projectiles.getTimeLeft(index), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a projectile hits the first ship in its path at the moment it touches it, and
+	 * disappears.
+	 */
+	@Test
+	public void testHit() {
+		World world = new World();
+		Ship shooter = new Ship(0.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		Ship target = new Ship(200.0, 0.0, 0.0, 0.0, 20.0, 0.0);
+		Ship behind = new Ship(300.0, 0.0, 0.0, 0.0, 20.0, 0.0);
+		world.addShip(shooter);
+		int handle = world.addShip(target);
+		world.addShip(behind);
+		world.getProjectiles().fire(shooter, 100, 2, 5);
+		int nbHits = 0;
+		for (int step = 0; step < 20; step++) {
+			world.evolve(0.1);
+			for (int k = 0; k < world.getProjectiles().getNbHits(); k++) {
+				assertEquals(handle, world.getProjectiles().getHitShip(k));
+				assertEquals(1.66, world.getProjectiles().getHitTime(k), EPSILON);
+				nbHits++;
+			}
+		}
+		assertEquals(1, nbHits);
+		assertEquals(0, world.getProjectiles().getNbProjectiles());
+	}
+
+	/**
+	 * A test suit which tests whether a projectile disappears once its lifetime runs out, and never hits the ship
+	 * that fired it.
+	 */
+	@Test
+	public void testExpiry() {
+		World world = new World();
+		Ship ship = new Ship(0.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		world.addShip(ship);
+		int handle = world.getProjectiles().fire(ship, 0, 2, 0.25);
+		world.evolve(0.1);
+		world.evolve(0.1);
+		assertEquals(0, world.getProjectiles().getNbHits());
+		assertTrue(world.getProjectiles().isValidHandle(handle));
+		world.evolve(0.1);
+		assertFalse(world.getProjectiles().isValidHandle(handle));
+		assertEquals(0, world.getProjectiles().getNbProjectiles());
+	}
+
+	/**
+	 * A test suit which tests whether a projectile disappears when it touches a wall.
+	 */
+	@Test
+	public void testWall() {
+		World world = new World(100, 100, BoundaryMode.REFLECTIVE);
+		Ship ship = new Ship(50.0, 50.0, 0.0, 0.0, 10.0, 0.0);
+		world.addShip(ship);
+		world.getProjectiles().fire(ship, 100, 2, 5);
+		world.evolve(0.3);
+		assertEquals(1, world.getProjectiles().getNbProjectiles());
+		world.evolve(0.1);
+		assertEquals(0, world.getProjectiles().getNbProjectiles());
+	}
+
+	/**
+	 * A test suit which tests whether the hits of many projectiles, checked against the ships in a batch, are those
+	 * found by checking every projectile against every ship.
+	 */
+	@Test
+	public void testManyProjectiles() {
+		Random random = new Random(13);
+		World world = new World(3000, 3000, BoundaryMode.TOROIDAL);
+		for (int i = 0; i < 60; i++) {
+			world.addShip(new Ship(3000 * random.nextDouble(), 3000 * random.nextDouble(), 50 * random.nextGaussian(),
+					50 * random.nextGaussian(), 10 + 40 * random.nextDouble(), 2 * Math.PI * random.nextDouble()));
+		}
+		ProjectilePool projectiles = world.getProjectiles();
+		for (int k = 0; k < 5000; k++) {
+			Ship ship = world.getShipAt(random.nextInt(world.getNbShips()));
+			ship.turn(2 * Math.PI * random.nextDouble());
+			projectiles.fire(ship, 500 * random.nextDouble(), 1 + 2 * random.nextDouble(), random.nextDouble());
+		}
+		double duration = 0.5;
+		int expected = 0;
+		for (int i = 0; i < projectiles.getNbProjectiles(); i++) {
+			if (hitsShip(world, projectiles, i, Math.min(duration, projectiles.getTimeLeft(i))))
+				expected++;
+		}
+		assertTrue(expected > 0);
+		world.evolve(duration);
+		assertEquals(expected, projectiles.getNbHits());
+		for (int i = 0; i < projectiles.getNbProjectiles(); i++) {
+			assertTrue(projectiles.getTimeLeft(i) > 0);
+		}
+	}
+
+	/**
+	 * Returns true if and only if the projectile at the given index touches a ship other than its owner within the
+	 * given window, considering the images of the ships across the seams of the world.
+	 */
+	private static boolean hitsShip(World world, ProjectilePool projectiles, int index, double window) {
+		double x = projectiles.getPositionX(index);
+		double y = projectiles.getPositionY(index);
+		for (int j = 0; j < world.getNbShips(); j++) {
+			Ship ship = world.getShipAt(j);
+			if (ship == projectiles.getOwner(index))
+				continue;
+			double deltaX = ship.getPositionX() - x;
+			double deltaY = ship.getPositionY() - y;
+			deltaX -= world.getWidth() * Math.floor(deltaX / world.getWidth() + 0.5);
+			deltaY -= world.getHeight() * Math.floor(deltaY / world.getHeight() + 0.5);
+			double deltaVX = ship.getVelocityX() - projectiles.getVelocityX(index);
+			double deltaVY = ship.getVelocityY() - projectiles.getVelocityY(index);
+			double sigma = ship.getRadius() + projectiles.getRadius(index);
+			// the smallest distance between the circles within the window is attained at the clamped closest approach
+			double vv = deltaVX * deltaVX + deltaVY * deltaVY;
+			double t = vv == 0 ? 0 : Math.max(0, Math.min(window, -(deltaX * deltaVX + deltaY * deltaVY) / vv));
+			if (Math.hypot(deltaX + deltaVX * t, deltaY + deltaVY * t) <= sigma)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A test suit which tests whether slots of removed projectiles are reused with new handles.
+	 */
+	@Test
+	public void testRecycling() {
+		World world = new World();
+		Ship ship = new Ship();
+		world.addShip(ship);
+		ProjectilePool projectiles = world.getProjectiles();
+		int first = projectiles.fire(ship, 10, 1, 1);
+		projectiles.remove(first);
+		int second = projectiles.fire(ship, 10, 1, 1);
+		assertFalse(projectiles.isValidHandle(first));
+		assertTrue(projectiles.isValidHandle(second));
+		assertNotEquals(first, second);
+		assertEquals(1, projectiles.getNbProjectiles());
+	}
+
+	/**
+	 * A test suit which tests whether projectiles can be fired, followed and removed through the facade.
+	 */
+	@Test
+	public void testFacade() throws ModelException {
+		IProjectileFacade facade = new HandleFacade();
+		int shooter = facade.createShip(0.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		int target = facade.createShip(100.0, 0.0, 0.0, 0.0, 10.0, 0.0);
+		int projectile = facade.fireProjectile(shooter, 200, 2, 3);
+		assertEquals(1, facade.getNbProjectiles());
+		assertEquals(projectile, facade.getProjectileAt(0));
+		assertEquals(12.0, facade.getProjectilePosition(projectile)[0], EPSILON);
+		assertEquals(200.0, facade.getProjectileVelocity(projectile)[0], EPSILON);
+		assertEquals(2.0, facade.getProjectileRadius(projectile), EPSILON);
+		assertEquals(3.0, facade.getProjectileTimeLeft(projectile), EPSILON);
+		facade.evolve(1);
+		assertArrayEquals(new int[]{target}, facade.getShipsHit());
+		assertEquals(0, facade.getNbProjectiles());
+		int other = facade.fireProjectile(target, 10, 2, 3);
+		facade.removeProjectile(other);
+		assertEquals(0, facade.getNbProjectiles());
+	}
+
+	/**
+	 * A test suit which tests whether a projectile with an invalid lifetime is rejected by the facade.
+	 */
+	@Test(expected = ModelException.class)
+	public void testInvalidLifetime() throws ModelException {
+		IProjectileFacade facade = new HandleFacade();
+		facade.fireProjectile(facade.createShip(), 10, 2, 0);
+	}
+
+	/**
+	 * A test suit which tests whether a removed projectile is rejected by the facade.
+	 */
+	@Test(expected = ModelException.class)
+	public void testRemovedProjectile() throws ModelException {
+		IProjectileFacade facade = new HandleFacade();
+		int projectile = facade.fireProjectile(facade.createShip(), 10, 2, 1);
+		facade.removeProjectile(projectile);
+		facade.getProjectilePosition(projectile);
+	}
+}
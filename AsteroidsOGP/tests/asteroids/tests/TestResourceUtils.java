@@ -0,0 +1,114 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import asteroids.util.internal.ImageCache;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * A class containing test suits for the image cache and resource loading.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestResourceUtils {
+
+	private File folder;
+
+	/**
+	 * A set up method which writes three small images to a new temporary folder.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		folder = File.createTempFile("images", "");
+		assertTrue(folder.delete() && folder.mkdir());
+		for (int i = 0; i < 3; i++)
+			ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB), "png", new File(folder, i + ".png"));
+		ResourceUtils.getImageCache().clear();
+	}
+
+	/**
+	 * A tear down method which removes the temporary folder.
+	 */
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles())
+			file.delete();
+		folder.delete();
+	}
+
+	/**
+	 * A test suit which tests whether the least recently used images are evicted once the capacity is exceeded.
+	 */
+	@Test
+	public void testEviction() {
+		ImageCache cache = new ImageCache(2 * 256);
+		Image image1 = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+		Image image2 = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+		Image image3 = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+		assertEquals(256, ImageCache.sizeOf(image1));
+		cache.put("1", image1);
+		cache.put("2", image2);
+		assertSame(image1, cache.get("1"));
+		cache.put("3", image3);
+		assertSame(image1, cache.get("1"));
+		assertNull(cache.get("2"));
+		assertSame(image3, cache.get("3"));
+		assertEquals(512, cache.getSize());
+		cache.setCapacity(256);
+		assertEquals(1, cache.getNbImages());
+		assertSame(image3, cache.get("3"));
+	}
+
+	/**
+	 * A test suit which tests whether an image larger than the capacity is not cached.
+	 */
+	@Test
+	public void testTooLarge() {
+		ImageCache cache = new ImageCache(100);
+		cache.put("1", new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB));
+		assertNull(cache.get("1"));
+		assertEquals(0, cache.getSize());
+	}
+
+	/**
+	 * A test suit which tests whether loading the same file twice decodes it only once.
+	 */
+	@Test
+	public void testLoadImageCached() {
+		String filename = new File(folder, "0.png").getPath();
+		Image image = ResourceUtils.loadImage(filename);
+		assertEquals(8, image.getWidth(null));
+		assertSame(image, ResourceUtils.loadImage(filename));
+	}
+
+	/**
+	 * A test suit which tests whether prefetching a folder caches all of its images.
+	 */
+	@Test
+	public void testPrefetch() throws Exception {
+		ResourceUtils.prefetchImages(folder.getPath()).get(10, TimeUnit.SECONDS);
+		for (int i = 0; i < 3; i++)
+			assertNotNull(ResourceUtils.getImageCache().get(new File(folder, i + ".png").getPath()));
+	}
+
+	/**
+	 * A test suit which tests whether a missing file is reported.
+	 */
+	@Test(expected = RuntimeException.class)
+	public void testMissingFile() {
+		ResourceUtils.loadImage(new File(folder, "missing.png").getPath());
+	}
+}
@@ -0,0 +1,117 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import asteroids.facade.Facade;
+import asteroids.model.Ship;
+import asteroids.scenario.Distribution;
+import asteroids.scenario.LoadTestDriver;
+import asteroids.scenario.LoadTestReport;
+import asteroids.scenario.ScenarioGenerator;
+import asteroids.util.ModelException;
+
+/**
+ * A class containing test suits for the scenario generator and the load-test driver.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestScenarioGenerator {
+
+	private static final double EPSILON = 0.0001;
+
+	private static List<double[]> collect(ScenarioGenerator generator) {
+		final List<double[]> ships = new ArrayList<>();
+		generator.generate((x, y, xVelocity, yVelocity, radius, heading) ->
+				ships.add(new double[]{x, y, xVelocity, yVelocity, radius, heading}));
+		return ships;
+	}
+
+	/**
+	 * A test suit which tests whether the same seed generates the same ships, for every distribution.
+	 */
+	@Test
+	public void testReproducible() {
+		for (Distribution distribution : Distribution.values()) {
+			List<double[]> first = collect(new ScenarioGenerator(distribution, 100, 7));
+			List<double[]> second = collect(new ScenarioGenerator(distribution, 100, 7));
+			assertEquals(100, first.size());
+			for (int i = 0; i < first.size(); i++)
+				assertArrayEquals(first.get(i), second.get(i), 0.0);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether the radii and speeds stay within the configured ranges.
+	 */
+	@Test
+	public void testRanges() {
+		ScenarioGenerator generator = new ScenarioGenerator(Distribution.UNIFORM, 500, 1);
+		generator.setRadiusRange(15, 20);
+		generator.setSpeedRange(5, 6);
+		for (double[] ship : collect(generator)) {
+			assertTrue(ship[4] >= 15 && ship[4] <= 20);
+			double speed = Math.sqrt(ship[2] * ship[2] + ship[3] * ship[3]);
+			assertTrue(speed >= 5 - EPSILON && speed <= 6 + EPSILON);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether all ships of an overlapping scenario overlap.
+	 */
+	@Test
+	public void testAllOverlapping() throws ModelException {
+		Facade facade = new Facade();
+		List<Ship> ships = new ScenarioGenerator(Distribution.ALL_OVERLAPPING, 20, 3).generate(facade);
+		for (Ship ship1 : ships)
+			for (Ship ship2 : ships)
+				assertTrue(facade.overlap(ship1, ship2));
+	}
+
+	/**
+	 * A test suit which tests whether the ships of head-on streams collide pairwise.
+	 */
+	@Test
+	public void testHeadOnStreams() throws ModelException {
+		Facade facade = new Facade();
+		ScenarioGenerator generator = new ScenarioGenerator(Distribution.HEAD_ON_STREAMS, 50, 5);
+		generator.setSpeedRange(1, 10);
+		List<Ship> ships = generator.generate(facade);
+		for (int i = 0; i + 1 < ships.size(); i += 2)
+			assertTrue(facade.getTimeToCollision(ships.get(i), ships.get(i + 1)) < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * A test suit which tests whether the driver runs every tick of a scenario.
+	 */
+	@Test
+	public void testDriver() throws ModelException {
+		LoadTestDriver driver = new LoadTestDriver(new Facade(), 25, 0.1);
+		LoadTestReport report = driver.run(new ScenarioGenerator(Distribution.CLUSTERED, 40, 11));
+		assertEquals(25, report.getNbTicks());
+		assertEquals(40, report.getNbShips());
+		assertEquals(0, report.getNbErrors());
+		assertTrue(report.getLatencyPercentile(50) <= report.getMaximumLatency());
+	}
+
+	/**
+	 * A test suit which tests whether a radius range reaching below the minimum radius of ships is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testRadiusBelowMinimum() {
+		new ScenarioGenerator(Distribution.UNIFORM, 10, 0).setRadiusRange(1, 5);
+	}
+
+	/**
+	 * A test suit which tests whether a negative number of ships is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeNbShips() {
+		new ScenarioGenerator(Distribution.UNIFORM, -1, 0);
+	}
+}
@@ -0,0 +1,89 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import asteroids.part1.internal.ShipBatch;
+
+/**
+ * A class containing test suits for the batches in which ships are drawn.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestShipBatch {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether hulls are circles with the given center and radius.
+	 */
+	@Test
+	public void testHull() {
+		ShipBatch batch = new ShipBatch(Color.WHITE);
+		batch.addHull(100, 50, 20);
+		Rectangle2D bounds = batch.getPath().getBounds2D();
+		assertEquals(80, bounds.getMinX(), EPSILON);
+		assertEquals(120, bounds.getMaxX(), EPSILON);
+		assertEquals(30, bounds.getMinY(), EPSILON);
+		assertEquals(70, bounds.getMaxY(), EPSILON);
+		assertTrue(batch.getPath().contains(100 + 20 * Math.cos(1) * 0.99, 50 + 20 * Math.sin(1) * 0.99));
+		assertFalse(batch.getPath().contains(100 + 20 * Math.cos(1) * 1.01, 50 + 20 * Math.sin(1) * 1.01));
+	}
+
+	/**
+	 * A test suit which tests whether a flame matches a flame built by transforming a path.
+	 */
+	@Test
+	public void testFlame() {
+		double radius = 30, angle = -2, x = 200, y = 100;
+		ShipBatch batch = new ShipBatch(Color.ORANGE);
+		batch.addFlame(x, y, radius, angle);
+		Path2D.Double flame = new Path2D.Double();
+		double flameAngle = Math.PI / 12;
+		flame.moveTo(radius * Math.cos(Math.PI - flameAngle), radius * Math.sin(Math.PI - flameAngle));
+		flame.lineTo(-radius - radius / 3, 0);
+		flame.lineTo(radius * Math.cos(Math.PI + flameAngle), radius * Math.sin(Math.PI + flameAngle));
+		flame.transform(AffineTransform.getRotateInstance(angle));
+		flame.transform(AffineTransform.getTranslateInstance(x, y));
+		Rectangle2D expected = flame.getBounds2D();
+		Rectangle2D bounds = batch.getPath().getBounds2D();
+		assertEquals(expected.getMinX(), bounds.getMinX(), EPSILON);
+		assertEquals(expected.getMinY(), bounds.getMinY(), EPSILON);
+		assertEquals(expected.getMaxX(), bounds.getMaxX(), EPSILON);
+		assertEquals(expected.getMaxY(), bounds.getMaxY(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a batch draws all its ships in its color and is empty after a reset.
+	 */
+	@Test
+	public void testDraw() {
+		ShipBatch batch = new ShipBatch(Color.RED);
+		for (int i = 0; i < 10; i++) {
+			batch.addHull(20 + 40 * i, 20, 15);
+			batch.addLine(20 + 40 * i, 20, 35 + 40 * i, 20);
+		}
+		assertEquals(20, batch.getNbShapes());
+		BufferedImage image = new BufferedImage(400, 40, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = image.createGraphics();
+		batch.draw(g2d);
+		g2d.dispose();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Color.RED.getRGB(), image.getRGB(5 + 40 * i, 20));
+			assertEquals(Color.RED.getRGB(), image.getRGB(28 + 40 * i, 20));
+			assertEquals(Color.BLACK.getRGB(), image.getRGB(20 + 40 * i, 28));
+		}
+		batch.reset();
+		assertEquals(0, batch.getNbShapes());
+		assertNull(batch.getPath().getCurrentPoint());
+	}
+}
@@ -0,0 +1,99 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import asteroids.model.Ship;
+import asteroids.model.ShipRegistry;
+
+/**
+ * A class containing test suits for the class of ship registries.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestShipRegistry {
+
+	private ShipRegistry registry;
+	private Ship ship1;
+	private Ship ship2;
+	private Ship ship3;
+	private int handle1;
+	private int handle2;
+	private int handle3;
+
+	/**
+	 * A set up method which registers three ships in a registry with room for only two ships.
+	 */
+	@Before
+	public void setUp() {
+		registry = new ShipRegistry(2);
+		ship1 = new Ship();
+		ship2 = new Ship(100.0,0.0,0.0,0.0,30,0.0);
+		ship3 = new Ship(30.0,0.0,10.0,0.0,10.0,0.0);
+		handle1 = registry.add(ship1);
+		handle2 = registry.add(ship2);
+		handle3 = registry.add(ship3);
+	}
+
+	/**
+	 * A test suit which tests whether the ships are stored densely in insertion order.
+	 */
+	@Test
+	public void testAdd() {
+		assertEquals(3, registry.getNbShips());
+		assertSame(ship1, registry.getShipAt(0));
+		assertSame(ship2, registry.getShipAt(1));
+		assertSame(ship3, registry.getShipAt(2));
+		assertSame(ship2, registry.getShip(handle2));
+		assertEquals(handle3, registry.getHandleAt(2));
+		assertEquals(2, registry.getIndexOf(handle3));
+	}
+
+	/**
+	 * A test suit which tests whether removing a ship moves the last ship into its place
+	 * and invalidates only the handle of the removed ship.
+	 */
+	@Test
+	public void testRemove() {
+		registry.remove(handle1);
+		assertEquals(2, registry.getNbShips());
+		assertFalse(registry.isValidHandle(handle1));
+		assertSame(ship3, registry.getShipAt(0));
+		assertSame(ship3, registry.getShip(handle3));
+		assertEquals(0, registry.getIndexOf(handle3));
+		assertSame(ship2, registry.getShip(handle2));
+	}
+
+	/**
+	 * A test suit which tests whether a reused slot does not revive the handle of a removed ship.
+	 */
+	@Test
+	public void testReuseSlot() {
+		registry.remove(handle2);
+		int handle4 = registry.add(new Ship());
+		assertNotEquals(handle2, handle4);
+		assertFalse(registry.isValidHandle(handle2));
+		assertTrue(registry.isValidHandle(handle4));
+		assertEquals(3, registry.getNbSlots());
+	}
+
+	/**
+	 * A test suit which tests whether an invalid handle is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void getShip_IllegalCase() {
+		registry.remove(handle1);
+		registry.getShip(handle1);
+	}
+
+	/**
+	 * A test suit which tests whether a null ship is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void add_IllegalCase() {
+		registry.add(null);
+	}
+}
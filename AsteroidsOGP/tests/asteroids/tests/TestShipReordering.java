@@ -0,0 +1,127 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.OffHeapShipStorage;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the reordering of ships along a Hilbert curve.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestShipReordering {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether reordering the ships of a grid, added in random order, keeps their handles and
+	 * puts neighbouring ships next to each other.
+	 */
+	@Test
+	public void testGrid() {
+		World world = new World(3200, 3200, BoundaryMode.REFLECTIVE);
+		Random random = new Random(3);
+		Ship[] ships = new Ship[32 * 32];
+		for (int i = 0; i < ships.length; i++)
+			ships[i] = new Ship(50 + 100.0 * (i % 32), 50 + 100.0 * (i / 32), 0.0, 0.0, 10.0, 0.0);
+		for (int i = ships.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Ship swap = ships[i];
+			ships[i] = ships[j];
+			ships[j] = swap;
+		}
+		int[] handles = new int[ships.length];
+		for (int i = 0; i < ships.length; i++)
+			handles[i] = world.addShip(ships[i]);
+		world.reorderShips();
+		for (int i = 0; i < ships.length; i++)
+			assertSame(ships[i], world.getShip(handles[i]));
+		double length = 0;
+		for (int i = 1; i < world.getNbShips(); i++)
+			length += distance(world.getShipAt(i - 1), world.getShipAt(i));
+		// a Hilbert curve through the grid only steps between adjacent cells
+		assertEquals(100.0 * (ships.length - 1), length, EPSILON);
+		world.reorderShips();
+		for (int i = 0; i < ships.length; i++)
+			assertSame(ships[i], world.getShip(handles[i]));
+	}
+
+	private static double distance(Ship ship1, Ship ship2) {
+		return Math.hypot(ship1.getPositionX() - ship2.getPositionX(), ship1.getPositionY() - ship2.getPositionY());
+	}
+
+	/**
+	 * A test suit which tests whether ships bounce in the same way whether or not they are reordered while the
+	 * world evolves.
+	 */
+	@Test
+	public void testEvolve() {
+		World reordered = new World(2000, 2000, BoundaryMode.TOROIDAL);
+		World unordered = new World(2000, 2000, BoundaryMode.TOROIDAL);
+		reordered.setReorderInterval(1);
+		unordered.setReorderInterval(0);
+		Random random = new Random(7);
+		int[] handles = new int[300];
+		for (int i = 0; i < handles.length; i++) {
+			double x = 2000 * random.nextDouble();
+			double y = 2000 * random.nextDouble();
+			double velocityX = 100 * random.nextGaussian();
+			double velocityY = 100 * random.nextGaussian();
+			handles[i] = reordered.addShip(new Ship(x, y, velocityX, velocityY, 10.0, 0.0));
+			assertEquals(handles[i], unordered.addShip(new Ship(x, y, velocityX, velocityY, 10.0, 0.0)));
+		}
+		int nbBounces = 0;
+		for (int step = 0; step < 30; step++) {
+			nbBounces += reordered.evolve(1. / 30);
+			unordered.evolve(1. / 30);
+		}
+		assertTrue(nbBounces > 0);
+		for (int handle : handles) {
+			Ship ship = reordered.getShip(handle);
+			assertEquals(unordered.getShip(handle).getPositionX(), ship.getPositionX(), EPSILON);
+			assertEquals(unordered.getShip(handle).getPositionY(), ship.getPositionY(), EPSILON);
+			assertEquals(unordered.getShip(handle).getVelocityX(), ship.getVelocityX(), EPSILON);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether reordering an off-heap storage keeps every attribute with its handle.
+	 */
+	@Test
+	public void testOffHeapStorage() {
+		OffHeapShipStorage storage = new OffHeapShipStorage(4);
+		Random random = new Random(11);
+		int[] handles = new int[100];
+		for (int i = 0; i < handles.length; i++)
+			handles[i] = storage.add(1000 * random.nextDouble(), 1000 * random.nextDouble(), i, -i, 10 + i, 0.0);
+		storage.remove(handles[50]);
+		storage.reorderShips();
+		for (int i = 0; i < handles.length; i++) {
+			if (i == 50) {
+				assertFalse(storage.isValidHandle(handles[i]));
+				continue;
+			}
+			int index = storage.getIndexOf(handles[i]);
+			assertEquals(handles[i], storage.getHandleAt(index));
+			assertEquals(i, storage.getVelocityX(index), EPSILON);
+			assertEquals(-i, storage.getVelocityY(index), EPSILON);
+			assertEquals(10 + i, storage.getRadius(index), EPSILON);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether a negative reorder interval is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidInterval() {
+		new World().setReorderInterval(-1);
+	}
+}
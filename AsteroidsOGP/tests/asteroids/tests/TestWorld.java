@@ -0,0 +1,159 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for the class of worlds.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestWorld {
+
+	private static final double EPSILON = 0.0001;
+
+	private World world;
+	private Ship ship1;
+	private Ship ship2;
+	private int handle1;
+
+	/**
+	 * A set up method which adds a moving and a standing ship to a new world.
+	 */
+	@Before
+	public void setUp() {
+		world = new World();
+		ship1 = new Ship(0.0,0.0,10.0,10.0,30.0,0.0);
+		ship2 = new Ship(100.0,0.0,0.0,0.0,30,0.0);
+		handle1 = world.addShip(ship1);
+		world.addShip(ship2);
+	}
+
+	/**
+	 * A test suit which tests whether the ships move along with the world clock.
+	 */
+	@Test
+	public void testAdvanceTime() {
+		world.advanceTime(10);
+		assertEquals(10.0,world.getTime(),EPSILON);
+		assertEquals(100.0,ship1.getPosition().getX(),EPSILON);
+		assertEquals(100.0,ship1.getPosition().getY(),EPSILON);
+		assertEquals(100.0,ship2.getPosition().getX(),EPSILON);
+		assertEquals(0.0,ship2.getPosition().getY(),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a change of velocity only affects the trajectory from then on.
+	 */
+	@Test
+	public void testThrustWhileAdvancing() {
+		world.advanceTime(1);
+		ship1.thrust(10);
+		world.advanceTime(1);
+		assertEquals(30.0,ship1.getPosition().getX(),EPSILON);
+		assertEquals(20.0,ship1.getPosition().getY(),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether moving a single ship in a world is combined with the world clock.
+	 */
+	@Test
+	public void testMoveInWorld() {
+		world.advanceTime(1);
+		ship1.move(1);
+		world.advanceTime(1);
+		assertEquals(30.0,ship1.getPosition().getX(),EPSILON);
+		assertEquals(30.0,ship1.getPosition().getY(),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a removed ship keeps its position and no longer follows the clock.
+	 */
+	@Test
+	public void testRemoveShip() {
+		world.advanceTime(1);
+		world.removeShip(handle1);
+		world.advanceTime(1);
+		assertNull(ship1.getWorld());
+		assertEquals(1, world.getNbShips());
+		assertEquals(10.0,ship1.getPosition().getX(),EPSILON);
+		assertEquals(10.0,ship1.getPosition().getY(),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether collision predictions use the current positions of the ships.
+	 */
+	@Test
+	public void testGetCollisionTime() {
+		Ship ship3 = new Ship(200.0,0.0,-10.0,0.0,10.0,0.0);
+		world.addShip(ship3);
+		double before = ship2.getTimeToCollision(ship3);
+		world.advanceTime(2);
+		assertEquals(before - 2,ship2.getTimeToCollision(ship3),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a world is at rest if and only if none of its ships moves.
+	 */
+	@Test
+	public void testAtRest() {
+		assertFalse(world.isAtRest());
+		world.removeShip(handle1);
+		assertTrue(world.isAtRest());
+		ship2.thrust(1);
+		assertFalse(world.isAtRest());
+		assertTrue(new World().isAtRest());
+	}
+
+	/**
+	 * A test suit which tests whether the state version only changes when the ships or their trajectories change.
+	 */
+	@Test
+	public void testStateVersion() {
+		long version = world.getStateVersion();
+		world.advanceTime(5);
+		ship1.getPosition();
+		assertEquals(version, world.getStateVersion());
+		ship2.turn(1);
+		assertTrue(world.getStateVersion() > version);
+		version = world.getStateVersion();
+		ship1.thrust(5);
+		assertTrue(world.getStateVersion() > version);
+		version = world.getStateVersion();
+		ship2.setMaximumVelocity(ship2.getMaximumVelocity());
+		ship2.setMaximumVelocity(1e9);
+		assertEquals(version, world.getStateVersion());
+		ship2.setMaximumVelocity(100);
+		assertTrue(world.getStateVersion() > version);
+		version = world.getStateVersion();
+		world.removeShip(handle1);
+		assertTrue(world.getStateVersion() > version);
+		version = world.getStateVersion();
+		ship1.thrust(5);
+		assertEquals(version, world.getStateVersion());
+		world.addShip(new Ship());
+		assertTrue(world.getStateVersion() > version);
+	}
+
+	/**
+	 * A test suit which tests whether a ship can not be added to two worlds.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void addShip_IllegalCase() {
+		new World().addShip(ship1);
+	}
+
+	/**
+	 * A test suit which tests whether the clock can not be turned back.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void advanceTime_IllegalCase() {
+		world.advanceTime(-1);
+	}
+}
@@ -0,0 +1,166 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldAggregates;
+
+/**
+ * A class containing test suits for the aggregates over the ships of a world.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestWorldAggregates {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether the aggregates of two ships follow from their masses, positions and velocities.
+	 */
+	@Test
+	public void testTwoShips() {
+		World world = new World();
+		Ship ship1 = new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(100.0, 50.0, 0.0, -20.0, 20.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		WorldAggregates aggregates = world.getAggregates();
+		double mass = ship1.getMass() + ship2.getMass();
+		assertEquals(1.0, aggregates.getTotalMass() / mass, EPSILON);
+		assertEquals(1.0, aggregates.getKineticEnergy() / (ship1.getMass() * 50 + ship2.getMass() * 200), EPSILON);
+		assertEquals(15.0, aggregates.getMeanSpeed(), EPSILON);
+		world.advanceTime(2);
+		assertEquals((ship1.getMass() * 20 + ship2.getMass() * 100) / mass, aggregates.getCenterOfMassX(), EPSILON);
+		assertEquals(ship2.getMass() * 10 / mass, aggregates.getCenterOfMassY(), EPSILON);
+		assertEquals(10.0, aggregates.getMinimumX(), EPSILON);
+		assertEquals(120.0, aggregates.getMaximumX(), EPSILON);
+		assertEquals(-10.0, aggregates.getMinimumY(), EPSILON);
+		assertEquals(30.0, aggregates.getMaximumY(), EPSILON);
+		world.advanceTime(3);
+		// the second ship has fallen below the first one, which now defines the top of the box
+		assertEquals(10.0, aggregates.getMaximumY(), EPSILON);
+		assertEquals(-70.0, aggregates.getMinimumY(), EPSILON);
+		assertEquals(40.0, aggregates.getMinimumX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether the aggregates match those computed from all ships, while ships thrust, move,
+	 * bounce and are added and removed.
+	 */
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(5);
+		World world = new World();
+		for (int i = 0; i < 50; i++)
+			world.addShip(randomShip(random));
+		for (int step = 0; step < 300; step++) {
+			int action = random.nextInt(5);
+			Ship ship = world.getShipAt(random.nextInt(world.getNbShips()));
+			if (action == 0)
+				ship.thrust(20 * random.nextDouble());
+			else if (action == 1)
+				ship.move(random.nextDouble());
+			else if (action == 2)
+				ship.turn(random.nextDouble());
+			else if (action == 3 && world.getNbShips() > 1)
+				world.removeShip(world.getHandleAt(random.nextInt(world.getNbShips())));
+			else
+				world.addShip(randomShip(random));
+			world.evolve(0.1 * random.nextDouble());
+			assertAggregates(world);
+		}
+	}
+
+	private static Ship randomShip(Random random) {
+		return new Ship(2000 * random.nextDouble(), 2000 * random.nextDouble(), 50 * random.nextGaussian(),
+				50 * random.nextGaussian(), 10 + 20 * random.nextDouble(), 0.0);
+	}
+
+	private static void assertAggregates(World world) {
+		double mass = 0, energy = 0, speed = 0, momentX = 0, momentY = 0;
+		double minimumX = Double.POSITIVE_INFINITY, maximumX = Double.NEGATIVE_INFINITY;
+		double minimumY = Double.POSITIVE_INFINITY, maximumY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < world.getNbShips(); i++) {
+			Ship ship = world.getShipAt(i);
+			double shipSpeed = Math.hypot(ship.getVelocityX(), ship.getVelocityY());
+			mass += ship.getMass();
+			energy += ship.getMass() * shipSpeed * shipSpeed / 2;
+			speed += shipSpeed;
+			momentX += ship.getMass() * ship.getPositionX();
+			momentY += ship.getMass() * ship.getPositionY();
+			minimumX = Math.min(minimumX, ship.getPositionX() - ship.getRadius());
+			maximumX = Math.max(maximumX, ship.getPositionX() + ship.getRadius());
+			minimumY = Math.min(minimumY, ship.getPositionY() - ship.getRadius());
+			maximumY = Math.max(maximumY, ship.getPositionY() + ship.getRadius());
+		}
+		WorldAggregates aggregates = world.getAggregates();
+		assertEquals(1.0, aggregates.getTotalMass() / mass, EPSILON);
+		assertEquals(1.0, aggregates.getKineticEnergy() / energy, EPSILON);
+		assertEquals(speed / world.getNbShips(), aggregates.getMeanSpeed(), EPSILON);
+		assertEquals(momentX / mass, aggregates.getCenterOfMassX(), EPSILON);
+		assertEquals(momentY / mass, aggregates.getCenterOfMassY(), EPSILON);
+		assertEquals(minimumX, aggregates.getMinimumX(), EPSILON);
+		assertEquals(maximumX, aggregates.getMaximumX(), EPSILON);
+		assertEquals(minimumY, aggregates.getMinimumY(), EPSILON);
+		assertEquals(maximumY, aggregates.getMaximumY(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether the center of mass in a world that wraps around follows the ships and stays in
+	 * the world, also after a ship crossing the seam changes its velocity and after the sums are recomputed from
+	 * scratch, and whether the bounding box is the world.
+	 */
+	@Test
+	public void testToroidalWorld() {
+		World world = new World(1000, 1000, BoundaryMode.TOROIDAL);
+		Ship ship1 = new Ship(990.0, 500.0, 10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(500.0, 500.0, 0.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		WorldAggregates aggregates = world.getAggregates();
+		world.advanceTime(5);
+		ship1.thrust(1);
+		assertEquals(40.0, ship1.getPositionX(), EPSILON);
+		assertEquals(770.0, aggregates.getCenterOfMassX(), EPSILON);
+		for (int i = 0; i < 1100; i++) {
+			ship2.turn(0.001);
+			ship2.thrust(0);
+		}
+		assertEquals(770.0, aggregates.getCenterOfMassX(), EPSILON);
+		world.advanceTime(10);
+		assertEquals(150.0, ship1.getPositionX(), EPSILON);
+		assertEquals(825.0, aggregates.getCenterOfMassX(), EPSILON);
+		assertEquals(500.0, aggregates.getCenterOfMassY(), EPSILON);
+		// long after both ships drifted past the seam, the center of mass is still in the world
+		ship2.thrust(100);
+		world.advanceTime(100);
+		assertTrue(aggregates.getCenterOfMassX() >= 0 && aggregates.getCenterOfMassX() < 1000);
+		assertEquals(0.0, aggregates.getMinimumX(), 0.0);
+		assertEquals(1000.0, aggregates.getMaximumX(), 0.0);
+		assertEquals(0.0, aggregates.getMinimumY(), 0.0);
+		assertEquals(1000.0, aggregates.getMaximumY(), 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether the aggregates of a world without ships are empty.
+	 */
+	@Test
+	public void testEmptyWorld() {
+		World world = new World();
+		int handle = world.addShip(new Ship(0.0, 0.0, 10.0, 0.0, 10.0, 0.0));
+		world.removeShip(handle);
+		WorldAggregates aggregates = world.getAggregates();
+		assertEquals(0.0, aggregates.getTotalMass(), 0.0);
+		assertEquals(0.0, aggregates.getKineticEnergy(), 0.0);
+		assertTrue(Double.isNaN(aggregates.getMeanSpeed()));
+		assertTrue(Double.isNaN(aggregates.getCenterOfMassX()));
+		assertTrue(Double.isNaN(aggregates.getMinimumX()));
+	}
+}
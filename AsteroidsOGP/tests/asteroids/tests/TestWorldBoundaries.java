@@ -0,0 +1,128 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import asteroids.model.BoundaryMode;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class containing test suits for worlds with reflective or wrapping boundaries.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestWorldBoundaries {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * A test suit which tests whether a ship bounces off a wall at the predicted time.
+	 */
+	@Test
+	public void testReflectiveWall() {
+		World world = new World(100, 100, BoundaryMode.REFLECTIVE);
+		Ship ship = new Ship(50.0, 50.0, -10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship);
+		assertEquals(4.0, ship.getTimeToWallCollision(), EPSILON);
+		assertEquals(1, world.evolve(6));
+		assertEquals(30.0, ship.getPositionX(), EPSILON);
+		assertEquals(10.0, ship.getVelocityX(), EPSILON);
+		assertEquals(6.0, ship.getTimeToWallCollision(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a ship hitting a corner bounces off both walls.
+	 */
+	@Test
+	public void testCorner() {
+		World world = new World(100, 100, BoundaryMode.REFLECTIVE);
+		Ship ship = new Ship(50.0, 50.0, 10.0, 10.0, 10.0, 0.0);
+		world.addShip(ship);
+		world.evolve(5);
+		assertEquals(-10.0, ship.getVelocityX(), EPSILON);
+		assertEquals(-10.0, ship.getVelocityY(), EPSILON);
+		assertEquals(80.0, ship.getPositionX(), EPSILON);
+		assertEquals(80.0, ship.getPositionY(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether ships stay within the walls of a crowded world.
+	 */
+	@Test
+	public void testContainment() {
+		World world = new World(400, 300, BoundaryMode.REFLECTIVE);
+		Random random = new Random(4);
+		for (int i = 0; i < 50; i++) {
+			world.addShip(new Ship(40.0 + 40 * (i % 8), 40.0 + 40 * (i / 8), 200 * random.nextGaussian(),
+					200 * random.nextGaussian(), 10.0, 0.0));
+		}
+		for (int step = 0; step < 300; step++) {
+			world.evolve(1. / 30);
+			for (int i = 0; i < world.getNbShips(); i++) {
+				Ship ship = world.getShipAt(i);
+				assertTrue(ship.getPositionX() >= 10 - EPSILON && ship.getPositionX() <= 390 + EPSILON);
+				assertTrue(ship.getPositionY() >= 10 - EPSILON && ship.getPositionY() <= 290 + EPSILON);
+			}
+		}
+	}
+
+	/**
+	 * A test suit which tests whether positions wrap around in a toroidal world.
+	 */
+	@Test
+	public void testWrapping() {
+		World world = new World(100, 100, BoundaryMode.TOROIDAL);
+		Ship ship = new Ship(95.0, 50.0, 10.0, -20.0, 10.0, 0.0);
+		world.addShip(ship);
+		world.advanceTime(3);
+		assertEquals(25.0, ship.getPositionX(), EPSILON);
+		assertEquals(90.0, ship.getPositionY(), EPSILON);
+		assertEquals(Double.POSITIVE_INFINITY, ship.getTimeToWallCollision(), 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether ships near opposite sides of a toroidal world collide across the seam.
+	 */
+	@Test
+	public void testCollisionAcrossSeam() {
+		World world = new World(100, 100, BoundaryMode.TOROIDAL);
+		Ship ship1 = new Ship(15.0, 50.0, -10.0, 0.0, 10.0, 0.0);
+		Ship ship2 = new Ship(85.0, 50.0, 10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship1);
+		world.addShip(ship2);
+		assertEquals(10.0, ship1.getDistanceBetween(ship2), EPSILON);
+		assertEquals(0.5, ship1.getTimeToCollision(ship2), EPSILON);
+		assertEquals(0.0, ship1.getCollisionPosition(ship2).getX(), EPSILON);
+		assertEquals(1, world.evolve(1));
+		assertEquals(10.0, ship1.getVelocityX(), EPSILON);
+		assertEquals(-10.0, ship2.getVelocityX(), EPSILON);
+		assertEquals(15.0, ship1.getPositionX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a world without boundaries has no walls.
+	 */
+	@Test
+	public void testUnbounded() {
+		World world = new World();
+		Ship ship = new Ship(0.0, 0.0, -10.0, 0.0, 10.0, 0.0);
+		world.addShip(ship);
+		assertEquals(BoundaryMode.NONE, world.getBoundaryMode());
+		assertEquals(Double.POSITIVE_INFINITY, ship.getTimeToWallCollision(), 0.0);
+		world.evolve(10);
+		assertEquals(-100.0, ship.getPositionX(), EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a world without a proper size is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new World(0, 100, BoundaryMode.REFLECTIVE);
+	}
+}
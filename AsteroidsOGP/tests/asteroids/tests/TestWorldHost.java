@@ -0,0 +1,105 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldHost;
+
+/**
+ * A class containing test suits for the class of world hosts.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestWorldHost {
+
+	private static final double EPSILON = 0.0001;
+
+	private WorldHost host;
+
+	/**
+	 * A set up method which creates a host with two threads.
+	 */
+	@Before
+	public void setUp() {
+		host = new WorldHost(2);
+	}
+
+	/**
+	 * A tear down method which stops the threads of the host.
+	 */
+	@After
+	public void tearDown() {
+		host.close();
+	}
+
+	/**
+	 * A test suit which tests whether many worlds execute all their requested ticks independently.
+	 */
+	@Test
+	public void testRequestTicks() {
+		int nbWorlds = 1000;
+		WorldHost.HostedWorld[] hosted = new WorldHost.HostedWorld[nbWorlds];
+		Ship[] ships = new Ship[nbWorlds];
+		for (int i = 0; i < nbWorlds; i++) {
+			World world = new World();
+			ships[i] = new Ship(0.0,0.0,i,0.0,10.0,0.0);
+			world.addShip(ships[i]);
+			hosted[i] = host.host(world, 0.5, 3, null);
+			hosted[i].requestTicks(10);
+		}
+		assertTrue(host.awaitIdle(10, TimeUnit.SECONDS));
+		for (int i = 0; i < nbWorlds; i++) {
+			assertEquals(10, hosted[i].getNbTicks());
+			assertEquals(0, hosted[i].getNbPendingTicks());
+			assertEquals(5.0,hosted[i].getWorld().getTime(),EPSILON);
+			assertEquals(5.0 * i,ships[i].getPosition().getX(),EPSILON);
+		}
+	}
+
+	/**
+	 * A test suit which tests whether the controller of a world runs before each tick.
+	 */
+	@Test
+	public void testController() {
+		World world = new World();
+		Ship ship = new Ship();
+		world.addShip(ship);
+		WorldHost.HostedWorld hosted = host.host(world, 1, 1, w -> ship.thrust(1));
+		hosted.requestTicks(4);
+		assertTrue(host.awaitIdle(10, TimeUnit.SECONDS));
+		assertEquals(4.0,ship.getVelocity().getX(),EPSILON);
+		assertEquals(10.0,ship.getPosition().getX(),EPSILON);
+	}
+
+	/**
+	 * A test suit which tests whether a failing tick stops only its own world.
+	 */
+	@Test
+	public void testFailure() {
+		WorldHost.HostedWorld failing = host.host(new World(), 1, 1, w -> { throw new IllegalStateException(); });
+		WorldHost.HostedWorld healthy = host.host(new World(), 1, 1, null);
+		failing.requestTicks(5);
+		healthy.requestTicks(5);
+		assertTrue(host.awaitIdle(10, TimeUnit.SECONDS));
+		assertTrue(failing.isStopped());
+		assertTrue(failing.getFailure() instanceof IllegalStateException);
+		assertEquals(5, healthy.getNbTicks());
+		assertEquals(1, host.getNbWorlds());
+	}
+
+	/**
+	 * A test suit which tests whether worlds can not be hosted with an invalid tick budget.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void host_IllegalCase() {
+		host.host(new World(), 1, 0, null);
+	}
+}
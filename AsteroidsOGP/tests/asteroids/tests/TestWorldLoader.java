@@ -0,0 +1,124 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.scenario.WorldLoader;
+
+/**
+ * A class containing test suits for the world loader.
+ *
+ * @version 1.0
+ *
+ * @author Maarten Doclo and Wim Kunnen
+ */
+public class TestWorldLoader {
+
+	private static final double EPSILON = 0.0001;
+
+	private List<double[]> ships;
+	private List<Long> errorLines;
+
+	/**
+	 * A set up method which clears the loaded ships and the reported errors.
+	 */
+	@Before
+	public void setUp() {
+		ships = new ArrayList<>();
+		errorLines = new ArrayList<>();
+	}
+
+	private long load(WorldLoader loader, String text) throws IOException {
+		return loader.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)),
+				(x, y, xVelocity, yVelocity, radius, heading) -> {
+					if (radius < 10)
+						throw new IllegalArgumentException();
+					ships.add(new double[]{x, y, xVelocity, yVelocity, radius, heading});
+				}, (line, message) -> errorLines.add(line));
+	}
+
+	/**
+	 * A test suit which tests whether the supported number formats and separators are read correctly.
+	 */
+	@Test
+	public void testFormats() throws IOException {
+		assertEquals(3, load(new WorldLoader(), "x,y,vx,vy,radius,heading\n"
+				+ "1,2,3,4,10,0\r\n"
+				+ "# a comment\n"
+				+ "\n"
+				+ "-1.5e2 ; 0.000125 ; +7 ; -0 ; 12345678901234567890 ; 3.14\n"
+				+ "0.1\t0.2\t1E-3\t.5\t10.\t6.2831"));
+		assertTrue(errorLines.isEmpty());
+		assertArrayEquals(new double[]{1, 2, 3, 4, 10, 0}, ships.get(0), 0.0);
+		assertArrayEquals(new double[]{-150, 0.000125, 7, -0.0, 12345678901234567890.0, 3.14}, ships.get(1), 0.0);
+		assertArrayEquals(new double[]{0.1, 0.2, 0.001, 0.5, 10, 6.2831}, ships.get(2), 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether invalid lines are reported without aborting the load.
+	 */
+	@Test
+	public void testErrors() throws IOException {
+		assertEquals(2, load(new WorldLoader(), "1,2,3,4,10,0\n"
+				+ "1,2,3,4,10\n"
+				+ "1,2,3,4,10,0,7\n"
+				+ "1,2,x,4,10,0\n"
+				+ "1,2,3,4,5,0\n"
+				+ "1,2,3,4,10,7\n"
+				+ "1,,3,4,10,0\n"
+				+ "5,6,7,8,20,1\n"));
+		assertEquals(2, ships.size());
+		assertEquals(5.0, ships.get(1)[0], EPSILON);
+		assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L, 7L), errorLines);
+	}
+
+	/**
+	 * A test suit which tests whether lines crossing the buffer boundary and lines longer than the buffer are
+	 * handled.
+	 */
+	@Test
+	public void testSmallBuffer() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			text.append(i).append(",2,3,4,10,0\n");
+		text.append("1,2,3,4,10,0                                              \n");
+		text.append("100,2,3,4,10,0");
+		assertEquals(101, load(new WorldLoader(32), text.toString()));
+		assertEquals(Arrays.asList(101L), errorLines);
+		assertEquals(99.0, ships.get(99)[0], 0.0);
+		assertEquals(100.0, ships.get(100)[0], 0.0);
+	}
+
+	/**
+	 * A test suit which tests whether a file is loaded into a new world.
+	 */
+	@Test
+	public void testLoadWorld() throws IOException {
+		Path file = Files.createTempFile("world", ".csv");
+		try {
+			StringBuilder text = new StringBuilder();
+			for (int i = 0; i < 5000; i++)
+				text.append(i * 100).append(",0,1,0,10,0\n");
+			Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+			World world = new WorldLoader().loadWorld(file, (line, message) -> fail(message));
+			assertEquals(5000, world.getNbShips());
+			Ship ship = world.getShipAt(4999);
+			assertEquals(499900.0, ship.getPosition().getX(), EPSILON);
+			assertSame(world, ship.getWorld());
+		} finally {
+			Files.delete(file);
+		}
+	}
+}